@@ -0,0 +1,28 @@
+#!/bin/bash
+# Runs the JMH suite against the current backend sources and writes
+# results/<commit>.json. Extra arguments go to JMH, e.g. a benchmark regex
+# or "-f 1 -wi 1 -i 3" for a quick pass. JdbcProfiler is always on; it adds
+# JDBC statements and batches per call to the benchmarks that track them.
+#
+# Compare two runs with:
+#   java -cp target/benchmarks.jar ye.gov.sanaa.healthoffice.bench.CompareResults \
+#       results/<base>.json results/<new>.json [threshold-percent]
+set -e
+
+cd "$(dirname "$0")"
+
+echo "=== Installing backend classes ==="
+(cd .. && mvn -B -q install -DskipTests)
+
+echo "=== Building benchmarks ==="
+mvn -B -q package
+
+commit=$(git rev-parse --short HEAD)
+if ! git diff --quiet HEAD -- ..; then
+    commit="$commit-dirty"
+fi
+mkdir -p results
+
+echo "=== Running benchmarks ($commit) ==="
+java -jar target/benchmarks.jar -prof ye.gov.sanaa.healthoffice.bench.JdbcProfiler -rf json -rff "results/$commit.json" "$@"
+echo "Results: benchmarks/results/$commit.json"
@@ -0,0 +1,90 @@
+package ye.gov.sanaa.healthoffice.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files, benchmark by benchmark.
+ *
+ * <pre>java -cp target/benchmarks.jar ye.gov.sanaa.healthoffice.bench.CompareResults base.json new.json [percent]</pre>
+ *
+ * A benchmark regressed when its score got worse by more than the threshold
+ * (default 10%) and by more than both runs' error margins together. Exits
+ * with status 1 if any did, so CI can fail the build on it. Per-operation
+ * secondary results, such as jdbc.statements from JdbcProfiler or
+ * gc.alloc.rate.norm, are compared the same way, lower being better.
+ */
+public final class CompareResults {
+
+    private record Score(double score, double error, String unit, boolean higherIsBetter) {
+    }
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <base.json> <new.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Score> base = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %-8s %8s%n", "Benchmark", "Base", "New", "Unit", "Change");
+        for (Map.Entry<String, Score> e : current.entrySet()) {
+            Score now = e.getValue();
+            Score was = base.get(e.getKey());
+            if (was == null) {
+                System.out.printf("%-90s %14s %14.3f %-8s %8s%n", e.getKey(), "-", now.score(), now.unit(), "new");
+                continue;
+            }
+            double change = now.score() == was.score() ? 0 : (now.score() - was.score()) / was.score() * 100;
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean regressed = worse > threshold
+                    && Math.abs(now.score() - was.score()) > now.error() + was.error();
+            if (regressed)
+                regressions++;
+            System.out.printf("%-90s %14.3f %14.3f %-8s %+7.1f%%%s%n", e.getKey(), was.score(), now.score(),
+                    now.unit(), change, regressed ? "  REGRESSED" : "");
+        }
+        for (String name : base.keySet()) {
+            if (!current.containsKey(name))
+                System.out.printf("%-90s %14.3f %14s %-8s %8s%n", name, base.get(name).score(), "-",
+                        base.get(name).unit(), "gone");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder name = new StringBuilder(run.path("benchmark").asText()
+                    .replace("ye.gov.sanaa.healthoffice.", ""));
+            run.path("params").fields().forEachRemaining(p -> name.append(':').append(p.getKey())
+                    .append('=').append(p.getValue().asText()));
+            scores.put(name.toString(), score(run.path("primaryMetric"), run.path("mode").asText().equals("thrpt")));
+            run.path("secondaryMetrics").fields().forEachRemaining(m -> {
+                if (m.getValue().path("scoreUnit").asText().endsWith("/op"))
+                    scores.put(name + ":" + m.getKey(), score(m.getValue(), false));
+            });
+        }
+        return scores;
+    }
+
+    private static Score score(JsonNode metric, boolean higherIsBetter) {
+        double error = metric.path("scoreError").asDouble(0);
+        return new Score(metric.path("score").asDouble(), Double.isNaN(error) ? 0 : error,
+                metric.path("scoreUnit").asText(), higherIsBetter);
+    }
+}
@@ -0,0 +1,98 @@
+package ye.gov.sanaa.healthoffice.bench;
+
+import ye.gov.sanaa.healthoffice.dto.PublicLicenseDto;
+import ye.gov.sanaa.healthoffice.entity.Application;
+import ye.gov.sanaa.healthoffice.entity.Facility;
+import ye.gov.sanaa.healthoffice.entity.License;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/** Fully populated sample rows, shaped like what the admin screens load. */
+public final class Fixtures {
+
+    public static final String[] FACILITY_TYPES = { "PHARMACY", "CLINIC", "DENTAL_CLINIC", "LABORATORY",
+            "CENTER", "HOSPITAL", "RADIOLOGY_LAB", "EMERGENCY_CLINIC" };
+
+    private static final OffsetDateTime CREATED = OffsetDateTime.of(2026, 3, 14, 9, 30, 0, 0, ZoneOffset.UTC);
+
+    private Fixtures() {
+    }
+
+    public static Facility facility(long id) {
+        return Facility.builder()
+                .id(id)
+                .facilityCode(String.format("FAC-G%07d", id))
+                .nameAr("صيدلية الشفاء " + id)
+                .nameEn("Al-Shifa Pharmacy " + id)
+                .facilityType(FACILITY_TYPES[(int) (id % FACILITY_TYPES.length)])
+                .licenseType("NEW")
+                .district("التحرير")
+                .area("شارع جمال")
+                .street("جوار البنك المركزي")
+                .latitude(15.3520 + (id % 100) * 0.0007)
+                .longitude(44.2075 + (id % 97) * 0.0007)
+                .propertyOwner("محمد أحمد علي")
+                .roomsCount(6)
+                .createdAt(CREATED)
+                .build();
+    }
+
+    public static Application application(long id) {
+        return Application.builder()
+                .id(id)
+                .applicationNumber(String.format("APP-G%07d", id))
+                .facility(facility(id))
+                .status("UNDER_REVIEW")
+                .licenseType("NEW")
+                .facilityType(FACILITY_TYPES[(int) (id % FACILITY_TYPES.length)])
+                .supervisorName("د. عبدالله صالح الحكيمي")
+                .supervisorPhone("777123456")
+                .supervisorNationalId("01010123456")
+                .supervisorIdIssuer("أمانة العاصمة")
+                .supervisorIdIssueDate(LocalDate.of(2015, 6, 1))
+                .supervisorQualification("بكالوريوس صيدلة")
+                .supervisorUniversity("جامعة صنعاء")
+                .supervisorQualIssuer("وزارة التعليم العالي")
+                .supervisorQualDate(LocalDate.of(2012, 7, 15))
+                .supervisorPracticeLicense("MP-2019-4471")
+                .supervisorLicenseExpiry(LocalDate.of(2027, 12, 31))
+                .prevIssuingAuthority("مكتب الصحة")
+                .prevLicenseNumber("LIC-2023-00412")
+                .prevLicenseDate(LocalDate.of(2023, 2, 1))
+                .prevValidityPeriod("سنة")
+                .createdAt(CREATED.plusMinutes(id))
+                .updatedAt(CREATED.plusDays(3))
+                .submittedAt(CREATED.plusHours(2))
+                .version(4L)
+                .build();
+    }
+
+    public static License license(Application app) {
+        return License.builder()
+                .id(app.getId())
+                .application(app)
+                .licenseNumber(String.format("LIC-G%07d", app.getId()))
+                .issueDate(LocalDate.of(2026, 4, 1))
+                .expiryDate(LocalDate.of(2027, 4, 1))
+                .status("ACTIVE")
+                .createdAt(CREATED.plusDays(18))
+                .build();
+    }
+
+    public static PublicLicenseDto publicLicense(Application app) {
+        License license = license(app);
+        return PublicLicenseDto.builder()
+                .facilityName(app.getFacility().getNameAr())
+                .licenseNumber(license.getLicenseNumber())
+                .facilityType(app.getFacilityType())
+                .status(license.getStatus())
+                .issueDate(license.getIssueDate())
+                .expiryDate(license.getExpiryDate())
+                .isValid(true)
+                .district(app.getFacility().getDistrict())
+                .supervisorName(app.getSupervisorName())
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package ye.gov.sanaa.healthoffice.bench;
+
+import org.hibernate.SessionEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the JDBC statements and batches Hibernate executes, from the same
+ * session events that back hibernate.session.events.log. Hibernate creates
+ * one per session when the class is named in hibernate.session.events.auto
+ * (RunningApp does). Only threads that called {@link #track()} are counted,
+ * so the outbox dispatcher and other background work stay out of the
+ * numbers {@link JdbcProfiler} reports.
+ */
+public class JdbcEventCounter implements SessionEventListener {
+
+    private static final ThreadLocal<Boolean> TRACKED = ThreadLocal.withInitial(() -> false);
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+    private static final AtomicLong BATCHES = new AtomicLong();
+    private static volatile boolean tracking;
+
+    /** Counts the calling thread's JDBC work from now on. */
+    public static void track() {
+        TRACKED.set(true);
+        tracking = true;
+    }
+
+    static boolean tracking() {
+        return tracking;
+    }
+
+    static long statements() {
+        return STATEMENTS.get();
+    }
+
+    static long batches() {
+        return BATCHES.get();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        if (TRACKED.get())
+            STATEMENTS.incrementAndGet();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        if (TRACKED.get())
+            BATCHES.incrementAndGet();
+    }
+}
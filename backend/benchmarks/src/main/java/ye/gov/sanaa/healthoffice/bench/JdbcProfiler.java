@@ -0,0 +1,54 @@
+package ye.gov.sanaa.healthoffice.bench;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reports the JDBC statements and batches Hibernate executed per benchmark
+ * operation, as jdbc.statements and jdbc.batches, the way gc.alloc.rate.norm
+ * reports allocation:
+ *
+ * <pre>java -jar target/benchmarks.jar -prof ye.gov.sanaa.healthoffice.bench.JdbcProfiler</pre>
+ *
+ * run.sh always adds it. Benchmarks that never call
+ * {@link JdbcEventCounter#track()} get no jdbc results.
+ */
+public class JdbcProfiler implements InternalProfiler {
+
+    private long statementsBefore;
+    private long batchesBefore;
+
+    @Override
+    public String getDescription() {
+        return "JDBC statements and batches per operation, from Hibernate session events";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        statementsBefore = JdbcEventCounter.statements();
+        batchesBefore = JdbcEventCounter.batches();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+            IterationParams iterationParams, IterationResult result) {
+        long ops = result.getMetadata().getAllOps();
+        if (!JdbcEventCounter.tracking() || ops == 0)
+            return List.of();
+        return List.of(
+                perOp("jdbc.statements", JdbcEventCounter.statements() - statementsBefore, ops),
+                perOp("jdbc.batches", JdbcEventCounter.batches() - batchesBefore, ops));
+    }
+
+    private static ScalarResult perOp(String label, long count, long ops) {
+        return new ScalarResult(label, (double) count / ops, "#/op", AggregationPolicy.AVG);
+    }
+}
@@ -0,0 +1,39 @@
+package ye.gov.sanaa.healthoffice.bench;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ye.gov.sanaa.healthoffice.HealthOfficeBackendApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the backend in-process for benchmarks of whole service calls, with
+ * {@link JdbcEventCounter} registered so {@link JdbcProfiler} can report
+ * the JDBC work per call.
+ *
+ * "h2" runs on the in-memory profile. "postgres" connects like the
+ * application does, through the PG* environment variables, and migrates
+ * that database; the rows a benchmark writes stay there, so point
+ * PGDATABASE at a scratch database.
+ */
+public final class RunningApp {
+
+    private RunningApp() {
+    }
+
+    public static ConfigurableApplicationContext start(String database) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.properties.hibernate.session.events.auto=" + JdbcEventCounter.class.getName(),
+                "--logging.level.root=WARN",
+                "--logging.level.ye.gov.sanaa.healthoffice=WARN"));
+        switch (database) {
+            case "h2" -> args.add("--spring.profiles.active=h2");
+            case "postgres" -> {
+            }
+            default -> throw new IllegalArgumentException("database must be h2 or postgres: " + database);
+        }
+        return new SpringApplicationBuilder(HealthOfficeBackendApplication.class).run(args.toArray(String[]::new));
+    }
+}
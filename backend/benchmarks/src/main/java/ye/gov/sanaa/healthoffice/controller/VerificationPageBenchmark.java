@@ -0,0 +1,31 @@
+package ye.gov.sanaa.healthoffice.controller;
+
+import org.openjdk.jmh.annotations.*;
+import ye.gov.sanaa.healthoffice.bench.Fixtures;
+import ye.gov.sanaa.healthoffice.dto.PublicLicenseDto;
+
+import java.util.concurrent.TimeUnit;
+
+/** The HTML page served to every QR code scan, given the (usually cached) license. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerificationPageBenchmark {
+
+    private WebVerificationController controller;
+    private PublicLicenseDto license;
+
+    @Setup
+    public void setUp() {
+        controller = new WebVerificationController(null);
+        license = Fixtures.publicLicense(Fixtures.application(1001));
+    }
+
+    @Benchmark
+    public String generateHtml() {
+        return controller.generateHtml(license);
+    }
+}
@@ -0,0 +1,55 @@
+package ye.gov.sanaa.healthoffice.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and the per-request parse. parseVerified is the steady state
+ * (verified-token cache hit); parseUncached checks the HMAC every time, as
+ * with jwt.verified-cache.max-entries=0 or a token seen for the first time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "change-this-secret-in-production-very-strong-and-long";
+    private static final Map<String, Object> CLAIMS = Map.of(
+            "actorType", "ADMIN",
+            "actorId", 17L,
+            "role", "REVIEWER");
+
+    private JwtTokenProvider cached;
+    private JwtTokenProvider uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = new JwtTokenProvider(SECRET, 900, 1209600, 10000);
+        uncached = new JwtTokenProvider(SECRET, 900, 1209600, 0);
+        token = cached.createAccessToken("reviewer1", CLAIMS);
+        cached.parse(token);
+    }
+
+    @Benchmark
+    public String createAccessToken() {
+        return cached.createAccessToken("reviewer1", CLAIMS);
+    }
+
+    @Benchmark
+    public Optional<Claims> parseVerified() {
+        return cached.parse(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> parseUncached() {
+        return uncached.parse(token);
+    }
+}
@@ -0,0 +1,34 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.openjdk.jmh.annotations.*;
+import ye.gov.sanaa.healthoffice.bench.Fixtures;
+import ye.gov.sanaa.healthoffice.dto.ApplicationDto;
+import ye.gov.sanaa.healthoffice.entity.Application;
+
+import java.util.concurrent.TimeUnit;
+
+/** Entity to DTO mapping done for every application a service method returns. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApplicationMappingBenchmark {
+
+    private ApplicationService service;
+    private Application application;
+
+    @Setup
+    public void setUp() {
+        // toDto reads only the entity; none of the collaborators are touched
+        service = new ApplicationService(null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null);
+        application = Fixtures.application(1001);
+    }
+
+    @Benchmark
+    public ApplicationDto toDto() {
+        return service.toDto(application);
+    }
+}
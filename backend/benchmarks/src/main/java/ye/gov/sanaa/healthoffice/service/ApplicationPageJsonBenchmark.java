@@ -0,0 +1,56 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ye.gov.sanaa.healthoffice.bench.Fixtures;
+import ye.gov.sanaa.healthoffice.dto.ApplicationDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body of a paged application listing, written with a mapper
+ * configured like the application's own (spring.jackson.time-zone UTC,
+ * ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApplicationPageJsonBenchmark {
+
+    @Param({ "20", "100" })
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private Page<ApplicationDto> page;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .timeZone("UTC")
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+        ApplicationService service = new ApplicationService(null, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, null);
+        List<ApplicationDto> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(service.toDto(Fixtures.application(5000 + i)));
+        }
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize), 60000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,75 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.openjdk.jmh.annotations.*;
+import ye.gov.sanaa.healthoffice.bench.Fixtures;
+import ye.gov.sanaa.healthoffice.repository.FacilityRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distance maths and the minimum-distance check behind facility
+ * registration, answered from the grid index over synthetic locations
+ * spread across the city.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GisBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({ "2000", "100000" })
+    public int facilities;
+
+    private GISService gis;
+    private final double[] lat = new double[PROBES];
+    private final double[] lon = new double[PROBES];
+    private final String[] type = new String[PROBES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        List<Object[]> rows = new ArrayList<>(facilities);
+        for (long id = 1; id <= facilities; id++) {
+            rows.add(new Object[] { id, Fixtures.FACILITY_TYPES[rnd.nextInt(Fixtures.FACILITY_TYPES.length)],
+                    15.28 + rnd.nextDouble() * 0.14, 44.14 + rnd.nextDouble() * 0.13 });
+        }
+        for (int i = 0; i < PROBES; i++) {
+            lat[i] = 15.28 + rnd.nextDouble() * 0.14;
+            lon[i] = 44.14 + rnd.nextDouble() * 0.13;
+            type[i] = Fixtures.FACILITY_TYPES[rnd.nextInt(Fixtures.FACILITY_TYPES.length)];
+        }
+
+        FacilityRepository repository = (FacilityRepository) Proxy.newProxyInstance(
+                FacilityRepository.class.getClassLoader(), new Class<?>[] { FacilityRepository.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAllLocations"))
+                        return rows;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        FacilityGridIndex grid = new FacilityGridIndex(repository, 0.01, 400);
+        grid.rebuild();
+        gis = new GISService(repository, grid, null);
+    }
+
+    @Benchmark
+    public double calculateDistance() {
+        int i = next++ & (PROBES - 1);
+        int j = (i + 1) & (PROBES - 1);
+        return gis.calculateDistance(lat[i], lon[i], lat[j], lon[j]);
+    }
+
+    @Benchmark
+    public boolean isLocationValid() {
+        int i = next++ & (PROBES - 1);
+        return gis.isLocationValid(lat[i], lon[i], type[i], 200);
+    }
+}
@@ -0,0 +1,106 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ye.gov.sanaa.healthoffice.bench.JdbcEventCounter;
+import ye.gov.sanaa.healthoffice.bench.RunningApp;
+import ye.gov.sanaa.healthoffice.dto.InspectionDto;
+import ye.gov.sanaa.healthoffice.entity.Application;
+import ye.gov.sanaa.healthoffice.entity.Facility;
+import ye.gov.sanaa.healthoffice.entity.FacilityUser;
+import ye.gov.sanaa.healthoffice.repository.AdminRepository;
+import ye.gov.sanaa.healthoffice.repository.ApplicationRepository;
+import ye.gov.sanaa.healthoffice.repository.FacilityRepository;
+import ye.gov.sanaa.healthoffice.repository.FacilityUserRepository;
+import ye.gov.sanaa.healthoffice.workflow.ApplicationStatus;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InspectionService.scheduleInspection on the running application: loads
+ * the application and inspector, inserts the inspection and one score row
+ * per HOSPITAL template criterion, moves the status and writes the outbox
+ * row. Next to the time per call, JdbcProfiler reports the statements and
+ * batches it sends, so insert batching that stops working shows up as a
+ * count even where the in-memory database hides it in the timing.
+ *
+ * <pre>benchmarks/run.sh InspectionSchedulingBenchmark [-p database=postgres]</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InspectionSchedulingBenchmark {
+
+    // Calls cycle through these, each rescheduling its application
+    private static final int APPLICATIONS = 1000;
+
+    @Param({ "h2" })
+    public String database;
+
+    private ConfigurableApplicationContext context;
+    private InspectionService inspectionService;
+    private long inspectorId;
+    private long[] applicationIds;
+    private int next;
+    private OffsetDateTime slot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = RunningApp.start(database);
+        inspectionService = context.getBean(InspectionService.class);
+        inspectorId = context.getBean(AdminRepository.class).findByUsername("admin").orElseThrow().getId();
+        applicationIds = seedApplications();
+        // Far past any booking already in the database
+        slot = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS).plusYears(10);
+        // Trial setup runs on the benchmark thread
+        JdbcEventCounter.track();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public InspectionDto scheduleInspection() {
+        long applicationId = applicationIds[next++ % applicationIds.length];
+        // Two hours apart, so the inspector is never double-booked
+        slot = slot.plusHours(2);
+        return inspectionService.scheduleInspection(applicationId, inspectorId, slot);
+    }
+
+    private long[] seedApplications() {
+        FacilityRepository facilities = context.getBean(FacilityRepository.class);
+        FacilityUserRepository users = context.getBean(FacilityUserRepository.class);
+        ApplicationRepository applications = context.getBean(ApplicationRepository.class);
+        String run = Long.toHexString(ThreadLocalRandom.current().nextLong() & 0xffffffL);
+        return new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).execute(status -> {
+            // The facility and owner DataInitializer seeds
+            Facility facility = facilities.findByFacilityCode("FAC-001").orElseThrow();
+            FacilityUser owner = users.findByPhoneNumber("777777777").orElseThrow();
+            List<Application> batch = new ArrayList<>(APPLICATIONS);
+            for (int i = 0; i < APPLICATIONS; i++) {
+                batch.add(Application.builder()
+                        .applicationNumber("APP-BENCH-" + run + "-" + i)
+                        .facility(facility)
+                        .submittedByUser(owner)
+                        .status(ApplicationStatus.UNDER_REVIEW.name())
+                        .licenseType("NEW")
+                        .facilityType("HOSPITAL")
+                        .build());
+            }
+            return applications.saveAll(batch).stream().mapToLong(Application::getId).toArray();
+        });
+    }
+}
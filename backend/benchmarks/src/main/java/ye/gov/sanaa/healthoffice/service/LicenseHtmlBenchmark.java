@@ -0,0 +1,37 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.openjdk.jmh.annotations.*;
+import ye.gov.sanaa.healthoffice.bench.Fixtures;
+import ye.gov.sanaa.healthoffice.entity.Application;
+import ye.gov.sanaa.healthoffice.entity.License;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Templating of the printable license document. The fee setting lookup and
+ * the write to uploads/ around it are left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LicenseHtmlBenchmark {
+
+    private LicenseService service;
+    private Application application;
+    private License license;
+
+    @Setup
+    public void setUp() {
+        service = new LicenseService(null, null, null, null, null, null, null, null, null, null);
+        application = Fixtures.application(1001);
+        license = Fixtures.license(application);
+    }
+
+    @Benchmark
+    public String renderLicenseHtml() {
+        return service.renderLicenseHtml(application, license, "150,000");
+    }
+}
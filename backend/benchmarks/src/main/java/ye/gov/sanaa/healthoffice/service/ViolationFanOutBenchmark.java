@@ -0,0 +1,110 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ye.gov.sanaa.healthoffice.bench.JdbcEventCounter;
+import ye.gov.sanaa.healthoffice.bench.RunningApp;
+import ye.gov.sanaa.healthoffice.entity.Application;
+import ye.gov.sanaa.healthoffice.entity.Facility;
+import ye.gov.sanaa.healthoffice.entity.FacilityUser;
+import ye.gov.sanaa.healthoffice.entity.Violation;
+import ye.gov.sanaa.healthoffice.repository.ApplicationRepository;
+import ye.gov.sanaa.healthoffice.repository.FacilityRepository;
+import ye.gov.sanaa.healthoffice.repository.FacilityUserRepository;
+import ye.gov.sanaa.healthoffice.workflow.ApplicationStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ViolationService.addViolation against a facility with facilityUsers
+ * users, each of whom gets a notification through the outbox. Called the
+ * way the admin endpoint calls it, with an application that carries only
+ * its id. Next to the time per call, JdbcProfiler reports the statements and
+ * batches it sends, which shows how the cost grows with the fan-out.
+ *
+ * <pre>benchmarks/run.sh ViolationFanOutBenchmark [-p database=postgres]</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ViolationFanOutBenchmark {
+
+    @Param({ "h2" })
+    public String database;
+
+    @Param({ "1", "10", "100" })
+    public int facilityUsers;
+
+    private ConfigurableApplicationContext context;
+    private ViolationService violationService;
+    private long applicationId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = RunningApp.start(database);
+        violationService = context.getBean(ViolationService.class);
+        applicationId = seedFacility();
+        // Trial setup runs on the benchmark thread
+        JdbcEventCounter.track();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Violation addViolation() {
+        return violationService.addViolation(Violation.builder()
+                .application(Application.builder().id(applicationId).build())
+                .code("V-204")
+                .description("Expired medicines on display")
+                .penalty("Warning")
+                .severity("MINOR")
+                .build());
+    }
+
+    // A facility with facilityUsers users and one application, returning its id
+    private long seedFacility() {
+        FacilityRepository facilities = context.getBean(FacilityRepository.class);
+        FacilityUserRepository users = context.getBean(FacilityUserRepository.class);
+        ApplicationRepository applications = context.getBean(ApplicationRepository.class);
+        String run = Long.toHexString(ThreadLocalRandom.current().nextLong() & 0xffffffL);
+        return new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).execute(status -> {
+            Facility facility = facilities.save(Facility.builder()
+                    .facilityCode("FAC-BENCH-" + run)
+                    .nameAr("صيدلية الشفاء")
+                    .facilityType("PHARMACY")
+                    .licenseType("NEW")
+                    .build());
+            List<FacilityUser> staff = new ArrayList<>(facilityUsers);
+            for (int i = 0; i < facilityUsers; i++) {
+                staff.add(FacilityUser.builder()
+                        .facility(facility)
+                        .firstName("مستخدم")
+                        .lastName(String.valueOf(i))
+                        .phoneNumber("7" + run + String.format("%04d", i))
+                        .userType(i == 0 ? "OWNER" : "DELEGATE")
+                        .passwordHash("-")
+                        .build());
+            }
+            users.saveAll(staff);
+            return applications.save(Application.builder()
+                    .applicationNumber("APP-BENCH-" + run)
+                    .facility(facility)
+                    .submittedByUser(staff.get(0))
+                    .status(ApplicationStatus.UNDER_REVIEW.name())
+                    .licenseType("NEW")
+                    .facilityType("PHARMACY")
+                    .build()).getId();
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package ye.gov.sanaa.healthoffice.workflow;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Next status for a manual advance: the compiled transition table against
+ * the string step list and switch mapping it replaced, which is kept here
+ * verbatim as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkflowBenchmark {
+
+    private static final List<String> WORKFLOW_STEPS = List.of(
+            "DRAFT", "SUBMIT", "LICENSING_REVIEW", "BLUEPRINT_REVIEW", "INSPECTION_SCHEDULING",
+            "INSPECTION_REPORT", "COMMITTEE_APPROVAL", "PAYMENT_ORDER",
+            "ELECTRONIC_PAYMENT", "LICENSE_ISSUANCE", "ARCHIVE");
+
+    private ApplicationWorkflow workflow;
+    private String[] statuses;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        workflow = new ApplicationWorkflow(new WorkflowProperties());
+        // Statuses both versions can advance from, so neither path throws
+        List<String> advanceable = new ArrayList<>();
+        for (ApplicationStatus s : ApplicationStatus.values()) {
+            String status = s.name();
+            Transition t = workflow.find("PHARMACY", status, WorkflowAction.ADVANCE);
+            try {
+                if (t != null && t.to().name().equals(legacyNext(status)))
+                    advanceable.add(status);
+            } catch (RuntimeException e) {
+                // the old code refused this one
+            }
+        }
+        statuses = advanceable.toArray(String[]::new);
+    }
+
+    @Benchmark
+    public String table() {
+        return workflow.require("PHARMACY", nextStatus(), WorkflowAction.ADVANCE).to().name();
+    }
+
+    @Benchmark
+    public String legacyStrings() {
+        return legacyNext(nextStatus());
+    }
+
+    private String nextStatus() {
+        if (next == statuses.length)
+            next = 0;
+        return statuses[next++];
+    }
+
+    private static String legacyNext(String currentStatus) {
+        if ("INSPECTION_SCHEDULED".equals(currentStatus)) {
+            throw new RuntimeException("Cannot manually advance. Must complete inspection.");
+        }
+        if ("COMMITTEE_APPROVED".equals(currentStatus)) {
+            throw new RuntimeException("Cannot manually advance. Must generate payment order.");
+        }
+        if ("PAYMENT_PENDING".equals(currentStatus)) {
+            throw new RuntimeException("Cannot manually advance. Must confirm payment.");
+        }
+
+        int currentIndex = WORKFLOW_STEPS.indexOf(mapStatusToStep(currentStatus));
+        if (currentIndex < 0 || currentIndex >= WORKFLOW_STEPS.size() - 1) {
+            throw new RuntimeException("Cannot advance from current status: " + currentStatus);
+        }
+        return mapStepToStatus(WORKFLOW_STEPS.get(currentIndex + 1));
+    }
+
+    private static String mapStepToStatus(String step) {
+        return switch (step) {
+            case "DRAFT" -> "DRAFT";
+            case "SUBMIT" -> "SUBMITTED";
+            case "LICENSING_REVIEW" -> "UNDER_REVIEW";
+            case "BLUEPRINT_REVIEW" -> "BLUEPRINT_REVIEW";
+            case "INSPECTION_SCHEDULING" -> "INSPECTION_SCHEDULED";
+            case "INSPECTION_REPORT" -> "INSPECTION_COMPLETED";
+            case "COMMITTEE_APPROVAL" -> "COMMITTEE_APPROVED";
+            case "PAYMENT_ORDER" -> "PAYMENT_PENDING";
+            case "ELECTRONIC_PAYMENT" -> "PAYMENT_COMPLETED";
+            case "LICENSE_ISSUANCE" -> "LICENSE_ISSUED";
+            case "ARCHIVE" -> "ARCHIVED";
+            default -> step;
+        };
+    }
+
+    private static String mapStatusToStep(String status) {
+        return switch (status) {
+            case "DRAFT" -> "DRAFT";
+            case "SUBMITTED" -> "SUBMIT";
+            case "UNDER_REVIEW" -> "LICENSING_REVIEW";
+            case "BLUEPRINT_REVIEW" -> "BLUEPRINT_REVIEW";
+            case "INSPECTION_SCHEDULED" -> "INSPECTION_SCHEDULING";
+            case "INSPECTION_COMPLETED" -> "INSPECTION_REPORT";
+            case "COMMITTEE_APPROVED" -> "COMMITTEE_APPROVAL";
+            case "PAYMENT_PENDING" -> "PAYMENT_ORDER";
+            case "PAYMENT_COMPLETED" -> "ELECTRONIC_PAYMENT";
+            case "LICENSE_ISSUED" -> "LICENSE_ISSUANCE";
+            case "ARCHIVED" -> "ARCHIVE";
+            default -> status;
+        };
+    }
+}
@@ -0,0 +1,57 @@
+#!/bin/bash
+# Starts the backend, drives it with the load generator and stops it again.
+#
+#   ./run.sh h2 [options]         backend on an in-memory H2 database
+#   ./run.sh postgres [options]   backend on the PostgreSQL named by PGHOST, PGPORT, PGDATABASE, ...
+#   ./run.sh external [options]   a backend that is already running (pass --base-url)
+#
+# Options go to the load generator (./run.sh h2 --help lists them), e.g.
+#   ./run.sh h2 --model=open --rate=30 --mix=journey=1,verify=20 --duration=300
+# Each run writes to results/<timestamp>/, including backend.log and the
+# backend's uploads/.
+set -e
+
+cd "$(dirname "$0")"
+target=${1:-h2}
+shift || true
+
+port=${BACKEND_PORT:-5077}
+out="results/$(date +%Y%m%d-%H%M%S)"
+
+echo "=== Building load generator ==="
+mvn -B -q package
+
+if [ "$target" = "external" ]; then
+    exec java -jar target/loadtest.jar --out="$out" "$@"
+fi
+
+case "$target" in
+    h2) profile="--spring.profiles.active=h2" ;;
+    postgres) profile="" ;;
+    *) echo "usage: $0 h2|postgres|external [options]" >&2; exit 2 ;;
+esac
+
+echo "=== Building backend ==="
+(cd .. && mvn -B -q package -DskipTests)
+
+mkdir -p "$out"
+jar="$(pwd)/../target/health-office-backend-0.0.1-SNAPSHOT.jar"
+echo "=== Starting backend ($target) on port $port ==="
+# Run from the results directory so the license files it writes to uploads/ stay with the run
+(cd "$out" && exec java ${BACKEND_OPTS:--Xmx2g} -jar "$jar" $profile \
+    --server.port="$port" --logging.level.ye.gov.sanaa.healthoffice=INFO > backend.log 2>&1) &
+backend=$!
+trap 'kill $backend 2>/dev/null; wait $backend 2>/dev/null' EXIT
+
+for _ in $(seq 1 180); do
+    if curl -sf "http://localhost:$port/actuator/health" > /dev/null; then
+        break
+    fi
+    if ! kill -0 $backend 2>/dev/null; then
+        echo "Backend exited during startup, see $out/backend.log" >&2
+        exit 1
+    fi
+    sleep 1
+done
+
+java -jar target/loadtest.jar --base-url="http://localhost:$port" --out="$out" "$@"
@@ -0,0 +1,66 @@
+package ye.gov.sanaa.healthoffice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The back-office side shared by all virtual users: one admin login, renewed
+ * before the access token's 15 minutes run out, and the inspectors to book.
+ */
+final class AdminSession {
+
+    private static final long RENEW_AFTER_NANOS = 10L * 60 * 1_000_000_000;
+
+    private final Api api;
+    private final String username;
+    private final String password;
+    private volatile String token;
+    private volatile long loggedInAt;
+    private volatile long adminId;
+    private List<Long> inspectorIds = List.of();
+
+    AdminSession(Api api, String username, String password) {
+        this.api = api;
+        this.username = username;
+        this.password = password;
+    }
+
+    void start() throws InterruptedException {
+        login();
+        List<Long> ids = new ArrayList<>();
+        JsonNode inspectors = api.get("admin.inspectors", "/api/v1/admin/users/inspectors", token);
+        if (inspectors != null)
+            inspectors.forEach(i -> ids.add(i.path("id").asLong()));
+        // A fresh database has no INSPECTOR accounts; the admin can take the visits
+        inspectorIds = ids.isEmpty() ? List.of(adminId) : List.copyOf(ids);
+    }
+
+    String token() throws InterruptedException {
+        if (System.nanoTime() - loggedInAt > RENEW_AFTER_NANOS) {
+            synchronized (this) {
+                if (System.nanoTime() - loggedInAt > RENEW_AFTER_NANOS)
+                    login();
+            }
+        }
+        return token;
+    }
+
+    long adminId() {
+        return adminId;
+    }
+
+    List<Long> inspectorIds() {
+        return inspectorIds;
+    }
+
+    private void login() throws InterruptedException {
+        JsonNode auth = api.post("auth.adminLogin", "/api/v1/auth/admin/login", null,
+                Map.of("username", username, "password", password));
+        adminId = auth.path("actorId").asLong();
+        token = auth.path("accessToken").asText();
+        loggedInAt = System.nanoTime();
+    }
+}
@@ -0,0 +1,121 @@
+package ye.gov.sanaa.healthoffice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Blocking HTTP calls against the backend, each timed and recorded under an
+ * endpoint name. Anything but a 2xx is recorded as an error and thrown as
+ * {@link RequestFailedException}, which ends the scenario iteration.
+ */
+final class Api {
+
+    static final class RequestFailedException extends RuntimeException {
+        final String endpoint;
+
+        RequestFailedException(String endpoint, String message) {
+            super(endpoint + ": " + message);
+            this.endpoint = endpoint;
+        }
+    }
+
+    // Open model: when the next request on this thread should have started,
+    // so time spent queued behind a saturated system is counted as latency
+    private static final ThreadLocal<Long> INTENDED_START = new ThreadLocal<>();
+
+    final ObjectMapper json = new ObjectMapper();
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final Metrics metrics;
+
+    Api(String baseUrl, Duration timeout, Metrics metrics) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.metrics = metrics;
+    }
+
+    static void intendedStart(long nanoTime) {
+        INTENDED_START.set(nanoTime);
+    }
+
+    JsonNode get(String endpoint, String path, String token) throws InterruptedException {
+        return parse(send(endpoint, request(path, token).GET()));
+    }
+
+    String getText(String endpoint, String path, String token) throws InterruptedException {
+        return send(endpoint, request(path, token).GET());
+    }
+
+    JsonNode post(String endpoint, String path, String token, Object body) throws InterruptedException {
+        HttpRequest.Builder request = request(path, token);
+        if (body == null) {
+            request.POST(HttpRequest.BodyPublishers.noBody());
+        } else {
+            try {
+                request.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return parse(send(endpoint, request));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+        if (token != null)
+            b.header("Authorization", "Bearer " + token);
+        return b;
+    }
+
+    private String send(String endpoint, HttpRequest.Builder request) throws InterruptedException {
+        Metrics.Endpoint stats = metrics.endpoint(endpoint);
+        Long intended = INTENDED_START.get();
+        INTENDED_START.remove();
+        long start = intended != null ? intended : System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            String kind = e.getClass().getSimpleName();
+            stats.failure(micros(start), kind, String.valueOf(e.getMessage()));
+            throw new RequestFailedException(endpoint, kind + " " + e.getMessage());
+        }
+        long micros = micros(start);
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            String body = response.body();
+            String sample = body.length() > 160 ? body.substring(0, 160) + "..." : body;
+            stats.failure(micros, "HTTP " + status, sample.replace('\n', ' '));
+            throw new RequestFailedException(endpoint, "HTTP " + status + " " + sample);
+        }
+        stats.success(micros);
+        return response.body();
+    }
+
+    private JsonNode parse(String body) {
+        if (body == null || body.isBlank())
+            return null;
+        try {
+            return json.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Response is not JSON: " + body, e);
+        }
+    }
+
+    private static long micros(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000;
+    }
+}
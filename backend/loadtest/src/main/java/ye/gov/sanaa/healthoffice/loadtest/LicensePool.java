@@ -0,0 +1,36 @@
+package ye.gov.sanaa.healthoffice.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * License numbers to scan: seeded from the admin listing, then topped up with
+ * the ones issued by journeys. A ring, so the newest numbers replace the
+ * oldest once it is full.
+ */
+final class LicensePool {
+
+    private final AtomicReferenceArray<String> ring;
+    private final AtomicLong added = new AtomicLong();
+
+    LicensePool(int capacity) {
+        ring = new AtomicReferenceArray<>(Math.max(capacity, 1));
+    }
+
+    void add(String licenseNumber) {
+        ring.set((int) (added.getAndIncrement() % ring.length()), licenseNumber);
+    }
+
+    /** A random known number, or null while the pool is still empty. */
+    String pick() {
+        int size = (int) Math.min(added.get(), ring.length());
+        if (size == 0)
+            return null;
+        return ring.get(ThreadLocalRandom.current().nextInt(size));
+    }
+
+    int size() {
+        return (int) Math.min(added.get(), ring.length());
+    }
+}
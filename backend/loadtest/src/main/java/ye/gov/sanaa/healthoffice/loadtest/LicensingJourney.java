@@ -0,0 +1,129 @@
+package ye.gov.sanaa.healthoffice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A new owner taking a facility from registration to an issued license,
+ * with the back office doing its part in between: register, login, create
+ * the facility, draft, submit, two review advances, inspection booked and
+ * completed, committee advance, payment order and confirmation, final
+ * advance, then the license lookup. The issued number joins the pool the
+ * verification storm scans.
+ */
+final class LicensingJourney implements Scenario {
+
+    private static final String[] FACILITY_TYPES = { "PHARMACY", "CLINIC", "DENTAL_CLINIC", "LABORATORY",
+            "CENTER", "HOSPITAL", "RADIOLOGY_LAB", "EMERGENCY_CLINIC" };
+    private static final String[] DISTRICTS = { "التحرير", "الصافية", "السبعين", "الوحدة", "معين", "آزال",
+            "شعوب", "الثورة", "بني الحارث", "صنعاء القديمة" };
+    private static final String PASSWORD = "LoadTest#2026";
+
+    private final AdminSession admin;
+    private final LicensePool licenses;
+
+    // Owner phone numbers in the 70 range (the data generator uses 71, 73 and
+    // 77), starting at a random point so reruns on one database rarely collide
+    private final AtomicLong owners = new AtomicLong(ThreadLocalRandom.current().nextInt(9_000_000));
+
+    // Each booking gets its own inspector slot, far enough out not to meet
+    // real or generated visits
+    private final AtomicLong slots = new AtomicLong();
+    private final OffsetDateTime slotBase = OffsetDateTime.now(ZoneOffset.UTC).plusYears(3)
+            .truncatedTo(ChronoUnit.HOURS);
+
+    LicensingJourney(AdminSession admin, LicensePool licenses) {
+        this.admin = admin;
+        this.licenses = licenses;
+    }
+
+    @Override
+    public String name() {
+        return "journey";
+    }
+
+    @Override
+    public void run(Api api) throws InterruptedException {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String phone = String.format("70%07d", owners.getAndIncrement() % 10_000_000);
+        String type = FACILITY_TYPES[rnd.nextInt(FACILITY_TYPES.length)];
+
+        // Owner
+        api.post("auth.registerOwner", "/api/v1/auth/user/register-owner", null, Map.of(
+                "firstName", "مالك", "middleName", "اختبار", "lastName", phone,
+                "phoneNumber", phone, "nationalId", "02" + phone,
+                "password", PASSWORD, "confirmPassword", PASSWORD));
+        JsonNode auth = api.post("auth.login", "/api/v1/auth/user/login", null,
+                Map.of("phoneNumber", phone, "password", PASSWORD));
+        String owner = auth.path("accessToken").asText();
+        long userId = auth.path("actorId").asLong();
+
+        // Spread well beyond the city so the 100 m same-type rule rarely refuses a site
+        JsonNode facility = api.post("facility.create", "/api/facilities", owner, Map.of(
+                "nameAr", "منشأة اختبار " + phone, "nameEn", "Load test facility " + phone,
+                "facilityType", type, "licenseType", "NEW",
+                "district", DISTRICTS[rnd.nextInt(DISTRICTS.length)], "area", "حي الاختبار", "street", "شارع 1",
+                "roomsCount", 2 + rnd.nextInt(10),
+                "latitude", 14.9 + rnd.nextDouble(), "longitude", 43.7 + rnd.nextDouble()));
+        long facilityId = facility.path("id").asLong();
+
+        JsonNode draft = api.post("portal.createDraft",
+                "/api/v1/portal/applications?facilityId=" + facilityId + "&userId=" + userId, owner, Map.of(
+                        "licenseType", "NEW", "facilityType", type,
+                        "supervisorName", "د. مشرف اختبار", "supervisorPhone", "77" + phone.substring(2),
+                        "supervisorNationalId", "01" + phone, "supervisorQualification", "بكالوريوس",
+                        "supervisorIdIssueDate", "2015-06-01", "supervisorLicenseExpiry", "2028-12-31"));
+        long appId = draft.path("id").asLong();
+        api.post("portal.submit", "/api/v1/portal/applications/" + appId + "/submit?userId=" + userId, owner, null);
+
+        // Back office
+        advance(api, appId, "SUBMITTED");
+        advance(api, appId, "UNDER_REVIEW");
+
+        List<Long> inspectors = admin.inspectorIds();
+        long slot = slots.getAndIncrement();
+        long inspectorId = inspectors.get((int) (slot % inspectors.size()));
+        OffsetDateTime visit = slotBase.plusHours(2 * (slot / inspectors.size()));
+        JsonNode inspection = api.post("admin.scheduleInspection", "/api/v1/admin/inspections/schedule?applicationId="
+                + appId + "&inspectorId=" + inspectorId + "&scheduledDate=" + visit, admin.token(), null);
+
+        List<Map<String, Object>> scores = new ArrayList<>();
+        for (JsonNode item : inspection.path("items")) {
+            BigDecimal max = item.path("maxScore").decimalValue();
+            BigDecimal score = max.multiply(BigDecimal.valueOf(0.6 + rnd.nextDouble() * 0.4))
+                    .setScale(0, RoundingMode.HALF_UP);
+            scores.add(Map.of("id", item.path("id").asLong(), "score", score));
+        }
+        api.post("admin.completeInspection", "/api/v1/admin/inspections/" + inspection.path("id").asLong()
+                + "/complete", admin.token(), Map.of("notes", "Load test visit", "overallScore", 80, "items", scores));
+        advance(api, appId, "INSPECTION_COMPLETED");
+
+        JsonNode payment = api.post("admin.createPayment", "/api/v1/admin/payments/create?applicationId=" + appId
+                + "&adminId=" + admin.adminId(), admin.token(), null);
+        api.post("admin.confirmPayment", "/api/v1/admin/payments/confirm", admin.token(), Map.of(
+                "paymentReference", payment.path("paymentReference").asText(),
+                "channel", "BANK",
+                "externalTransactionId", "LT-" + UUID.randomUUID()));
+        advance(api, appId, "PAYMENT_COMPLETED");
+
+        JsonNode license = api.get("admin.licenseByApplication", "/api/v1/admin/licenses/by-application/" + appId,
+                admin.token());
+        licenses.add(license.path("licenseNumber").asText());
+    }
+
+    private void advance(Api api, long appId, String expectedStatus) throws InterruptedException {
+        api.post("admin.advance", "/api/v1/admin/applications/" + appId + "/advance?adminId=" + admin.adminId()
+                + "&expectedStatus=" + expectedStatus, admin.token(), Map.of("notes", "Load test review"));
+    }
+}
@@ -0,0 +1,166 @@
+package ye.gov.sanaa.healthoffice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives a running backend with a weighted mix of scenarios under a closed
+ * or open workload, then reports per-endpoint latency percentiles,
+ * throughput and error rates. Writes summary.txt, one .hgrm percentile
+ * distribution per endpoint and scenario, and intervals.hlog (every
+ * interval histogram, tagged by endpoint) to the --out directory.
+ */
+public final class LoadTest {
+
+    private final LoadTestConfig config;
+    private final Metrics metrics;
+    private final Api api;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+
+    private LoadTest(LoadTestConfig config, Metrics metrics, Api api, Map<String, Scenario> available) {
+        this.config = config;
+        this.metrics = metrics;
+        this.api = api;
+        Map<String, Scenario> chosen = new LinkedHashMap<>();
+        config.mix.forEach((name, weight) -> {
+            if (!available.containsKey(name))
+                throw new IllegalArgumentException("Unknown scenario " + name + ", expected one of "
+                        + available.keySet());
+            if (weight > 0)
+                chosen.put(name, available.get(name));
+        });
+        if (chosen.isEmpty())
+            throw new IllegalArgumentException("--mix gives every scenario weight 0");
+        scenarios = chosen.values().toArray(Scenario[]::new);
+        cumulativeWeights = new int[scenarios.length];
+        int sum = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            sum += config.mix.get(scenarios[i].name());
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                System.out.print(LoadTestConfig.USAGE);
+                return;
+            }
+        }
+        LoadTestConfig config;
+        try {
+            config = LoadTestConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        Files.createDirectories(config.out);
+
+        Metrics metrics = new Metrics();
+        Api api = new Api(config.baseUrl, Duration.ofSeconds(config.timeoutSeconds), metrics);
+        AdminSession admin = new AdminSession(api, config.adminUser, config.adminPassword);
+        admin.start();
+        LicensePool licenses = new LicensePool(Math.max(config.seedLicenses, 10_000));
+        seedLicenses(config, api, admin, licenses);
+
+        Map<String, Scenario> available = new LinkedHashMap<>();
+        available.put("journey", new LicensingJourney(admin, licenses));
+        available.put("verify", new VerificationStorm(licenses, config.unknownLicenseRatio));
+        LoadTest test = new LoadTest(config, metrics, api, available);
+
+        System.out.println(config.describe());
+        System.out.printf("%d inspectors to book, %d license numbers to scan%n", admin.inspectorIds().size(),
+                licenses.size());
+        test.run();
+    }
+
+    private static void seedLicenses(LoadTestConfig config, Api api, AdminSession admin, LicensePool licenses)
+            throws InterruptedException {
+        int pageSize = Math.min(Math.max(config.seedLicenses, 1), 500);
+        for (int page = 0; licenses.size() < config.seedLicenses; page++) {
+            JsonNode result = api.get("admin.licenses", "/api/v1/admin/licenses?page=" + page + "&size=" + pageSize,
+                    admin.token());
+            for (JsonNode l : result.path("content"))
+                licenses.add(l.path("licenseNumber").asText());
+            if (result.path("last").asBoolean(true) || result.path("content").isEmpty())
+                break;
+        }
+    }
+
+    private void run() throws Exception {
+        Workload workload = config.model.equals("open")
+                ? new Workload.Open(this::iteration, config.rate, config.maxInFlight)
+                : new Workload.Closed(this::iteration, config.users, config.thinkMillis);
+        long start = System.nanoTime();
+        workload.start();
+
+        long warmupEnd = start + config.warmupSeconds * 1_000_000_000L;
+        long end = warmupEnd + config.durationSeconds * 1_000_000_000L;
+        long intervalNanos = Math.max(config.reportIntervalSeconds, 1) * 1_000_000_000L;
+        boolean measuring = false;
+        long last = start;
+        while (true) {
+            long now = System.nanoTime();
+            if (!measuring && now >= warmupEnd) {
+                metrics.startMeasuring(config.out.resolve("intervals.hlog"));
+                measuring = true;
+                last = now;
+                System.out.println("--- warmup done, measuring ---");
+            }
+            if (now >= end)
+                break;
+            long nextStop = Math.min(last + intervalNanos, measuring ? end : warmupEnd);
+            Thread.sleep(Math.max((nextStop - now) / 1_000_000, 1));
+            now = System.nanoTime();
+            if (now - last >= intervalNanos || now >= end) {
+                metrics.harvest();
+                metrics.printInterval(System.out, (now - start) / 1_000_000_000,
+                        (now - last) / 1e9, workload.status() + (measuring ? "" : "  (warmup)"));
+                last = now;
+            }
+        }
+
+        workload.stop(config.timeoutSeconds * 1000L);
+        metrics.harvest();
+        System.out.println();
+        metrics.writeReport(config.out, config.describe(), System.out);
+        System.out.println("Report written to " + config.out.toAbsolutePath());
+    }
+
+    private void iteration(Long intendedStart) {
+        Scenario scenario = pick();
+        Metrics.Endpoint stats = metrics.endpoint(Metrics.SCENARIO_PREFIX + scenario.name());
+        long start = intendedStart != null ? intendedStart : System.nanoTime();
+        if (intendedStart != null)
+            Api.intendedStart(intendedStart);
+        try {
+            scenario.run(api);
+            stats.success((System.nanoTime() - start) / 1000);
+        } catch (Api.RequestFailedException e) {
+            stats.failure((System.nanoTime() - start) / 1000, "at " + e.endpoint, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            stats.failure((System.nanoTime() - start) / 1000, e.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    private Scenario pick() {
+        if (scenarios.length == 1)
+            return scenarios[0];
+        int r = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < scenarios.length; i++) {
+            if (r < cumulativeWeights[i])
+                return scenarios[i];
+        }
+        return scenarios[scenarios.length - 1];
+    }
+}
@@ -0,0 +1,99 @@
+package ye.gov.sanaa.healthoffice.loadtest;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Command line settings, given as --name=value. */
+final class LoadTestConfig {
+
+    static final String USAGE = """
+            usage: java -jar loadtest.jar [--name=value ...]
+
+              --base-url=http://localhost:5000   backend to drive
+              --model=closed                     closed (fixed users) or open (fixed arrival rate)
+              --users=32                         closed: concurrent virtual users
+              --think-ms=0                       closed: pause between a user's iterations
+              --rate=20                          open: scenario starts per second (Poisson arrivals)
+              --max-in-flight=1000               open: worker threads; later arrivals queue and the wait counts
+              --mix=journey=1,verify=10          scenario weights
+              --warmup=30                        seconds run before measuring
+              --duration=120                     seconds measured
+              --report-interval=10               seconds between progress lines
+              --timeout=30                       per-request timeout, seconds
+              --seed-licenses=2000               license numbers fetched up front for the verification storm
+              --unknown-license-ratio=0.05       share of verification scans for numbers that do not exist
+              --admin-user=admin --admin-password=password
+              --out=results/<timestamp>          report directory
+            """;
+
+    String baseUrl = "http://localhost:5000";
+    String model = "closed";
+    int users = 32;
+    long thinkMillis = 0;
+    double rate = 20;
+    int maxInFlight = 1000;
+    Map<String, Integer> mix = parseMix("journey=1,verify=10");
+    int warmupSeconds = 30;
+    int durationSeconds = 120;
+    int reportIntervalSeconds = 10;
+    int timeoutSeconds = 30;
+    int seedLicenses = 2000;
+    double unknownLicenseRatio = 0.05;
+    String adminUser = "admin";
+    String adminPassword = "password";
+    Path out = Path.of("results", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+
+    static LoadTestConfig parse(String[] args) {
+        LoadTestConfig c = new LoadTestConfig();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("="))
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "base-url" -> c.baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "model" -> c.model = value;
+                case "users" -> c.users = Integer.parseInt(value);
+                case "think-ms" -> c.thinkMillis = Long.parseLong(value);
+                case "rate" -> c.rate = Double.parseDouble(value);
+                case "max-in-flight" -> c.maxInFlight = Integer.parseInt(value);
+                case "mix" -> c.mix = parseMix(value);
+                case "warmup" -> c.warmupSeconds = Integer.parseInt(value);
+                case "duration" -> c.durationSeconds = Integer.parseInt(value);
+                case "report-interval" -> c.reportIntervalSeconds = Integer.parseInt(value);
+                case "timeout" -> c.timeoutSeconds = Integer.parseInt(value);
+                case "seed-licenses" -> c.seedLicenses = Integer.parseInt(value);
+                case "unknown-license-ratio" -> c.unknownLicenseRatio = Double.parseDouble(value);
+                case "admin-user" -> c.adminUser = value;
+                case "admin-password" -> c.adminPassword = value;
+                case "out" -> c.out = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (!c.model.equals("closed") && !c.model.equals("open"))
+            throw new IllegalArgumentException("--model must be closed or open");
+        return c;
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] kv = part.split("=");
+            if (kv.length != 2)
+                throw new IllegalArgumentException("--mix entries are scenario=weight, got " + part);
+            mix.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+
+    String describe() {
+        String load = model.equals("closed")
+                ? users + " users, think " + thinkMillis + " ms"
+                : rate + " starts/s, up to " + maxInFlight + " in flight";
+        return model + " model, " + load + ", mix " + mix + ", warmup " + warmupSeconds + " s, measured "
+                + durationSeconds + " s against " + baseUrl;
+    }
+}
@@ -0,0 +1,171 @@
+package ye.gov.sanaa.healthoffice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency (microseconds) and error counts per endpoint and per scenario.
+ * Request threads only touch the recorders; the reporter thread harvests
+ * them each interval into the run totals and the interval log.
+ */
+final class Metrics {
+
+    static final String SCENARIO_PREFIX = "scenario.";
+
+    static final class Endpoint {
+        final String name;
+        private final Recorder recorder = new Recorder(3);
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> errorKinds = new ConcurrentHashMap<>();
+        private final Map<String, String> errorSamples = new ConcurrentHashMap<>();
+
+        // Reporter thread only
+        private Histogram interval;
+        private final Histogram total = new Histogram(3);
+        private long totalErrors;
+        private long intervalErrors;
+
+        private Endpoint(String name) {
+            this.name = name;
+        }
+
+        void success(long micros) {
+            recorder.recordValue(Math.max(micros, 1));
+        }
+
+        void failure(long micros, String kind, String sample) {
+            recorder.recordValue(Math.max(micros, 1));
+            errors.increment();
+            errorKinds.computeIfAbsent(kind, k -> new LongAdder()).increment();
+            errorSamples.putIfAbsent(kind, sample);
+        }
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+    private HistogramLogWriter log;
+    private long measureStartMillis;
+    private long lastHarvestMillis;
+
+    Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, Endpoint::new);
+    }
+
+    /** Drops everything recorded so far (the warmup) and starts the measured window. */
+    synchronized void startMeasuring(Path intervalLog) throws IOException {
+        measureStartMillis = System.currentTimeMillis();
+        harvest();
+        for (Endpoint e : endpoints.values()) {
+            e.total.reset();
+            e.totalErrors = 0;
+            e.errorKinds.clear();
+            e.errorSamples.clear();
+        }
+        log = new HistogramLogWriter(intervalLog.toFile());
+        log.outputLogFormatVersion();
+        log.outputComment("Request latency per endpoint in microseconds, tagged by endpoint name");
+        log.setBaseTime(measureStartMillis);
+        log.outputBaseTime(measureStartMillis);
+        log.outputStartTime(measureStartMillis);
+        log.outputLegend();
+    }
+
+    /** Moves the recorders' intervals into the totals and the interval log. */
+    synchronized void harvest() {
+        for (Endpoint e : endpoints.values()) {
+            e.interval = e.recorder.getIntervalHistogram(e.interval);
+            e.intervalErrors = e.errors.sumThenReset();
+            e.total.add(e.interval);
+            e.totalErrors += e.intervalErrors;
+            if (log != null && e.interval.getTotalCount() > 0) {
+                e.interval.setTag(e.name);
+                log.outputIntervalHistogram(e.interval);
+            }
+        }
+        lastHarvestMillis = System.currentTimeMillis();
+    }
+
+    /** One progress line over the last harvested interval, requests only. */
+    synchronized void printInterval(PrintStream out, long elapsedSeconds, double intervalSeconds, String extra) {
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        for (Endpoint e : endpoints.values()) {
+            if (e.name.startsWith(SCENARIO_PREFIX) || e.interval == null)
+                continue;
+            all.add(e.interval);
+            errors += e.intervalErrors;
+        }
+        long count = all.getTotalCount();
+        out.printf("[%5ds] %8.1f req/s  errors %5.2f%%  p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms%s%n",
+                elapsedSeconds, count / intervalSeconds, count == 0 ? 0.0 : errors * 100.0 / count,
+                all.getValueAtPercentile(50) / 1000.0, all.getValueAtPercentile(99) / 1000.0,
+                all.getMaxValue() / 1000.0, extra);
+    }
+
+    /** Final table on {@code console} and in summary.txt, plus one .hgrm per endpoint. */
+    synchronized void writeReport(Path dir, String header, PrintStream console) throws IOException {
+        if (log != null)
+            log.close();
+        double seconds = Math.max((lastHarvestMillis - measureStartMillis) / 1000.0, 0.001);
+
+        List<String> lines = new ArrayList<>();
+        lines.add(header);
+        lines.add(String.format("Measured window: %.1f s. Latency in ms.", seconds));
+        lines.add("");
+        lines.add(String.format("%-30s %9s %7s %7s %9s %9s %9s %9s %9s", "Endpoint", "Count", "Errors",
+                "Err%", "Req/s", "p50", "p99", "p999", "max"));
+        boolean scenarios = false;
+        for (Endpoint e : endpoints.values()) {
+            if (e.name.startsWith(SCENARIO_PREFIX) && !scenarios) {
+                scenarios = true;
+                lines.add("");
+                lines.add(String.format("%-30s %9s %7s %7s %9s %9s %9s %9s %9s", "Scenario (whole iteration)",
+                        "Count", "Failed", "Fail%", "Iter/s", "p50", "p99", "p999", "max"));
+            }
+            Histogram h = e.total;
+            long count = h.getTotalCount();
+            if (count == 0)
+                continue; // only called before the measured window, e.g. during setup
+            lines.add(String.format("%-30s %9d %7d %6.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f", e.name, count,
+                    e.totalErrors, e.totalErrors * 100.0 / count, count / seconds,
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+                    h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0));
+        }
+
+        boolean errorHeader = false;
+        for (Endpoint e : endpoints.values()) {
+            for (Map.Entry<String, LongAdder> kind : e.errorKinds.entrySet()) {
+                if (!errorHeader) {
+                    errorHeader = true;
+                    lines.add("");
+                    lines.add("Errors (first response seen for each kind):");
+                }
+                lines.add(String.format("  %-28s %-24s %7d  %s", e.name, kind.getKey(), kind.getValue().sum(),
+                        e.errorSamples.getOrDefault(kind.getKey(), "")));
+            }
+        }
+
+        for (String line : lines)
+            console.println(line);
+        Files.write(dir.resolve("summary.txt"), lines);
+
+        for (Endpoint e : endpoints.values()) {
+            if (e.total.getTotalCount() == 0)
+                continue;
+            try (PrintStream hgrm = new PrintStream(dir.resolve(e.name + ".hgrm").toFile(), "UTF-8")) {
+                e.total.outputPercentileDistribution(hgrm, 5, 1000.0);
+            }
+        }
+    }
+}
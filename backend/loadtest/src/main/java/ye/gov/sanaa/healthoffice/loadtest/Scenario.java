@@ -0,0 +1,9 @@
+package ye.gov.sanaa.healthoffice.loadtest;
+
+/** One user journey; run() is a single iteration and may be called from many threads at once. */
+interface Scenario {
+
+    String name();
+
+    void run(Api api) throws InterruptedException;
+}
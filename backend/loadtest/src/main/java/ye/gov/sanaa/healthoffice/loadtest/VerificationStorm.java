@@ -0,0 +1,33 @@
+package ye.gov.sanaa.healthoffice.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One QR code scan: the public verification page for a license number.
+ * A share of scans are for numbers that were never issued, like mistyped or
+ * forged codes; they get the not-found page.
+ */
+final class VerificationStorm implements Scenario {
+
+    private final LicensePool licenses;
+    private final double unknownRatio;
+
+    VerificationStorm(LicensePool licenses, double unknownRatio) {
+        this.licenses = licenses;
+        this.unknownRatio = unknownRatio;
+    }
+
+    @Override
+    public String name() {
+        return "verify";
+    }
+
+    @Override
+    public void run(Api api) throws InterruptedException {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String number = rnd.nextDouble() < unknownRatio ? null : licenses.pick();
+        if (number == null)
+            number = String.format("LIC-X%07d", rnd.nextInt(10_000_000));
+        api.getText("public.verify", "/public/verify/" + number, null);
+    }
+}
@@ -0,0 +1,130 @@
+package ye.gov.sanaa.healthoffice.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * How iterations are started. Closed: a fixed number of users, each starting
+ * its next iteration when the last one ends, so a slow backend sees less
+ * load. Open: iterations arrive at a fixed mean rate whatever the backend
+ * does, and an iteration's latency runs from when it was due to start.
+ */
+abstract class Workload {
+
+    /** Runs one iteration; the argument is its intended start (System.nanoTime) or null. */
+    protected final Consumer<Long> iteration;
+    protected volatile boolean running = true;
+
+    Workload(Consumer<Long> iteration) {
+        this.iteration = iteration;
+    }
+
+    abstract void start();
+
+    /** Stops starting iterations and waits up to {@code graceMillis} for the running ones. */
+    abstract void stop(long graceMillis) throws InterruptedException;
+
+    /** Extra text for the progress line. */
+    String status() {
+        return "";
+    }
+
+    static final class Closed extends Workload {
+        private final int users;
+        private final long thinkMillis;
+        private final List<Thread> threads = new ArrayList<>();
+
+        Closed(Consumer<Long> iteration, int users, long thinkMillis) {
+            super(iteration);
+            this.users = users;
+            this.thinkMillis = thinkMillis;
+        }
+
+        @Override
+        void start() {
+            for (int i = 0; i < users; i++) {
+                Thread t = new Thread(() -> {
+                    while (running) {
+                        iteration.accept(null);
+                        if (thinkMillis > 0) {
+                            try {
+                                Thread.sleep(thinkMillis);
+                            } catch (InterruptedException e) {
+                                return;
+                            }
+                        }
+                    }
+                }, "user-" + i);
+                t.setDaemon(true);
+                threads.add(t);
+                t.start();
+            }
+        }
+
+        @Override
+        void stop(long graceMillis) throws InterruptedException {
+            running = false;
+            long deadline = System.currentTimeMillis() + graceMillis;
+            for (Thread t : threads) {
+                t.join(Math.max(deadline - System.currentTimeMillis(), 1));
+            }
+        }
+    }
+
+    static final class Open extends Workload {
+        private final double rate;
+        private final ThreadPoolExecutor pool;
+        private Thread arrivals;
+
+        Open(Consumer<Long> iteration, double rate, int maxInFlight) {
+            super(iteration);
+            this.rate = rate;
+            this.pool = new ThreadPoolExecutor(maxInFlight, maxInFlight, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        Thread t = new Thread(r, "open-worker");
+                        t.setDaemon(true);
+                        return t;
+                    });
+        }
+
+        @Override
+        void start() {
+            arrivals = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                long next = System.nanoTime();
+                while (running) {
+                    // Poisson arrivals: exponential gaps with mean 1/rate
+                    next += (long) (-Math.log(1 - rnd.nextDouble()) / rate * 1e9);
+                    long wait = next - System.nanoTime();
+                    if (wait > 0)
+                        LockSupport.parkNanos(wait);
+                    long due = next;
+                    if (running)
+                        pool.execute(() -> iteration.accept(due));
+                }
+            }, "arrivals");
+            arrivals.setDaemon(true);
+            arrivals.start();
+        }
+
+        @Override
+        void stop(long graceMillis) throws InterruptedException {
+            running = false;
+            arrivals.join();
+            pool.shutdown();
+            if (!pool.awaitTermination(graceMillis, TimeUnit.MILLISECONDS))
+                pool.shutdownNow();
+        }
+
+        @Override
+        String status() {
+            return String.format("  in flight %d  queued %d", pool.getActiveCount(), pool.getQueue().size());
+        }
+    }
+}
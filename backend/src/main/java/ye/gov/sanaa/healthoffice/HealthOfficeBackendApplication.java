@@ -2,8 +2,10 @@ package ye.gov.sanaa.healthoffice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class HealthOfficeBackendApplication {
 
     public static void main(String[] args) {
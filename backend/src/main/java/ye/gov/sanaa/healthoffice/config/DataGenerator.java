@@ -0,0 +1,794 @@
+package ye.gov.sanaa.healthoffice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import ye.gov.sanaa.healthoffice.entity.Admin;
+import ye.gov.sanaa.healthoffice.repository.AdminRepository;
+import ye.gov.sanaa.healthoffice.repository.RoleRepository;
+import ye.gov.sanaa.healthoffice.repository.SystemSettingRepository;
+import ye.gov.sanaa.healthoffice.service.AuditArchiveService;
+import ye.gov.sanaa.healthoffice.service.InspectionTemplateCache;
+import ye.gov.sanaa.healthoffice.service.SequenceBlocks;
+import ye.gov.sanaa.healthoffice.workflow.ApplicationStatus;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk-loads a synthetic, production-sized data set for performance work.
+ *
+ * Runs once at startup under the "generate" profile, after DataInitializer,
+ * and does nothing if generated facilities already exist. Sizes come from
+ * generator.*; every value is drawn from one seeded random stream, so the
+ * same seed and anchor on an empty database always produce the same rows.
+ *
+ * Facilities are spread over the districts of Sana'a with their owners,
+ * and each application walks the default workflow up to a weighted random
+ * status, leaving the steps, documents, inspections with scores, violations,
+ * payments, licenses, notifications and audit entries that path would have
+ * written. Rows go in through COPY on PostgreSQL and batched inserts on
+ * other databases. Ids are reserved from each table's sequence in blocks, so
+ * load into an otherwise idle database. In-memory indexes and dashboard
+ * counters are rebuilt from the tables once startup completes.
+ */
+@Component
+@Profile("generate")
+@Order(1)
+@RequiredArgsConstructor
+public class DataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataGenerator.class);
+
+    // Generated business keys use a G after the prefix; the application's own
+    // keys are hex, so the two never collide
+    private static final String FACILITY_CODE = "FAC-G%07d";
+    private static final String APPLICATION_NUMBER = "APP-G%07d";
+    private static final String PAYMENT_REFERENCE = "PAY-G%07d";
+
+    private record District(String name, double latitude, double longitude) {
+    }
+
+    private static final District[] DISTRICTS = {
+            new District("التحرير", 15.3520, 44.2070),
+            new District("صنعاء القديمة", 15.3556, 44.2149),
+            new District("الصافية", 15.3370, 44.2040),
+            new District("السبعين", 15.3050, 44.1960),
+            new District("الوحدة", 15.3640, 44.1960),
+            new District("معين", 15.3540, 44.1740),
+            new District("الثورة", 15.3950, 44.2050),
+            new District("شعوب", 15.3760, 44.2250),
+            new District("آزال", 15.3830, 44.1900),
+            new District("بني الحارث", 15.4350, 44.2150),
+    };
+
+    private static final String[] FACILITY_TYPES = { "PHARMACY", "CLINIC", "DENTAL_CLINIC", "LABORATORY",
+            "CENTER", "HOSPITAL", "RADIOLOGY_LAB", "EMERGENCY_CLINIC" };
+    private static final int[] FACILITY_TYPE_WEIGHTS = { 35, 25, 10, 10, 8, 5, 4, 3 };
+    private static final String[] FACILITY_PREFIX_AR = { "صيدلية", "عيادة", "عيادة أسنان", "مختبر",
+            "مركز", "مستشفى", "مركز أشعة", "عيادة إسعافية" };
+    private static final String[] FACILITY_PREFIX_EN = { "Pharmacy", "Clinic", "Dental Clinic", "Laboratory",
+            "Medical Center", "Hospital", "Radiology Center", "Emergency Clinic" };
+    private static final String[] FACILITY_STEM_AR = { "الشفاء", "الأمل", "السلام", "الرحمة", "النور", "الحياة",
+            "الصحة", "الوفاء", "الحكمة", "ابن سينا" };
+    private static final String[] FACILITY_STEM_EN = { "Al-Shifa", "Al-Amal", "Al-Salam", "Al-Rahma", "Al-Noor",
+            "Al-Hayat", "Al-Sehha", "Al-Wafa", "Al-Hikma", "Ibn Sina" };
+
+    private static final String[] FIRST_NAMES = { "أحمد", "محمد", "علي", "عبدالله", "خالد", "صالح", "عمر", "يحيى",
+            "عبدالرحمن", "نبيل", "فؤاد", "فاطمة", "مريم", "سارة", "أمل", "هدى" };
+    private static final String[] LAST_NAMES = { "العزي", "الحمادي", "الشامي", "الأهدل", "المتوكل", "السقاف",
+            "الكبسي", "العمري", "الريمي", "الحداد", "الوصابي", "الإرياني" };
+
+    // Final status of generated applications; weights in percent
+    private static final ApplicationStatus[] STATUSES = {
+            ApplicationStatus.DRAFT, ApplicationStatus.SUBMITTED, ApplicationStatus.UNDER_REVIEW,
+            ApplicationStatus.BLUEPRINT_REVIEW, ApplicationStatus.INSPECTION_SCHEDULED,
+            ApplicationStatus.INSPECTION_COMPLETED, ApplicationStatus.COMMITTEE_APPROVED,
+            ApplicationStatus.PAYMENT_PENDING, ApplicationStatus.PAYMENT_COMPLETED,
+            ApplicationStatus.LICENSE_ISSUED, ApplicationStatus.ARCHIVED, ApplicationStatus.REJECTED };
+    private static final int[] STATUS_WEIGHTS = { 5, 7, 7, 5, 6, 4, 3, 5, 3, 40, 8, 7 };
+
+    private static final String[] QUALIFICATIONS = { "بكالوريوس صيدلة", "بكالوريوس طب وجراحة", "دبلوم مختبرات",
+            "بكالوريوس طب أسنان" };
+    private static final String[] REJECTION_REASONS = { "نقص في المستندات المطلوبة", "عدم مطابقة الموقع للمخطط",
+            "نتيجة التفتيش غير مرضية", "المشرف الفني غير مؤهل" };
+
+    private static final String[] DOCUMENT_TYPES = { "COMMERCIAL_REGISTER", "OWNERSHIP_PROOF", "SITE_SKETCH",
+            "SUPERVISOR_CERTIFICATE" };
+    private static final String[] PAYMENT_CHANNELS = { "BANK", "WALLET", "GATEWAY" };
+
+    private record ViolationKind(String code, String description, String penalty, String severity) {
+    }
+
+    private static final ViolationKind[] VIOLATIONS = {
+            new ViolationKind("V-101", "أدوية منتهية الصلاحية", "غرامة مالية", "MAJOR"),
+            new ViolationKind("V-102", "سوء التخزين والتبريد", "إنذار", "MINOR"),
+            new ViolationKind("V-103", "مزاولة المهنة دون ترخيص ساري", "إيقاف مؤقت", "CRITICAL"),
+            new ViolationKind("V-104", "عدم الالتزام بمعايير النظافة", "إنذار", "MINOR"),
+            new ViolationKind("V-105", "غياب المشرف الفني", "غرامة مالية", "MAJOR"),
+    };
+
+    private final GeneratorProperties props;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final AdminRepository adminRepository;
+    private final RoleRepository roleRepository;
+    private final SystemSettingRepository systemSettingRepository;
+    private final InspectionTemplateCache templateCache;
+    private final AuditArchiveService auditArchiveService;
+
+    @Value("${inspection.zone:Asia/Aden}")
+    private String zone;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM facilities WHERE facility_code = ?", Integer.class,
+                String.format(FACILITY_CODE, 1));
+        if (existing != null && existing > 0) {
+            log.info("Generated data already present; skipping generator");
+            return;
+        }
+        if (props.getFacilities() < 1 || props.getFacilities() > 9_999_999) {
+            throw new IllegalStateException("generator.facilities must be between 1 and 9999999");
+        }
+
+        ZoneId zoneId = ZoneId.of(zone);
+        LocalDate anchorDay = props.getAnchor().isBlank() ? LocalDate.now(zoneId) : LocalDate.parse(props.getAnchor());
+        OffsetDateTime anchor = anchorDay.atStartOfDay(zoneId).toOffsetDateTime();
+        // Step gaps can push the earliest events up to a month before the window
+        auditArchiveService.ensurePartitions(
+                YearMonth.from(anchor.minusDays(props.getDays() + 31L).atZoneSameInstant(ZoneOffset.UTC)),
+                YearMonth.from(anchor.atZoneSameInstant(ZoneOffset.UTC)));
+
+        long started = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection();
+                Loader loader = new Loader(connection, props.getBatchRows())) {
+            new Run(loader, new SplittableRandom(props.getSeed()), anchor, zoneId).generate();
+            log.info("Generated {} facilities and {} applications in {} ms: {}", props.getFacilities(),
+                    props.getApplications(), System.currentTimeMillis() - started, loader.summary());
+        }
+    }
+
+    /** One generation pass; all randomness comes from rnd in a fixed order. */
+    private final class Run {
+
+        private final Loader loader;
+        private final SplittableRandom rnd;
+        private final OffsetDateTime anchor;
+        private final ZoneId zoneId;
+        private final String passwordHash;
+        private final long systemAdminId;
+        private final Map<String, BigDecimal> fees = new HashMap<>();
+        private final Map<String, List<InspectionTemplateCache.Criterion>> criteria = new HashMap<>();
+
+        private final Table facilities;
+        private final Table users;
+        private final Table admins;
+        private final Table adminRoles;
+        private final Table applications;
+        private final Table steps;
+        private final Table documents;
+        private final Table inspections;
+        private final Table scores;
+        private final Table violations;
+        private final Table payments;
+        private final Table licenses;
+        private final Table notifications;
+        private final Table audits;
+
+        // Per facility, indexed by generation order
+        private long[] facilityIds;
+        private long[] ownerIds;
+        private int[] facilityTypes;
+
+        private long[] inspectorIds;
+
+        // Visit time of the inspection last written
+        private OffsetDateTime visitAt;
+
+        Run(Loader loader, SplittableRandom rnd, OffsetDateTime anchor, ZoneId zoneId) {
+            this.loader = loader;
+            this.rnd = rnd;
+            this.anchor = anchor;
+            this.zoneId = zoneId;
+            this.passwordHash = passwordEncoder.encode("password");
+            this.systemAdminId = adminRepository.findByUsername("admin").map(Admin::getId)
+                    .orElseThrow(() -> new IllegalStateException("Default admin missing"));
+            for (String type : FACILITY_TYPES) {
+                fees.put(type, systemSettingRepository.findByCategoryAndSettingKey("FEES", "LICENSE_FEE_" + type)
+                        .map(s -> new BigDecimal(s.getSettingValue()))
+                        .orElse(new BigDecimal("150000.00")));
+                criteria.put(type, templateCache.get(type).map(InspectionTemplateCache.Snapshot::criteria)
+                        .orElse(List.of()));
+            }
+
+            // Parents before children: the loader writes tables in this order
+            facilities = loader.table("facilities", "id, facility_code, name_ar, name_en, facility_type,"
+                    + " license_type, district, area, latitude, longitude, property_owner, rooms_count,"
+                    + " is_active, created_at, updated_at");
+            users = loader.table("facility_users", "id, facility_id, first_name, middle_name, last_name,"
+                    + " phone_number, national_id, user_type, password_hash, is_active, created_at, updated_at");
+            admins = loader.table("admins", "id, full_name, username, password_hash, phone_number, enabled,"
+                    + " created_at, updated_at");
+            adminRoles = loader.table("admin_roles", "admin_id, role_id");
+            applications = loader.table("applications", "id, application_number, facility_id,"
+                    + " submitted_by_user_id, status, license_type, facility_type, supervisor_name,"
+                    + " supervisor_phone, supervisor_national_id, supervisor_qualification, created_at, updated_at,"
+                    + " submitted_at, approved_at, rejected_at, rejection_reason, version");
+            steps = loader.table("application_steps", "id, application_id, step_order, step_code, status,"
+                    + " performed_by_admin, performed_by_user, performed_at");
+            documents = loader.table("application_documents", "id, application_id, document_type,"
+                    + " reference_number, issue_date, is_mandatory, file_url, uploaded_by_user, uploaded_at");
+            inspections = loader.table("inspections", "id, application_id, scheduled_date, actual_visit_date,"
+                    + " inspector_id, status, overall_score, version, created_at, updated_at");
+            scores = loader.table("inspection_scores", "id, inspection_id, criterion_code, description, score,"
+                    + " max_score");
+            violations = loader.table("violations", "id, inspection_id, application_id, code, description,"
+                    + " penalty, severity, is_active, suspension_applied, created_at, resolved_at");
+            payments = loader.table("payments", "id, application_id, payment_reference, governorate_code,"
+                    + " amount, status, created_at, paid_at, external_transaction_id, payment_channel, version");
+            licenses = loader.table("licenses", "id, application_id, license_number, issue_date, expiry_date,"
+                    + " pdf_url, status, created_at");
+            notifications = loader.table("notifications", "id, recipient_user_id, title_ar, title_en, body_ar,"
+                    + " body_en, type, read, created_at, read_at");
+            audits = loader.table("audit_logs", "id, event_time, actor_admin_id, actor_user_id, action,"
+                    + " entity_type, entity_id, details");
+        }
+
+        void generate() throws SQLException, IOException {
+            generateFacilities();
+            generateInspectors();
+            for (int n = 1; n <= props.getApplications(); n++) {
+                generateApplication(n);
+            }
+            loader.finish();
+        }
+
+        private void generateFacilities() throws SQLException, IOException {
+            int count = props.getFacilities();
+            facilityIds = new long[count];
+            ownerIds = new long[count];
+            facilityTypes = new int[count];
+            for (int i = 0; i < count; i++) {
+                int type = weighted(FACILITY_TYPE_WEIGHTS);
+                int district = rnd.nextInt(DISTRICTS.length);
+                int stem = rnd.nextInt(FACILITY_STEM_AR.length);
+                District d = DISTRICTS[district];
+                OffsetDateTime created = anchor.minusDays(props.getDays() + 30L + rnd.nextInt(700));
+                String owner = fullName();
+                long id = facilities.nextId();
+                facilityIds[i] = id;
+                facilityTypes[i] = type;
+                facilities.add(id, String.format(FACILITY_CODE, i + 1),
+                        FACILITY_PREFIX_AR[type] + " " + FACILITY_STEM_AR[stem] + " " + (i + 1),
+                        FACILITY_STEM_EN[stem] + " " + FACILITY_PREFIX_EN[type] + " " + (i + 1),
+                        FACILITY_TYPES[type], rnd.nextInt(4) == 0 ? "RENEW" : "NEW", d.name(), null,
+                        // ~700 m of jitter around the district centre
+                        d.latitude() + gaussian() * 0.0065, d.longitude() + gaussian() * 0.0065,
+                        owner, 2 + rnd.nextInt("HOSPITAL".equals(FACILITY_TYPES[type]) ? 200 : 12),
+                        rnd.nextInt(50) != 0, created, created);
+
+                long userId = users.nextId();
+                ownerIds[i] = userId;
+                users.add(userId, id, pick(FIRST_NAMES), pick(FIRST_NAMES), pick(LAST_NAMES),
+                        String.format("73%07d", i + 1), String.format("01%09d", rnd.nextInt(1_000_000_000)),
+                        "OWNER", passwordHash, true, created, created);
+            }
+        }
+
+        private void generateInspectors() throws SQLException, IOException {
+            long roleId = roleRepository.findByCode("INSPECTOR")
+                    .orElseThrow(() -> new IllegalStateException("INSPECTOR role missing")).getId();
+            OffsetDateTime created = anchor.minusDays(props.getDays() + 60L);
+            inspectorIds = new long[Math.max(1, props.getInspectors())];
+            for (int i = 0; i < inspectorIds.length; i++) {
+                long id = admins.nextId();
+                inspectorIds[i] = id;
+                admins.add(id, "المفتش " + fullName(), String.format("gen-inspector-%03d", i + 1), passwordHash,
+                        String.format("71%07d", i + 1), true, created, created);
+                adminRoles.add(id, roleId);
+            }
+        }
+
+        private void generateApplication(int n) throws SQLException, IOException {
+            int f = rnd.nextInt(facilityIds.length);
+            String type = FACILITY_TYPES[facilityTypes[f]];
+            long owner = ownerIds[f];
+            ApplicationStatus status = STATUSES[weighted(STATUS_WEIGHTS)];
+            // Rejections happen anywhere from submission to the committee
+            ApplicationStatus reached = status == ApplicationStatus.REJECTED
+                    ? STATUSES[1 + rnd.nextInt(ApplicationStatus.COMMITTEE_APPROVED.getStepOrder() - 1)]
+                    : status;
+            int stepCount = reached.getStepOrder();
+
+            // One timestamp per step, plus the rejection; gaps of 1 to 72 hours
+            OffsetDateTime[] at = new OffsetDateTime[stepCount + 1];
+            at[0] = anchor.minusSeconds(rnd.nextLong(props.getDays() * 86_400L));
+            for (int k = 1; k < at.length; k++) {
+                at[k] = at[k - 1].plusMinutes(60 + rnd.nextInt(71 * 60));
+            }
+            OffsetDateTime latest = anchor.minusMinutes(30);
+            if (at[at.length - 1].isAfter(latest)) {
+                Duration shift = Duration.between(latest, at[at.length - 1]);
+                for (int k = 0; k < at.length; k++) {
+                    at[k] = at[k].minus(shift);
+                }
+            }
+            OffsetDateTime created = at[0];
+            OffsetDateTime updated = status == ApplicationStatus.REJECTED ? at[stepCount] : at[stepCount - 1];
+
+            long appId = applications.nextId();
+            String appNumber = String.format(APPLICATION_NUMBER, n);
+            boolean rejected = status == ApplicationStatus.REJECTED;
+            boolean approved = !rejected
+                    && reached.getStepOrder() >= ApplicationStatus.COMMITTEE_APPROVED.getStepOrder();
+            String reason = rejected ? pick(REJECTION_REASONS) : null;
+            applications.add(appId, appNumber, facilityIds[f], owner, status.name(),
+                    rnd.nextInt(3) == 0 ? "RENEW" : "NEW", type, fullName(),
+                    String.format("77%07d", rnd.nextInt(10_000_000)),
+                    String.format("01%09d", rnd.nextInt(1_000_000_000)), pick(QUALIFICATIONS),
+                    created, updated,
+                    stepCount >= 2 ? at[1] : null,
+                    approved ? at[ApplicationStatus.COMMITTEE_APPROVED.getStepOrder() - 1] : null,
+                    rejected ? at[stepCount] : null, reason, 0L);
+
+            // Children whose ids the audit entries and notifications refer to
+            Long inspectionId = null;
+            Long paymentId = null;
+            String paymentRef = null;
+            BigDecimal fee = fees.get(type);
+
+            for (ApplicationStatus s : STATUSES) {
+                int order = s.getStepOrder();
+                if (order == 0 || order > stepCount)
+                    continue;
+                OffsetDateTime when = at[order - 1];
+                boolean byOwner = order <= ApplicationStatus.SUBMITTED.getStepOrder();
+                long admin = s == ApplicationStatus.INSPECTION_COMPLETED ? pick(inspectorIds) : systemAdminId;
+                steps.add(steps.nextId(), appId, order, s.getStepCode(), "COMPLETED",
+                        byOwner ? null : admin, byOwner ? owner : null, when);
+
+                switch (s) {
+                    case DRAFT -> audit(when, null, owner, "CREATE_APPLICATION", "APPLICATION", appId,
+                            "Draft application created: " + appNumber);
+                    case SUBMITTED -> {
+                        for (int d = 0; d < DOCUMENT_TYPES.length; d++) {
+                            documents.add(documents.nextId(), appId, DOCUMENT_TYPES[d],
+                                    String.format("%s-%d", appNumber, d + 1),
+                                    when.toLocalDate().minusDays(rnd.nextInt(900)), d < 3,
+                                    "/uploads/generated/" + appNumber + "-" + DOCUMENT_TYPES[d] + ".pdf",
+                                    owner, when);
+                        }
+                        audit(when, null, owner, "SUBMIT_APPLICATION", "APPLICATION", appId,
+                                "Application submitted: " + appNumber);
+                        notify(owner, when, "تم تقديم الطلب بنجاح", "Application Submitted Successfully",
+                                "رقم الطلب: " + appNumber, "App No: " + appNumber, "INFO");
+                    }
+                    case INSPECTION_SCHEDULED -> {
+                        // A quarter of those still waiting have no visit booked yet
+                        if (status == ApplicationStatus.INSPECTION_SCHEDULED && rnd.nextInt(4) == 0)
+                            break;
+                        inspectionId = inspection(appId, type, status, reached, at);
+                        audit(when, null, null, "SCHEDULE_INSPECTION", "INSPECTION", inspectionId,
+                                "Inspection scheduled for application: " + appNumber);
+                        LocalDate visitDay = visitAt.toLocalDate();
+                        notify(owner, when, "تم تحديد موعد التفتيش", "Inspection Scheduled",
+                                "الموعد: " + visitDay, "Date: " + visitDay, "INFO");
+                    }
+                    case INSPECTION_COMPLETED -> audit(when, admin, null, "COMPLETE_INSPECTION", "INSPECTION",
+                            inspectionId, "Inspection completed");
+                    case PAYMENT_PENDING -> {
+                        paymentId = payments.nextId();
+                        paymentRef = String.format(PAYMENT_REFERENCE, n);
+                        boolean paid = stepCount >= ApplicationStatus.PAYMENT_COMPLETED.getStepOrder();
+                        OffsetDateTime paidAt = paid
+                                ? at[ApplicationStatus.PAYMENT_COMPLETED.getStepOrder() - 1]
+                                : null;
+                        payments.add(paymentId, appId, paymentRef, "SANA_A_CAPITAL", fee,
+                                paid ? "PAID" : "PENDING", when, paidAt,
+                                paid ? String.format("TX%012d", rnd.nextLong(1_000_000_000_000L)) : null,
+                                paid ? pick(PAYMENT_CHANNELS) : null, 0L);
+                        audit(when, systemAdminId, null, "CREATE_PAYMENT", "PAYMENT", paymentId,
+                                "Payment order created: " + paymentRef + ", amount: " + fee);
+                        notify(owner, when, "إصدار أمر الدفع", "Payment Order Created",
+                                "المبلغ: " + fee + " ر.ي. المرجع: " + paymentRef,
+                                "Amount: " + fee + " YR. Ref: " + paymentRef, "INFO");
+                    }
+                    case PAYMENT_COMPLETED -> {
+                        audit(when, null, null, "CONFIRM_PAYMENT", "PAYMENT", paymentId, "Payment confirmed");
+                        notify(owner, when, "تأكيد الدفع", "Payment Confirmed",
+                                "تم استلام الدفع بنجاح", "Payment received successfully", "SUCCESS");
+                    }
+                    case LICENSE_ISSUED -> {
+                        String licenseNumber = "LIC-" + appNumber.substring("APP-".length());
+                        LocalDate issued = when.atZoneSameInstant(zoneId).toLocalDate();
+                        LocalDate expiry = issued.plusYears(1);
+                        licenses.add(licenses.nextId(), appId, licenseNumber, issued, expiry,
+                                "generated_license_" + licenseNumber + ".pdf",
+                                expiry.isBefore(anchor.toLocalDate()) ? "EXPIRED" : "ACTIVE", when);
+                        audit(when, systemAdminId, null, "ADVANCE_WORKFLOW", "APPLICATION", appId,
+                                "Advanced to: " + s.getStepCode());
+                        notify(owner, when, "تم إصدار الترخيص", "License Issued",
+                                "يمكنك استلام الترخيص الآن", "You can collect your license now", "SUCCESS");
+                    }
+                    default -> {
+                        audit(when, systemAdminId, null, "ADVANCE_WORKFLOW", "APPLICATION", appId,
+                                "Advanced to: " + s.getStepCode());
+                        if (s == ApplicationStatus.COMMITTEE_APPROVED) {
+                            notify(owner, when, "تمت موافقة اللجنة", "Committee Approved",
+                                    "يرجى استكمال إجراءات الدفع", "Please proceed to payment", "SUCCESS");
+                        }
+                    }
+                }
+            }
+
+            if (rejected) {
+                audit(at[stepCount], systemAdminId, null, "REJECT_APPLICATION", "APPLICATION", appId,
+                        "Rejected: " + reason);
+                notify(owner, at[stepCount], "تم رفض الطلب", "Application Rejected",
+                        "السبب: " + reason, "Reason: " + reason, "ERROR");
+            }
+        }
+
+        // SCHEDULED with pending scores while the application waits for the
+        // visit, COMPLETED with scores once it has moved past it, CANCELLED
+        // when it was rejected before the visit
+        private long inspection(long appId, String type, ApplicationStatus status, ApplicationStatus reached,
+                OffsetDateTime[] at) throws SQLException, IOException {
+            long id = inspections.nextId();
+            long inspector = pick(inspectorIds);
+            OffsetDateTime booked = at[ApplicationStatus.INSPECTION_SCHEDULED.getStepOrder() - 1];
+            boolean completed = reached.getStepOrder() >= ApplicationStatus.INSPECTION_COMPLETED.getStepOrder();
+            boolean cancelled = !completed && status == ApplicationStatus.REJECTED;
+            if (completed) {
+                visitAt = at[ApplicationStatus.INSPECTION_COMPLETED.getStepOrder() - 1];
+            } else if (cancelled) {
+                visitAt = at[reached.getStepOrder()];
+            } else {
+                // A 90-minute slot between 08:00 and 14:00 in the next two weeks
+                visitAt = anchor.atZoneSameInstant(zoneId).toLocalDate().plusDays(1 + rnd.nextInt(14))
+                        .atTime(8, 0).plusMinutes(90L * rnd.nextInt(4)).atZone(zoneId).toOffsetDateTime();
+            }
+
+            // Failed visits are what most rejections after inspection come from
+            boolean poor = status == ApplicationStatus.REJECTED;
+            List<InspectionTemplateCache.Criterion> items = cancelled ? List.of() : criteria.get(type);
+            BigDecimal[] itemScores = new BigDecimal[items.size()];
+            BigDecimal total = BigDecimal.ZERO;
+            BigDecimal max = BigDecimal.ZERO;
+            for (int k = 0; k < items.size(); k++) {
+                BigDecimal maxScore = items.get(k).maxScore();
+                if (completed) {
+                    double ratio = poor ? 0.2 + rnd.nextDouble() * 0.5 : 0.6 + rnd.nextDouble() * 0.4;
+                    itemScores[k] = maxScore.multiply(BigDecimal.valueOf(ratio)).setScale(2, RoundingMode.HALF_UP);
+                    total = total.add(itemScores[k]);
+                }
+                max = max.add(maxScore);
+            }
+            BigDecimal overall = null;
+            if (completed) {
+                overall = max.signum() > 0
+                        ? total.multiply(BigDecimal.valueOf(100)).divide(max, 2, RoundingMode.HALF_UP)
+                        : BigDecimal.valueOf(poor ? 30 + rnd.nextInt(40) : 60 + rnd.nextInt(41));
+            }
+            inspections.add(id, appId, visitAt, completed ? visitAt : null, inspector,
+                    completed ? "COMPLETED" : cancelled ? "CANCELLED" : "SCHEDULED", overall, 0L, booked,
+                    completed || cancelled ? visitAt : booked);
+            for (int k = 0; k < items.size(); k++) {
+                InspectionTemplateCache.Criterion c = items.get(k);
+                scores.add(scores.nextId(), id, c.criterionCode(), c.description(), itemScores[k], c.maxScore());
+            }
+
+            if (completed && rnd.nextInt(100) < (poor ? 60 : 10)) {
+                for (int v = 1 + rnd.nextInt(2); v > 0; v--) {
+                    ViolationKind kind = pick(VIOLATIONS);
+                    boolean open = visitAt.isAfter(anchor.minusDays(90)) && rnd.nextInt(10) < 6;
+                    violations.add(violations.nextId(), id, appId, kind.code(), kind.description(), kind.penalty(),
+                            kind.severity(), open, open && "CRITICAL".equals(kind.severity()), visitAt,
+                            open ? null : visitAt.plusDays(3 + rnd.nextInt(40)));
+                }
+            }
+            return id;
+        }
+
+        private void audit(OffsetDateTime when, Long adminId, Long userId, String action, String entityType,
+                Long entityId, String details) throws SQLException, IOException {
+            audits.add(audits.nextId(), when, adminId, userId, action, entityType, entityId, details);
+        }
+
+        // Older notifications have mostly been read
+        private void notify(long userId, OffsetDateTime when, String titleAr, String titleEn, String bodyAr,
+                String bodyEn, String type) throws SQLException, IOException {
+            boolean read = when.isBefore(anchor.minusDays(7)) ? rnd.nextInt(100) < 90 : rnd.nextInt(100) < 40;
+            notifications.add(notifications.nextId(), userId, titleAr, titleEn, bodyAr, bodyEn, type, read, when,
+                    read ? when.plusMinutes(5 + rnd.nextInt(3 * 24 * 60)) : null);
+        }
+
+        private String fullName() {
+            return pick(FIRST_NAMES) + " " + pick(FIRST_NAMES) + " " + pick(LAST_NAMES);
+        }
+
+        private int weighted(int[] weights) {
+            int total = 0;
+            for (int w : weights)
+                total += w;
+            int r = rnd.nextInt(total);
+            for (int i = 0; i < weights.length; i++) {
+                r -= weights[i];
+                if (r < 0)
+                    return i;
+            }
+            return weights.length - 1;
+        }
+
+        private double gaussian() {
+            // Sum of uniforms: close enough to normal and draws a fixed count
+            return rnd.nextDouble() + rnd.nextDouble() + rnd.nextDouble() + rnd.nextDouble() - 2.0;
+        }
+
+        private <T> T pick(T[] values) {
+            return values[rnd.nextInt(values.length)];
+        }
+
+        private long pick(long[] values) {
+            return values[rnd.nextInt(values.length)];
+        }
+    }
+
+    /**
+     * Buffers rows per table and hands them all, parents first, to a writer
+     * thread once batchRows are pending: as CSV through COPY on PostgreSQL,
+     * or as JDBC batches elsewhere. Generation carries on into fresh buffers
+     * while one batch is written, and waits only if the next is ready first.
+     * The connection autocommits, so a failed run keeps the batches written
+     * before it.
+     */
+    private final class Loader implements AutoCloseable {
+
+        private final Connection connection;
+        private final CopyManager copyManager;
+        private final boolean postgres;
+        private final int batchRows;
+        private final List<Table> tables = new ArrayList<>();
+        private final ExecutorService writer = Executors.newSingleThreadExecutor(
+                r -> new Thread(r, "data-generator-writer"));
+        private Future<?> inFlight;
+        private int pending;
+
+        Loader(Connection connection, int batchRows) throws SQLException {
+            this.connection = connection;
+            this.postgres = connection.isWrapperFor(PGConnection.class);
+            this.copyManager = postgres ? connection.unwrap(PGConnection.class).getCopyAPI() : null;
+            this.batchRows = Math.max(1, batchRows);
+            connection.setAutoCommit(true);
+            if (postgres && props.isSkipForeignKeyChecks()) {
+                // Rows are written parents first, so the per-row FK triggers
+                // only cost time; replica mode needs superuser
+                try (Statement st = connection.createStatement()) {
+                    st.execute("SET session_replication_role = replica");
+                } catch (SQLException e) {
+                    log.warn("Foreign key checks stay on: {}", e.getMessage());
+                }
+            }
+        }
+
+        Table table(String name, String columns) {
+            Table t = new Table(this, name, columns);
+            tables.add(t);
+            return t;
+        }
+
+        void added() throws SQLException, IOException {
+            if (++pending >= batchRows)
+                flush();
+        }
+
+        void flush() throws SQLException, IOException {
+            Map<Table, Object> batch = new LinkedHashMap<>();
+            for (Table t : tables) {
+                Object buffer = t.drain();
+                if (buffer != null)
+                    batch.put(t, buffer);
+            }
+            pending = 0;
+            await();
+            inFlight = writer.submit(() -> {
+                for (Map.Entry<Table, Object> e : batch.entrySet()) {
+                    e.getKey().write(e.getValue());
+                }
+                return null;
+            });
+        }
+
+        /** Writes what is still buffered and waits for it. */
+        void finish() throws SQLException, IOException {
+            flush();
+            await();
+        }
+
+        private void await() throws SQLException, IOException {
+            if (inFlight == null)
+                return;
+            try {
+                inFlight.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing generated rows");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sql)
+                    throw sql;
+                if (cause instanceof IOException io)
+                    throw io;
+                if (cause instanceof RuntimeException re)
+                    throw re;
+                throw new IllegalStateException(cause);
+            } finally {
+                inFlight = null;
+            }
+        }
+
+        /**
+         * Reserves count ids from the table's sequence: one pooled block is
+         * taken (SequenceBlocks), the sequence is moved count past its top,
+         * and the ids above the block are returned, so the next pooled
+         * allocation starts after them. Not atomic, hence the idle database.
+         */
+        long reserve(String table, int count) {
+            String sequence = table + "_seq";
+            long hi = SequenceBlocks.next(() -> jdbcTemplate.queryForObject(postgres
+                    ? "SELECT nextval('" + sequence + "')"
+                    : "SELECT NEXT VALUE FOR " + sequence, Long.class))[1];
+            if (postgres) {
+                jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', ?)", Long.class, hi + count);
+            } else {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH "
+                        + (hi + count + SequenceBlocks.ALLOCATION_SIZE));
+            }
+            return hi + 1;
+        }
+
+        String summary() {
+            StringJoiner joiner = new StringJoiner(", ");
+            for (Table t : tables) {
+                joiner.add(t.name + "=" + t.written);
+            }
+            return joiner.toString();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            writer.shutdownNow();
+            if (postgres) {
+                // The pooled connection goes back to the application
+                try (Statement st = connection.createStatement()) {
+                    st.execute("RESET session_replication_role");
+                }
+            }
+        }
+    }
+
+    private static final class Table {
+
+        private static final int ID_BLOCK = 10_000;
+
+        private final Loader loader;
+        private final String name;
+        private final String columns;
+        private final int width;
+        private StringBuilder csv = new StringBuilder();
+        private List<Object[]> rows = new ArrayList<>();
+        private long nextId;
+        private long lastId = -1;
+        // Updated by the writer thread only
+        private long written;
+
+        Table(Loader loader, String name, String columns) {
+            this.loader = loader;
+            this.name = name;
+            this.columns = columns;
+            this.width = columns.split(",").length;
+        }
+
+        long nextId() {
+            if (nextId > lastId) {
+                nextId = loader.reserve(name, ID_BLOCK);
+                lastId = nextId + ID_BLOCK - 1;
+            }
+            return nextId++;
+        }
+
+        void add(Object... values) throws SQLException, IOException {
+            if (values.length != width)
+                throw new IllegalArgumentException(name + ": expected " + width + " values, got " + values.length);
+            if (loader.postgres) {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0)
+                        csv.append(',');
+                    appendCsv(csv, values[i]);
+                }
+                csv.append('\n');
+            } else {
+                rows.add(values);
+            }
+            loader.added();
+        }
+
+        // Hands over the pending rows and starts a new buffer; null when empty
+        Object drain() {
+            if (loader.postgres) {
+                if (csv.isEmpty())
+                    return null;
+                String pendingCsv = csv.toString();
+                csv = new StringBuilder(pendingCsv.length());
+                return pendingCsv;
+            }
+            if (rows.isEmpty())
+                return null;
+            List<Object[]> pendingRows = rows;
+            rows = new ArrayList<>(pendingRows.size());
+            return pendingRows;
+        }
+
+        @SuppressWarnings("unchecked")
+        void write(Object buffer) throws SQLException, IOException {
+            if (buffer instanceof String pendingCsv) {
+                written += loader.copyManager.copyIn(
+                        "COPY " + name + " (" + columns + ") FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(pendingCsv));
+                return;
+            }
+            List<Object[]> pendingRows = (List<Object[]>) buffer;
+            String sql = "INSERT INTO " + name + " (" + columns + ") VALUES (" + "?, ".repeat(width - 1) + "?)";
+            try (PreparedStatement ps = loader.connection.prepareStatement(sql)) {
+                int batched = 0;
+                for (Object[] row : pendingRows) {
+                    for (int i = 0; i < row.length; i++) {
+                        ps.setObject(i + 1, row[i]);
+                    }
+                    ps.addBatch();
+                    if (++batched % 1000 == 0)
+                        ps.executeBatch();
+                }
+                ps.executeBatch();
+            }
+            written += pendingRows.size();
+        }
+
+        // NULL is an unquoted empty field; strings are always quoted
+        private static void appendCsv(StringBuilder out, Object value) {
+            if (value == null)
+                return;
+            if (value instanceof String s) {
+                out.append('"').append(s.replace("\"", "\"\"")).append('"');
+            } else {
+                out.append(value);
+            }
+        }
+    }
+}
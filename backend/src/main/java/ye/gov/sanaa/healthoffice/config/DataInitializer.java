@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import ye.gov.sanaa.healthoffice.entity.Admin;
 import ye.gov.sanaa.healthoffice.entity.Role;
@@ -20,9 +21,11 @@ public class DataInitializer {
     private final ye.gov.sanaa.healthoffice.repository.FacilityUserRepository facilityUserRepository;
     private final ye.gov.sanaa.healthoffice.repository.SystemSettingRepository systemSettingRepository;
     private final ye.gov.sanaa.healthoffice.repository.InspectionTemplateRepository templateRepository;
+    private final ye.gov.sanaa.healthoffice.service.InspectionTemplateCache templateCache;
     private final PasswordEncoder passwordEncoder;
 
     @Bean
+    @Order(0) // before DataGenerator, which needs the roles and default admin
     public CommandLineRunner initData() {
         return args -> {
             // Ensure Admin Role exists
@@ -174,6 +177,7 @@ public class DataInitializer {
                         .build());
 
                 templateRepository.save(template);
+                templateCache.evict("HOSPITAL");
                 System.out.println("Default Inspection Template for HOSPITAL created");
             }
         };
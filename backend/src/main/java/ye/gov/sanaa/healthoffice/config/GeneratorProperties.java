@@ -0,0 +1,35 @@
+package ye.gov.sanaa.healthoffice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** generator.* settings for the synthetic data set loaded by DataGenerator. */
+@Data
+@Component
+@ConfigurationProperties(prefix = "generator")
+public class GeneratorProperties {
+
+    // Same seed and anchor on an empty database give the same rows
+    private long seed = 42;
+
+    private int facilities = 2000;
+
+    private int applications = 20000;
+
+    // Generated INSPECTOR-role admins that own the visits
+    private int inspectors = 25;
+
+    // Applications are created over this many days before the anchor
+    private int days = 300;
+
+    // yyyy-MM-dd; empty means today
+    private String anchor = "";
+
+    // Rows buffered across all tables before they are written
+    private int batchRows = 50000;
+
+    // PostgreSQL replica mode for the load connection; needs superuser and
+    // falls back to checked writes without it
+    private boolean skipForeignKeyChecks = true;
+}
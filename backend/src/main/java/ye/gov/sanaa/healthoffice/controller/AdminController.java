@@ -3,8 +3,10 @@ package ye.gov.sanaa.healthoffice.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ye.gov.sanaa.healthoffice.dto.*;
 import ye.gov.sanaa.healthoffice.service.*;
 
@@ -18,11 +20,15 @@ public class AdminController {
 
     private final ApplicationService applicationService;
     private final InspectionService inspectionService;
+    private final InspectionRouteService inspectionRouteService;
+    private final InspectionAssignmentService inspectionAssignmentService;
     private final PaymentService paymentService;
     private final NotificationService notificationService;
     private final DashboardService dashboardService;
     private final LicenseService licenseService;
     private final AdminService adminService;
+    private final AuditService auditService;
+    private final AuditArchiveService auditArchiveService;
 
     // ===== Dashboard =====
     @GetMapping("/dashboard/stats")
@@ -36,30 +42,81 @@ public class AdminController {
         return ResponseEntity.ok(applicationService.getAllLicenses(pageable));
     }
 
+    @GetMapping("/licenses/scroll")
+    public ResponseEntity<CursorPage<LicenseDto>> scrollLicenses(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(applicationService.getLicensesByCursor(after, size));
+    }
+
     // ===== Violations =====
     @GetMapping("/violations")
     public ResponseEntity<Page<ViolationDto>> getAllViolations(Pageable pageable) {
         return ResponseEntity.ok(applicationService.getAllViolations(pageable));
     }
 
+    @GetMapping("/violations/scroll")
+    public ResponseEntity<CursorPage<ViolationDto>> scrollViolations(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(applicationService.getViolationsByCursor(after, size));
+    }
+
     // ===== Payments List =====
     @GetMapping("/payments")
     public ResponseEntity<Page<PaymentDto>> getAllPayments(Pageable pageable) {
         return ResponseEntity.ok(paymentService.getAll(pageable));
     }
 
+    @GetMapping("/payments/scroll")
+    public ResponseEntity<CursorPage<PaymentDto>> scrollPayments(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(paymentService.getAllByCursor(after, size));
+    }
+
     // ===== Applications =====
     @GetMapping("/applications")
-    public ResponseEntity<Page<ApplicationDto>> getAllApplications(Pageable pageable) {
+    public ResponseEntity<Page<ApplicationSummaryDto>> getAllApplications(Pageable pageable) {
         return ResponseEntity.ok(applicationService.getAll(pageable));
     }
 
+    @GetMapping("/applications/scroll")
+    public ResponseEntity<CursorPage<ApplicationSummaryDto>> scrollApplications(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(applicationService.getAllByCursor(after, size));
+    }
+
     @GetMapping("/applications/by-status")
-    public ResponseEntity<Page<ApplicationDto>> getByStatus(
+    public ResponseEntity<Page<ApplicationSummaryDto>> getByStatus(
             @RequestParam String status, Pageable pageable) {
         return ResponseEntity.ok(applicationService.getByStatus(status, pageable));
     }
 
+    @PostMapping("/applications/claim-next")
+    public ResponseEntity<ApplicationDto> claimNextApplication(
+            @RequestParam(required = false) Long adminId,
+            @RequestParam(defaultValue = "SUBMITTED") String status) {
+        ApplicationDto claimed = applicationService.claimNext(adminId, status);
+        return claimed != null ? ResponseEntity.ok(claimed) : ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/applications/{id}/claim/heartbeat")
+    public ResponseEntity<ApplicationDto> renewApplicationClaim(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long adminId) {
+        return ResponseEntity.ok(applicationService.renewClaim(id, adminId));
+    }
+
+    @DeleteMapping("/applications/{id}/claim")
+    public ResponseEntity<Void> releaseApplicationClaim(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long adminId) {
+        applicationService.releaseClaim(id, adminId);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/applications/{id}")
     public ResponseEntity<ApplicationDto> getApplication(@PathVariable Long id) {
         return ResponseEntity.ok(applicationService.getById(id));
@@ -68,18 +125,21 @@ public class AdminController {
     @PostMapping("/applications/{id}/advance")
     public ResponseEntity<ApplicationDto> advanceWorkflow(
             @PathVariable Long id,
-            @RequestParam Long adminId,
+            @RequestParam(required = false) Long adminId,
+            @RequestParam(required = false) String expectedStatus,
             @RequestBody(required = false) Map<String, String> body) {
         String notes = body != null ? body.getOrDefault("notes", "") : "";
-        return ResponseEntity.ok(applicationService.advanceWorkflow(id, adminId, notes));
+        return ResponseEntity.ok(applicationService.advanceWorkflow(id, adminId, notes, expectedStatus));
     }
 
     @PostMapping("/applications/{id}/reject")
     public ResponseEntity<ApplicationDto> rejectApplication(
             @PathVariable Long id,
-            @RequestParam Long adminId,
+            @RequestParam(required = false) Long adminId,
+            @RequestParam(required = false) String expectedStatus,
             @RequestBody Map<String, String> body) {
-        return ResponseEntity.ok(applicationService.rejectApplication(id, adminId, body.get("reason")));
+        return ResponseEntity.ok(applicationService.rejectApplication(id, adminId, body.get("reason"),
+                expectedStatus));
     }
 
     // ===== Inspections =====
@@ -113,6 +173,31 @@ public class AdminController {
         return ResponseEntity.ok(inspectionService.getByStatus("SCHEDULED", pageable));
     }
 
+    @PostMapping("/inspections/auto-assign")
+    public ResponseEntity<InspectionDto> autoAssignInspection(
+            @RequestParam Long applicationId,
+            @RequestParam String scheduledDate) {
+        return ResponseEntity.ok(inspectionAssignmentService.autoAssign(
+                applicationId, OffsetDateTime.parse(scheduledDate)));
+    }
+
+    @PostMapping("/inspections/auto-assign/backlog")
+    public ResponseEntity<java.util.List<InspectionAssignmentDto>> autoAssignBacklog(
+            @RequestParam String date,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(inspectionAssignmentService.assignBacklog(java.time.LocalDate.parse(date), limit));
+    }
+
+    @GetMapping("/inspections/route")
+    public ResponseEntity<InspectionRouteDto> getInspectionRoute(
+            @RequestParam Long inspectorId,
+            @RequestParam String date,
+            @RequestParam(required = false) Double startLat,
+            @RequestParam(required = false) Double startLon) {
+        return ResponseEntity.ok(inspectionRouteService.planRoute(
+                inspectorId, java.time.LocalDate.parse(date), startLat, startLon));
+    }
+
     @GetMapping("/inspections/active-by-application/{applicationId}")
     public ResponseEntity<InspectionDto> getActiveByApplication(@PathVariable Long applicationId) {
         return ResponseEntity.ok(inspectionService.getActiveForApplication(applicationId));
@@ -208,6 +293,31 @@ public class AdminController {
         return ResponseEntity.ok(licenseService.getByApplication(appId));
     }
 
+    // ===== Audit Log =====
+
+    @GetMapping("/audit-logs/scroll")
+    public ResponseEntity<CursorPage<AuditLogDto>> scrollAuditLogs(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(auditService.getAllByCursor(after, size));
+    }
+
+    @GetMapping("/audit-logs/archive")
+    public ResponseEntity<java.util.List<String>> listAuditArchives() {
+        return ResponseEntity.ok(auditArchiveService.listArchivedMonths());
+    }
+
+    @GetMapping("/audit-logs/archive/{month}")
+    public ResponseEntity<StreamingResponseBody> streamAuditArchive(
+            @PathVariable String month,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId) {
+        auditArchiveService.requireArchive(month);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(out -> auditArchiveService.streamMonth(month, entityType, entityId, out));
+    }
+
     // ===== Employee Management =====
 
     @PostMapping("/employees")
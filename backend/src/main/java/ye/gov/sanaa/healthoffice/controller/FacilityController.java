@@ -6,8 +6,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ye.gov.sanaa.healthoffice.dto.FacilityDto;
+import ye.gov.sanaa.healthoffice.dto.MapTileDto;
 import ye.gov.sanaa.healthoffice.service.FacilityService;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/facilities")
 @RequiredArgsConstructor
@@ -33,6 +36,23 @@ public class FacilityController {
         return ResponseEntity.ok(facilityService.getAll(pageable));
     }
 
+    // Map clusters: centroid + count per facility type and license status
+    @GetMapping("/tiles/{z}/{x}/{y}")
+    public ResponseEntity<MapTileDto> getMapTile(
+            @PathVariable int z, @PathVariable int x, @PathVariable int y,
+            @RequestParam(required = false) String type) {
+        return ResponseEntity.ok(facilityService.getMapTile(z, x, y, type));
+    }
+
+    @GetMapping("/clusters")
+    public ResponseEntity<List<MapTileDto>> getMapClusters(
+            @RequestParam int z,
+            @RequestParam double minLat, @RequestParam double minLon,
+            @RequestParam double maxLat, @RequestParam double maxLon,
+            @RequestParam(required = false) String type) {
+        return ResponseEntity.ok(facilityService.getMapTiles(z, minLat, minLon, maxLat, maxLon, type));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FacilityDto> getById(@PathVariable Long id) {
         return ResponseEntity.ok(facilityService.getById(id));
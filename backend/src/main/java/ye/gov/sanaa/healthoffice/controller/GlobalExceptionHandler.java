@@ -1,9 +1,12 @@
 package ye.gov.sanaa.healthoffice.controller;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ye.gov.sanaa.healthoffice.exception.ConflictException;
 
 import java.time.OffsetDateTime;
 import java.util.Map;
@@ -18,6 +21,24 @@ public class GlobalExceptionHandler {
                 "timestamp", OffsetDateTime.now().toString()));
     }
 
+    // Lost a concurrent update; the client should reload and retry
+    @ExceptionHandler({ ConflictException.class, OptimisticLockingFailureException.class })
+    public ResponseEntity<Map<String, Object>> handleConflict(RuntimeException ex) {
+        String message = ex instanceof ConflictException ? ex.getMessage()
+                : "The record was changed by another request, reload and retry";
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "error", message,
+                "timestamp", OffsetDateTime.now().toString()));
+    }
+
+    // Workflow step not allowed for the acting admin's roles
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Map<String, Object>> handleAccessDenied(AccessDeniedException ex) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", ex.getMessage(),
+                "timestamp", OffsetDateTime.now().toString()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneral(Exception ex) {
         ex.printStackTrace(); // For console debugging
@@ -35,7 +35,7 @@ public class PortalController {
     }
 
     @GetMapping("/applications")
-    public ResponseEntity<Page<ApplicationDto>> getMyApplications(
+    public ResponseEntity<Page<ApplicationSummaryDto>> getMyApplications(
             @RequestParam Long facilityId,
             Pageable pageable) {
         return ResponseEntity.ok(applicationService.getByFacility(facilityId, pageable));
@@ -20,41 +20,34 @@ import ye.gov.sanaa.healthoffice.entity.PublicContent;
 public class PublicController {
 
         private final SystemSettingRepository systemSettingRepository;
-        private final ye.gov.sanaa.healthoffice.repository.LicenseRepository licenseRepository;
         private final ye.gov.sanaa.healthoffice.service.LicenseService licenseService;
+        private final ye.gov.sanaa.healthoffice.service.GISService gisService;
         private final PublicContentRepository publicContentRepository;
         private final ComplaintRepository complaintRepository;
 
         @GetMapping("/verify/{licenseNumber}")
         public ResponseEntity<ye.gov.sanaa.healthoffice.dto.PublicLicenseDto> verifyLicense(
                         @PathVariable String licenseNumber) {
-                try {
-                        return ResponseEntity.ok(licenseService.verifyLicense(licenseNumber));
-                } catch (RuntimeException e) {
-                        return ResponseEntity.notFound().build();
-                }
+                return licenseService.verifyLicense(licenseNumber)
+                                .map(ResponseEntity::ok)
+                                .orElseGet(() -> ResponseEntity.notFound().build());
+        }
+
+        @GetMapping("/facilities/nearby")
+        public ResponseEntity<List<ye.gov.sanaa.healthoffice.dto.NearbyFacilityDto>> nearbyFacilities(
+                        @RequestParam Double lat,
+                        @RequestParam Double lon,
+                        @RequestParam(required = false) String type,
+                        @RequestParam(required = false) Integer k) {
+                return ResponseEntity.ok(gisService.findNearbyLicensed(lat, lon, type, k));
         }
 
         @GetMapping("/license-check")
         public ResponseEntity<ye.gov.sanaa.healthoffice.dto.PublicLicenseDto> checkLicense(
                         @RequestParam String licenseNumber) {
-                var licenseOpt = licenseRepository.findByLicenseNumber(licenseNumber);
-                if (licenseOpt.isEmpty()) {
-                        return ResponseEntity.notFound().build();
-                }
-                var license = licenseOpt.get();
-                boolean isValid = "ACTIVE".equals(license.getStatus())
-                                && license.getExpiryDate().isAfter(java.time.LocalDate.now());
-
-                var dto = ye.gov.sanaa.healthoffice.dto.PublicLicenseDto.builder()
-                                .facilityName(license.getApplication().getFacility().getNameAr())
-                                .licenseNumber(license.getLicenseNumber())
-                                .facilityType(license.getApplication().getFacility().getFacilityType())
-                                .status(license.getStatus())
-                                .expiryDate(license.getExpiryDate())
-                                .isValid(isValid)
-                                .build();
-                return ResponseEntity.ok(dto);
+                return licenseService.verifyLicense(licenseNumber)
+                                .map(ResponseEntity::ok)
+                                .orElseGet(() -> ResponseEntity.notFound().build());
         }
 
         @GetMapping("/services")
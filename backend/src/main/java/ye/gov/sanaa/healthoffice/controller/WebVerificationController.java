@@ -18,16 +18,13 @@ public class WebVerificationController {
 
     @GetMapping(value = "/{licenseNumber}", produces = MediaType.TEXT_HTML_VALUE)
     public ResponseEntity<String> verifyPage(@PathVariable String licenseNumber) {
-        try {
-            PublicLicenseDto dto = licenseService.verifyLicense(licenseNumber);
-            String html = generateHtml(dto);
-            return ResponseEntity.ok(html);
-        } catch (RuntimeException e) {
-            return ResponseEntity.ok(generateErrorHtml(licenseNumber));
-        }
+        String html = licenseService.verifyLicense(licenseNumber)
+                .map(this::generateHtml)
+                .orElseGet(() -> generateErrorHtml(licenseNumber));
+        return ResponseEntity.ok(html);
     }
 
-    private String generateHtml(PublicLicenseDto dto) {
+    String generateHtml(PublicLicenseDto dto) {
         String statusColor = Boolean.TRUE.equals(dto.getIsValid()) ? "#388E3C" : "#D32F2F";
         String statusIcon = Boolean.TRUE.equals(dto.getIsValid()) ? "✓" : "✕";
         String statusText = Boolean.TRUE.equals(dto.getIsValid()) ? "ترخيص ساري المفعول" : "الترخيص غير صالح";
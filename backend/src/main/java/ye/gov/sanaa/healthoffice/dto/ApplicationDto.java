@@ -41,6 +41,8 @@ public class ApplicationDto {
     private OffsetDateTime submittedAt;
     private OffsetDateTime approvedAt;
     private String rejectionReason;
+    private Long claimedByAdminId;
+    private OffsetDateTime claimExpiresAt;
 
     private List<ApplicationStepDto> steps;
     private List<ApplicationDocumentDto> documents;
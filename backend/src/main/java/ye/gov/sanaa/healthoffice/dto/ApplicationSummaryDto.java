@@ -0,0 +1,32 @@
+package ye.gov.sanaa.healthoffice.dto;
+
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Lightweight row for application list screens. Built directly by a JPQL
+ * constructor expression in ApplicationRepository, so the field order below
+ * must match the select clause of those queries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApplicationSummaryDto {
+    private Long id;
+    private String applicationNumber;
+    private Long facilityId;
+    private String facilityNameAr;
+    private String facilityNameEn;
+    private String status;
+    private String licenseType;
+    private String facilityType;
+    private String supervisorName;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime submittedAt;
+    private String rejectionReason;
+
+    private Long stepCount;
+    private Long documentCount;
+    private Long licenseCount;
+}
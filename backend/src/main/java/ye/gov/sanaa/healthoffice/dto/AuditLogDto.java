@@ -0,0 +1,20 @@
+package ye.gov.sanaa.healthoffice.dto;
+
+import lombok.*;
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditLogDto {
+    private Long id;
+    private OffsetDateTime eventTime;
+    private Long actorAdminId;
+    private Long actorUserId;
+    private String actorIp;
+    private String action;
+    private String entityType;
+    private Long entityId;
+    private String details;
+}
@@ -0,0 +1,19 @@
+package ye.gov.sanaa.healthoffice.dto;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated list. Unlike Spring's Page there is no
+ * total count; pass nextCursor back as the "after" parameter to continue.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
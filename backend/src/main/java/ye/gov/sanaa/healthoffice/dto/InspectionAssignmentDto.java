@@ -0,0 +1,18 @@
+package ye.gov.sanaa.healthoffice.dto;
+
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/** Outcome of one application in a bulk auto-assignment; error is set when it was not booked. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InspectionAssignmentDto {
+    private Long applicationId;
+    private Long inspectionId;
+    private Long inspectorId;
+    private String inspectorName;
+    private OffsetDateTime scheduledDate;
+    private String error;
+}
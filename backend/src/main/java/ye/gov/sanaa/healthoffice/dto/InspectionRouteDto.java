@@ -0,0 +1,22 @@
+package ye.gov.sanaa.healthoffice.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InspectionRouteDto {
+    private Long inspectorId;
+    private LocalDate date;
+    private Double startLatitude;
+    private Double startLongitude;
+    private List<RouteStopDto> stops;
+    // Facilities without coordinates, left in scheduled order
+    private List<RouteStopDto> unlocatedStops;
+    private Double totalDistanceMeters;
+    // Same stops visited in scheduled-time order, for comparison
+    private Double scheduledOrderDistanceMeters;
+}
@@ -0,0 +1,16 @@
+package ye.gov.sanaa.healthoffice.dto;
+
+import lombok.*;
+
+/** One marker on the facility map: the centroid and size of a group of facilities. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MapClusterDto {
+    private Double latitude;
+    private Double longitude;
+    private Long count;
+    private String facilityType;
+    private String licenseStatus; // LICENSED, EXPIRED, SUSPENDED, REVOKED, UNLICENSED
+}
@@ -0,0 +1,15 @@
+package ye.gov.sanaa.healthoffice.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MapTileDto {
+    private Integer z;
+    private Integer x;
+    private Integer y;
+    private List<MapClusterDto> clusters;
+}
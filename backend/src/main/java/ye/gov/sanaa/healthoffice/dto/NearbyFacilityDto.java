@@ -0,0 +1,22 @@
+package ye.gov.sanaa.healthoffice.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class NearbyFacilityDto {
+    private Long facilityId;
+    private String facilityType;
+    private String nameAr;
+    private String nameEn;
+    private String district;
+    private String area;
+    private Double latitude;
+    private Double longitude;
+    private String licenseNumber;
+    private LocalDate licenseExpiryDate;
+    private Double distanceMeters;
+}
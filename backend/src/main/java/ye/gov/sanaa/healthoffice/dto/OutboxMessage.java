@@ -0,0 +1,33 @@
+package ye.gov.sanaa.healthoffice.dto;
+
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * A single deferred side effect stored in the outbox. kind is AUDIT,
+ * NOTIFY_USER or NOTIFY_ADMIN; only the fields for that kind are set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxMessage {
+    private String kind;
+    private OffsetDateTime occurredAt;
+
+    // AUDIT
+    private Long actorAdminId;
+    private Long actorUserId;
+    private String action;
+    private String entityType;
+    private Long entityId;
+    private String details;
+
+    // NOTIFY_USER / NOTIFY_ADMIN
+    private Long recipientId;
+    private String titleAr;
+    private String titleEn;
+    private String bodyAr;
+    private String bodyEn;
+    private String type;
+}
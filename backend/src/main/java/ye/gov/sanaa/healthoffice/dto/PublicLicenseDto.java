@@ -5,7 +5,7 @@ import lombok.Data;
 import java.time.LocalDate;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class PublicLicenseDto {
     private String facilityName;
     private String licenseNumber;
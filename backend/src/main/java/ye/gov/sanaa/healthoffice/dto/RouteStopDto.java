@@ -0,0 +1,24 @@
+package ye.gov.sanaa.healthoffice.dto;
+
+import lombok.*;
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RouteStopDto {
+    private Integer sequence;
+    private Long inspectionId;
+    private Long applicationId;
+    private String applicationNumber;
+    private Long facilityId;
+    private String facilityNameAr;
+    private String facilityNameEn;
+    private String district;
+    private Double latitude;
+    private Double longitude;
+    private OffsetDateTime scheduledDate;
+    // From the previous stop (or the start point); null for the first stop of an open route
+    private Double legDistanceMeters;
+}
@@ -5,7 +5,9 @@ import lombok.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "applications")
+@Table(name = "applications", indexes = {
+        @Index(name = "idx_applications_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_applications_queue", columnList = "status, submitted_at, id") })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,7 +15,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class Application {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "applications_seq")
+    @SequenceGenerator(name = "applications_seq", sequenceName = "applications_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "application_number", unique = true, nullable = false, length = 50)
@@ -103,6 +106,19 @@ public class Application {
     @Column(name = "rejection_reason", columnDefinition = "TEXT")
     private String rejectionReason;
 
+    // Optimistic lock: every UPDATE is "WHERE id = ? AND version = ?", so a
+    // concurrent transition fails with 409 instead of being overwritten
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
+    // Reviewer work-queue lease; the claim is void once claim_expires_at passes
+    @Column(name = "claimed_by_admin_id")
+    private Long claimedByAdminId;
+
+    @Column(name = "claim_expires_at")
+    private OffsetDateTime claimExpiresAt;
+
     @PrePersist
     void prePersist() {
         createdAt = updatedAt = OffsetDateTime.now();
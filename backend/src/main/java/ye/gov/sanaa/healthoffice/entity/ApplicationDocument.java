@@ -14,7 +14,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class ApplicationDocument {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "application_documents_seq")
+    @SequenceGenerator(name = "application_documents_seq", sequenceName = "application_documents_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -13,7 +13,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class ApplicationStep {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "application_steps_seq")
+    @SequenceGenerator(name = "application_steps_seq", sequenceName = "application_steps_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
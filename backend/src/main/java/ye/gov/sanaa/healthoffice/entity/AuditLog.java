@@ -5,7 +5,9 @@ import lombok.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_logs_event_time_id", columnList = "event_time, id"),
+        @Index(name = "idx_audit_logs_entity", columnList = "entity_type, entity_id, event_time") })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,7 +15,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class AuditLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_seq")
+    @SequenceGenerator(name = "audit_logs_seq", sequenceName = "audit_logs_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "event_time", nullable = false, updatable = false)
@@ -13,7 +13,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class Complaint {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "complaints_seq")
+    @SequenceGenerator(name = "complaints_seq", sequenceName = "complaints_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "citizen_name")
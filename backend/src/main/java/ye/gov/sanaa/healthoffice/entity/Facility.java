@@ -5,7 +5,8 @@ import lombok.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "facilities")
+@Table(name = "facilities", indexes = @Index(name = "idx_facilities_type_location",
+        columnList = "facility_type, latitude, longitude"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,7 +14,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class Facility {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "facilities_seq")
+    @SequenceGenerator(name = "facilities_seq", sequenceName = "facilities_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "facility_code", unique = true, nullable = false, length = 50)
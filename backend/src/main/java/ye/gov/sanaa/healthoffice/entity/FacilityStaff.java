@@ -14,7 +14,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class FacilityStaff {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "facility_staff_seq")
+    @SequenceGenerator(name = "facility_staff_seq", sequenceName = "facility_staff_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -13,7 +13,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class FacilityUser {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "facility_users_seq")
+    @SequenceGenerator(name = "facility_users_seq", sequenceName = "facility_users_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
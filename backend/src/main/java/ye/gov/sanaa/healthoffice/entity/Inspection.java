@@ -2,8 +2,11 @@ package ye.gov.sanaa.healthoffice.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.List;
 
 @Entity
 @Table(name = "inspections")
@@ -14,7 +17,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class Inspection {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inspections_seq")
+    @SequenceGenerator(name = "inspections_seq", sequenceName = "inspections_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -40,12 +44,27 @@ public class Inspection {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    // Score-vector storage (inspection.score-storage=vector): one score per
+    // criterion of the referenced template snapshot, in its order, instead of
+    // inspection_scores rows. Null for inspections stored as rows.
+    @Column(name = "template_snapshot_id")
+    private Long templateSnapshotId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "score_vector")
+    private List<BigDecimal> scoreVector;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    // Two concurrent completions: the second fails its version check
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @PrePersist
     void prePersist() {
         createdAt = updatedAt = OffsetDateTime.now();
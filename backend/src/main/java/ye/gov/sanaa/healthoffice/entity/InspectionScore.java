@@ -12,8 +12,11 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @Builder
 public class InspectionScore {
+    // Pooled sequence (one round trip per 50 ids) so seeding a template's
+    // scores can go out as a single JDBC batch; IDENTITY disables batching.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inspection_scores_seq")
+    @SequenceGenerator(name = "inspection_scores_seq", sequenceName = "inspection_scores_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
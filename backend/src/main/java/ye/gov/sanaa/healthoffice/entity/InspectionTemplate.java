@@ -15,7 +15,8 @@ import java.util.List;
 @Builder
 public class InspectionTemplate {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inspection_templates_seq")
+    @SequenceGenerator(name = "inspection_templates_seq", sequenceName = "inspection_templates_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
@@ -13,7 +13,8 @@ import java.math.BigDecimal;
 @Builder
 public class InspectionTemplateItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inspection_template_items_seq")
+    @SequenceGenerator(name = "inspection_template_items_seq", sequenceName = "inspection_template_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
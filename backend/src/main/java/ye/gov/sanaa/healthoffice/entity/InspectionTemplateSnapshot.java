@@ -0,0 +1,49 @@
+package ye.gov.sanaa.healthoffice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Immutable copy of a template's criteria at a point in time. Inspections
+ * stored in score-vector mode point at one of these, and their score vector
+ * is aligned to its criteria order. A new version is written only when the
+ * criteria actually change (content_hash).
+ */
+@Entity
+@Table(name = "inspection_template_snapshots", uniqueConstraints = @UniqueConstraint(columnNames = { "template_id", "version" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InspectionTemplateSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inspection_template_snapshots_seq")
+    @SequenceGenerator(name = "inspection_template_snapshots_seq", sequenceName = "inspection_template_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "template_id", nullable = false)
+    private Long templateId;
+
+    @Column(name = "facility_type", nullable = false)
+    private String facilityType;
+
+    @Column(nullable = false)
+    private Integer version;
+
+    @Column(name = "content_hash", nullable = false, unique = true, length = 64)
+    private String contentHash;
+
+    // JSON array of {criterionCode, description, maxScore}
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String criteria;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    void prePersist() {
+        createdAt = OffsetDateTime.now();
+    }
+}
@@ -6,7 +6,7 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "licenses")
+@Table(name = "licenses", indexes = @Index(name = "idx_licenses_created_at_id", columnList = "created_at, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,7 +14,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class License {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "licenses_seq")
+    @SequenceGenerator(name = "licenses_seq", sequenceName = "licenses_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
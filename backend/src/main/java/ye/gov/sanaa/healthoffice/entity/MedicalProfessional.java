@@ -14,7 +14,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class MedicalProfessional {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medical_professionals_seq")
+    @SequenceGenerator(name = "medical_professionals_seq", sequenceName = "medical_professionals_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "national_id", unique = true, nullable = false, length = 20)
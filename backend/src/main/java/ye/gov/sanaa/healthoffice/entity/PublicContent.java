@@ -13,7 +13,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class PublicContent {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "public_content_seq")
+    @SequenceGenerator(name = "public_content_seq", sequenceName = "public_content_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 50)
@@ -5,7 +5,7 @@ import lombok.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "violations")
+@Table(name = "violations", indexes = @Index(name = "idx_violations_created_at_id", columnList = "created_at, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,7 +13,8 @@ import java.time.OffsetDateTime;
 @Builder
 public class Violation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "violations_seq")
+    @SequenceGenerator(name = "violations_seq", sequenceName = "violations_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
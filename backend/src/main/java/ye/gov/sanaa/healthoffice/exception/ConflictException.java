@@ -0,0 +1,12 @@
+package ye.gov.sanaa.healthoffice.exception;
+
+/**
+ * The record changed underneath the request (another transition won the
+ * race). Mapped to 409 so clients can reload and retry.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +1,17 @@
 package ye.gov.sanaa.healthoffice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ye.gov.sanaa.healthoffice.entity.Admin;
+import java.util.List;
 import java.util.Optional;
 
 public interface AdminRepository extends JpaRepository<Admin, Long> {
     Optional<Admin> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    @Query("SELECT DISTINCT a FROM Admin a JOIN a.roles r WHERE r.code = :roleCode AND a.enabled = true ORDER BY a.id")
+    List<Admin> findEnabledByRoleCode(@Param("roleCode") String roleCode);
 }
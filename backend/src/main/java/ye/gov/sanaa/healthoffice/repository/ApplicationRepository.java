@@ -1,13 +1,33 @@
 package ye.gov.sanaa.healthoffice.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import ye.gov.sanaa.healthoffice.dto.ApplicationSummaryDto;
 import ye.gov.sanaa.healthoffice.entity.Application;
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.List;
 
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
+
+    // List projection: facility columns come from the join and the child counts
+    // from correlated subqueries, so a whole page is one SQL statement.
+    String SUMMARY_SELECT = "SELECT new ye.gov.sanaa.healthoffice.dto.ApplicationSummaryDto("
+            + "a.id, a.applicationNumber, f.id, f.nameAr, f.nameEn, a.status, a.licenseType, a.facilityType, "
+            + "a.supervisorName, a.createdAt, a.submittedAt, a.rejectionReason, "
+            + "(SELECT COUNT(s) FROM ApplicationStep s WHERE s.application = a), "
+            + "(SELECT COUNT(d) FROM ApplicationDocument d WHERE d.application = a), "
+            + "(SELECT COUNT(l) FROM License l WHERE l.application = a)) "
+            + "FROM Application a JOIN a.facility f";
+
     Optional<Application> findByApplicationNumber(String applicationNumber);
 
     List<Application> findByFacilityId(Long facilityId);
@@ -17,4 +37,52 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     Page<Application> findByFacilityId(Long facilityId, Pageable pageable);
 
     long countByStatus(String status);
+
+    @Query("SELECT a.status, COUNT(a) FROM Application a GROUP BY a.status")
+    List<Object[]> countGroupByStatus();
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(a) FROM Application a")
+    Page<ApplicationSummaryDto> findAllSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE a.status = :status",
+            countQuery = "SELECT COUNT(a) FROM Application a WHERE a.status = :status")
+    Page<ApplicationSummaryDto> findSummariesByStatus(@Param("status") String status, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE f.id = :facilityId",
+            countQuery = "SELECT COUNT(a) FROM Application a WHERE a.facility.id = :facilityId")
+    Page<ApplicationSummaryDto> findSummariesByFacilityId(@Param("facilityId") Long facilityId, Pageable pageable);
+
+    // Applications moved to the inspection scheduling step without a visit
+    // booked yet, oldest first. Row shape: application id, facility district.
+    @Query("SELECT a.id, f.district FROM Application a JOIN a.facility f"
+            + " WHERE a.status = 'INSPECTION_SCHEDULED' AND NOT EXISTS"
+            + " (SELECT i FROM Inspection i WHERE i.application = a AND i.status = 'SCHEDULED')"
+            + " ORDER BY a.submittedAt, a.id")
+    List<Object[]> findInspectionSchedulingBacklog();
+
+    // Reviewer queue: oldest unclaimed (or lapsed) application in a status.
+    // SKIP LOCKED (lock.timeout -2) lets concurrent reviewers claim disjoint rows.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT a FROM Application a WHERE a.status = :status"
+            + " AND (a.claimExpiresAt IS NULL OR a.claimExpiresAt < :now) ORDER BY a.submittedAt, a.id")
+    List<Application> lockNextClaimable(@Param("status") String status, @Param("now") OffsetDateTime now,
+            Pageable limit);
+
+    @Modifying
+    @Query("UPDATE Application a SET a.claimExpiresAt = :expiresAt"
+            + " WHERE a.id = :id AND a.claimedByAdminId = :adminId AND a.claimExpiresAt > :now")
+    int renewClaim(@Param("id") Long id, @Param("adminId") Long adminId, @Param("now") OffsetDateTime now,
+            @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE Application a SET a.claimedByAdminId = NULL, a.claimExpiresAt = NULL"
+            + " WHERE a.id = :id AND a.claimedByAdminId = :adminId")
+    int releaseClaim(@Param("id") Long id, @Param("adminId") Long adminId);
+
+    // Keyset page: seeks on (created_at, id) instead of OFFSET, and never counts
+    @Query(SUMMARY_SELECT + " WHERE a.createdAt <= :createdAt AND (a.createdAt < :createdAt OR a.id < :id)"
+            + " ORDER BY a.createdAt DESC, a.id DESC")
+    List<ApplicationSummaryDto> findSummariesBefore(@Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") Long id, Pageable limit);
 }
@@ -1,12 +1,23 @@
 package ye.gov.sanaa.healthoffice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ye.gov.sanaa.healthoffice.entity.AuditLog;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     Page<AuditLog> findByEntityTypeAndEntityId(String entityType, Long entityId, Pageable pageable);
 
     Page<AuditLog> findAllByOrderByEventTimeDesc(Pageable pageable);
+
+    @Query("SELECT l FROM AuditLog l"
+            + " WHERE l.eventTime <= :eventTime AND (l.eventTime < :eventTime OR l.id < :id)"
+            + " ORDER BY l.eventTime DESC, l.id DESC")
+    List<AuditLog> findPageBefore(@Param("eventTime") OffsetDateTime eventTime, @Param("id") Long id,
+            Pageable limit);
 }
@@ -1,6 +1,8 @@
 package ye.gov.sanaa.healthoffice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ye.gov.sanaa.healthoffice.entity.Facility;
 import java.util.Optional;
 import java.util.List;
@@ -11,4 +13,22 @@ public interface FacilityRepository extends JpaRepository<Facility, Long> {
     List<Facility> findByFacilityType(String facilityType);
 
     List<Facility> findByIsActiveTrue();
+
+    @Query("SELECT f FROM Facility f WHERE f.facilityType = :type"
+            + " AND f.latitude BETWEEN :minLat AND :maxLat AND f.longitude BETWEEN :minLon AND :maxLon")
+    List<Facility> findInBoundingBox(@Param("type") String facilityType, @Param("minLat") double minLat,
+            @Param("maxLat") double maxLat, @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+
+    @Query("SELECT f.id, f.facilityType, f.latitude, f.longitude FROM Facility f"
+            + " WHERE f.latitude IS NOT NULL AND f.longitude IS NOT NULL")
+    List<Object[]> findAllLocations();
+
+    String ACTIVE_LOCATION_SELECT = "SELECT f.id, f.facilityType, f.latitude, f.longitude FROM Facility f"
+            + " WHERE f.isActive = true AND f.latitude IS NOT NULL AND f.longitude IS NOT NULL";
+
+    @Query(ACTIVE_LOCATION_SELECT)
+    List<Object[]> findActiveLocations();
+
+    @Query(ACTIVE_LOCATION_SELECT + " AND f.id = :facilityId")
+    List<Object[]> findActiveLocation(@Param("facilityId") Long facilityId);
 }
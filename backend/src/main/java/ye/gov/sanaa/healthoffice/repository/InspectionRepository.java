@@ -1,9 +1,12 @@
 package ye.gov.sanaa.healthoffice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ye.gov.sanaa.healthoffice.entity.Inspection;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface InspectionRepository extends JpaRepository<Inspection, Long> {
@@ -12,4 +15,16 @@ public interface InspectionRepository extends JpaRepository<Inspection, Long> {
     Page<Inspection> findByStatus(String status, Pageable pageable);
 
     Page<Inspection> findByInspectorId(Long inspectorId, Pageable pageable);
+
+    @Query("SELECT i FROM Inspection i JOIN FETCH i.application a JOIN FETCH a.facility"
+            + " WHERE i.inspector.id = :inspectorId AND i.status = 'SCHEDULED'"
+            + " AND i.scheduledDate >= :from AND i.scheduledDate < :to ORDER BY i.scheduledDate, i.id")
+    List<Inspection> findScheduledForInspector(@Param("inspectorId") Long inspectorId,
+            @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    // Row shape: inspection id, inspector id, scheduled date, facility district
+    @Query("SELECT i.id, i.inspector.id, i.scheduledDate, f.district FROM Inspection i"
+            + " JOIN i.application a JOIN a.facility f"
+            + " WHERE i.status = 'SCHEDULED' AND i.inspector IS NOT NULL AND i.scheduledDate IS NOT NULL")
+    List<Object[]> findScheduledSlots();
 }
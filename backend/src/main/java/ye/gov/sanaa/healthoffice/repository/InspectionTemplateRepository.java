@@ -1,6 +1,8 @@
 package ye.gov.sanaa.healthoffice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ye.gov.sanaa.healthoffice.entity.InspectionTemplate;
 
@@ -9,4 +11,7 @@ import java.util.Optional;
 @Repository
 public interface InspectionTemplateRepository extends JpaRepository<InspectionTemplate, Long> {
     Optional<InspectionTemplate> findByFacilityType(String facilityType);
+
+    @Query("SELECT DISTINCT t FROM InspectionTemplate t LEFT JOIN FETCH t.items WHERE t.facilityType = :facilityType")
+    Optional<InspectionTemplate> findWithItemsByFacilityType(@Param("facilityType") String facilityType);
 }
@@ -0,0 +1,12 @@
+package ye.gov.sanaa.healthoffice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ye.gov.sanaa.healthoffice.entity.InspectionTemplateSnapshot;
+
+import java.util.Optional;
+
+public interface InspectionTemplateSnapshotRepository extends JpaRepository<InspectionTemplateSnapshot, Long> {
+    Optional<InspectionTemplateSnapshot> findByContentHash(String contentHash);
+
+    long countByTemplateId(Long templateId);
+}
@@ -1,14 +1,61 @@
 package ye.gov.sanaa.healthoffice.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ye.gov.sanaa.healthoffice.entity.License;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.List;
 
 public interface LicenseRepository extends JpaRepository<License, Long> {
     Optional<License> findByLicenseNumber(String licenseNumber);
 
+    // Loads everything the public verification page shows in one statement
+    @Query("SELECT l FROM License l JOIN FETCH l.application a JOIN FETCH a.facility"
+            + " WHERE l.licenseNumber = :licenseNumber")
+    Optional<License> findForVerification(@Param("licenseNumber") String licenseNumber);
+
+    // Located, active facilities holding a current license, for the nearby search
+    String LICENSED_LOCATION_SELECT = "SELECT f.id, f.facilityType, f.nameAr, f.nameEn, f.district, f.area,"
+            + " f.latitude, f.longitude, l.licenseNumber, l.expiryDate"
+            + " FROM License l JOIN l.application a JOIN a.facility f"
+            + " WHERE l.status = 'ACTIVE' AND l.expiryDate >= :today AND f.isActive = true"
+            + " AND f.latitude IS NOT NULL AND f.longitude IS NOT NULL";
+
+    @Query(LICENSED_LOCATION_SELECT)
+    List<Object[]> findLicensedFacilityLocations(@Param("today") LocalDate today);
+
+    @Query(LICENSED_LOCATION_SELECT + " AND f.id = :facilityId")
+    List<Object[]> findLicensedFacilityLocation(@Param("facilityId") Long facilityId, @Param("today") LocalDate today);
+
+    @Query("SELECT a.facility.id, l.status, l.expiryDate FROM License l JOIN l.application a")
+    List<Object[]> findFacilityLicenseStates();
+
+    @Query("SELECT a.facility.id, l.status, l.expiryDate FROM License l JOIN l.application a"
+            + " WHERE a.facility.id = :facilityId")
+    List<Object[]> findFacilityLicenseStates(@Param("facilityId") Long facilityId);
+
+    @Query("SELECT l.licenseNumber FROM License l")
+    List<String> findAllLicenseNumbers();
+
+    @Query("SELECT COALESCE(MAX(l.id), 0) FROM License l")
+    long findMaxId();
+
+    // Ids above the high-water mark, plus recent rows: ids come from per-instance
+    // sequence blocks, so a lower id can commit after a higher one
+    @Query("SELECT l.id, l.licenseNumber FROM License l WHERE l.id > :afterId OR l.createdAt > :since")
+    List<Object[]> findNumbersAddedSince(@Param("afterId") long afterId, @Param("since") OffsetDateTime since);
+
     List<License> findByApplicationId(Long applicationId);
 
     long countByExpiryDateBefore(java.time.LocalDate date);
+
+    @Query("SELECT l FROM License l JOIN FETCH l.application a JOIN FETCH a.facility"
+            + " WHERE l.createdAt <= :createdAt AND (l.createdAt < :createdAt OR l.id < :id)"
+            + " ORDER BY l.createdAt DESC, l.id DESC")
+    List<License> findPageBefore(@Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id,
+            Pageable limit);
 }
@@ -1,7 +1,11 @@
 package ye.gov.sanaa.healthoffice.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ye.gov.sanaa.healthoffice.entity.Payment;
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.List;
 
@@ -9,4 +13,10 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByPaymentReference(String paymentReference);
 
     List<Payment> findByApplicationId(Long applicationId);
+
+    @Query("SELECT p FROM Payment p JOIN FETCH p.application"
+            + " WHERE p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id)"
+            + " ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findPageBefore(@Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id,
+            Pageable limit);
 }
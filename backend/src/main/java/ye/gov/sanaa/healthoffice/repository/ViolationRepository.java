@@ -1,7 +1,11 @@
 package ye.gov.sanaa.healthoffice.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ye.gov.sanaa.healthoffice.entity.Violation;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface ViolationRepository extends JpaRepository<Violation, Long> {
@@ -10,4 +14,12 @@ public interface ViolationRepository extends JpaRepository<Violation, Long> {
     List<Violation> findByApplicationId(Long applicationId);
 
     List<Violation> findByIsActiveTrue();
+
+    long countByIsActiveTrue();
+
+    @Query("SELECT v FROM Violation v LEFT JOIN FETCH v.application a LEFT JOIN FETCH a.facility"
+            + " WHERE v.createdAt <= :createdAt AND (v.createdAt < :createdAt OR v.id < :id)"
+            + " ORDER BY v.createdAt DESC, v.id DESC")
+    List<Violation> findPageBefore(@Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id,
+            Pageable limit);
 }
@@ -0,0 +1,37 @@
+package ye.gov.sanaa.healthoffice.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import ye.gov.sanaa.healthoffice.entity.Admin;
+import ye.gov.sanaa.healthoffice.repository.AdminRepository;
+
+/**
+ * The admin making the current request, as named by the JWT subject
+ * (AuthService issues admin tokens with the username as subject). Admin
+ * endpoints still accept the adminId request parameter older clients send,
+ * but only as a claim to check: it never selects whose roles or claims apply.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentAdmin {
+
+    private final AdminRepository adminRepository;
+
+    /**
+     * The signed-in admin; AccessDeniedException if the request is not from
+     * one, or if {@code claimedId} is given and names someone else.
+     */
+    public Admin require(Long claimedId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getAuthorities().stream().noneMatch(a -> "ACTOR_ADMIN".equals(a.getAuthority())))
+            throw new AccessDeniedException("Not signed in as an admin");
+        Admin admin = adminRepository.findByUsername(auth.getName())
+                .orElseThrow(() -> new AccessDeniedException("Not signed in as an admin"));
+        if (claimedId != null && !claimedId.equals(admin.getId()))
+            throw new AccessDeniedException("adminId " + claimedId + " is not the signed-in admin");
+        return admin;
+    }
+}
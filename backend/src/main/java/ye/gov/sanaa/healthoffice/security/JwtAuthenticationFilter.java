@@ -1,5 +1,6 @@
 package ye.gov.sanaa.healthoffice.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,19 +27,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
         String token = resolveToken(request);
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            String subject = jwtTokenProvider.getSubject(token);
-            Object roleObj = jwtTokenProvider.getClaim(token, "role");
+        Claims claims = token != null ? jwtTokenProvider.parse(token).orElse(null) : null;
+        if (claims != null) {
+            Object roleObj = claims.get("role");
             String role = roleObj != null ? roleObj.toString() : "USER";
-            Object actorType = jwtTokenProvider.getClaim(token, "actorType");
+            Object actorType = claims.get("actorType");
             String actor = actorType != null ? actorType.toString() : "FACILITY_USER";
 
             List<SimpleGrantedAuthority> authorities = List.of(
                     new SimpleGrantedAuthority("ROLE_" + role),
                     new SimpleGrantedAuthority("ACTOR_" + actor));
 
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(subject, null,
-                    authorities);
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    claims.getSubject(), null, authorities);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(request, response);
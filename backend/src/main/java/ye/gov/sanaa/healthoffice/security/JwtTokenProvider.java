@@ -9,19 +9,25 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
 
     private final SecretKey key;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
     private final long accessTokenValidityMs;
     private final long refreshTokenValidityMs;
 
     public JwtTokenProvider(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.access-token-validity-seconds}") long accessSec,
-            @Value("${jwt.refresh-token-validity-seconds}") long refreshSec) {
+            @Value("${jwt.refresh-token-validity-seconds}") long refreshSec,
+            @Value("${jwt.verified-cache.max-entries:10000}") int verifiedCacheEntries) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheEntries);
         this.accessTokenValidityMs = accessSec * 1000;
         this.refreshTokenValidityMs = refreshSec * 1000;
     }
@@ -45,25 +51,21 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String getSubject(String token) {
-        return parseClaims(token).getSubject();
-    }
-
-    public Object getClaim(String token, String key) {
-        return parseClaims(token).get(key);
-    }
-
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token once and returns its claims, or empty if it is
+     * malformed, badly signed or expired. Tokens seen before are served from
+     * the verified-token cache without re-checking the signature.
+     */
+    public Optional<Claims> parse(String token) {
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null)
+            return Optional.of(cached);
         try {
-            parseClaims(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(token, claims);
+            return Optional.of(claims);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
-
-    private Claims parseClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody();
-    }
 }
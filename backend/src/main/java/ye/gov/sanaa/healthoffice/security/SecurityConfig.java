@@ -1,5 +1,6 @@
 package ye.gov.sanaa.healthoffice.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -36,6 +37,8 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches of streamed responses were already authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Protected API endpoints
                         .requestMatchers("/api/v1/admin/**").hasAnyAuthority("ACTOR_ADMIN")
                         .requestMatchers("/api/v1/portal/**").hasAnyAuthority("ACTOR_FACILITY_USER")
@@ -0,0 +1,67 @@
+package ye.gov.sanaa.healthoffice.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of tokens whose signature has already been verified, keyed by
+ * the SHA-256 of the token so raw bearer tokens are never held in memory.
+ * An entry lives until the token's own exp claim, after which the token is
+ * parsed (and rejected) normally.
+ */
+class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > VerifiedTokenCache.this.maxEntries;
+            }
+        };
+    }
+
+    Claims get(String token) {
+        String key = hash(token);
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e == null)
+                return null;
+            if (e.expiresAt() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return e.claims();
+        }
+    }
+
+    void put(String token, Claims claims) {
+        if (maxEntries <= 0 || claims.getExpiration() == null)
+            return;
+        String key = hash(token);
+        synchronized (entries) {
+            entries.put(key, new Entry(claims, claims.getExpiration().getTime()));
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
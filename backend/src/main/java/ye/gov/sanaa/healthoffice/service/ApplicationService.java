@@ -1,13 +1,22 @@
 package ye.gov.sanaa.healthoffice.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ye.gov.sanaa.healthoffice.dto.*;
 import ye.gov.sanaa.healthoffice.entity.*;
+import ye.gov.sanaa.healthoffice.exception.ConflictException;
 import ye.gov.sanaa.healthoffice.repository.*;
+import ye.gov.sanaa.healthoffice.security.CurrentAdmin;
+import ye.gov.sanaa.healthoffice.workflow.ApplicationStatus;
+import ye.gov.sanaa.healthoffice.workflow.ApplicationWorkflow;
+import ye.gov.sanaa.healthoffice.workflow.SideEffect;
+import ye.gov.sanaa.healthoffice.workflow.Transition;
+import ye.gov.sanaa.healthoffice.workflow.WorkflowAction;
 
 import java.time.OffsetDateTime;
 import java.time.LocalDate;
@@ -28,6 +37,15 @@ public class ApplicationService {
     private final NotificationService notificationService;
     private final LicenseRepository licenseRepository;
     private final ViolationRepository violationRepository;
+    private final DashboardCounterStore dashboardCounters;
+    private final LicenseNumberFilter licenseNumberFilter;
+    private final LicensedFacilityIndex licensedFacilityIndex;
+    private final FacilityClusterIndex facilityClusterIndex;
+    private final CurrentAdmin currentAdmin;
+    private final ApplicationWorkflow workflow;
+
+    @Value("${review.queue.lease-seconds:300}")
+    private long claimLeaseSeconds;
 
     private LocalDate parseDate(String date) {
         if (date == null || date.trim().isEmpty())
@@ -39,11 +57,6 @@ public class ApplicationService {
         }
     }
 
-    private static final List<String> WORKFLOW_STEPS = List.of(
-            "DRAFT", "SUBMIT", "LICENSING_REVIEW", "BLUEPRINT_REVIEW", "INSPECTION_SCHEDULING",
-            "INSPECTION_REPORT", "COMMITTEE_APPROVAL", "PAYMENT_ORDER",
-            "ELECTRONIC_PAYMENT", "LICENSE_ISSUANCE", "ARCHIVE");
-
     @Transactional
     public ApplicationDto createDraft(Long facilityId, Long userId, ApplicationDto dto) {
         Facility facility = facilityRepository.findById(facilityId)
@@ -55,7 +68,7 @@ public class ApplicationService {
                 .applicationNumber(appNumber)
                 .facility(facility)
                 .submittedByUser(facilityUserRepository.findById(userId).orElse(null))
-                .status("DRAFT")
+                .status(ApplicationStatus.DRAFT.name())
                 .licenseType(dto.getLicenseType())
                 .facilityType(dto.getFacilityType())
                 .supervisorName(dto.getSupervisorName())
@@ -76,12 +89,13 @@ public class ApplicationService {
                 .build();
 
         app = applicationRepository.save(app);
+        dashboardCounters.recordCreated(ApplicationStatus.DRAFT.name());
 
         // Create initial workflow step
         ApplicationStep draftStep = ApplicationStep.builder()
                 .application(app)
-                .stepOrder(1)
-                .stepCode("DRAFT")
+                .stepOrder(ApplicationStatus.DRAFT.getStepOrder())
+                .stepCode(ApplicationStatus.DRAFT.getStepCode())
                 .status("COMPLETED")
                 .performedByUser(app.getSubmittedByUser())
                 .performedAt(OffsetDateTime.now())
@@ -100,18 +114,18 @@ public class ApplicationService {
         Application app = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found"));
 
-        if (!"DRAFT".equals(app.getStatus())) {
-            throw new RuntimeException("Application can only be submitted from DRAFT status");
-        }
+        String previousStatus = app.getStatus();
+        Transition t = workflow.require(app.getFacilityType(), previousStatus, WorkflowAction.SUBMIT);
 
-        app.setStatus("SUBMITTED");
+        app.setStatus(t.to().name());
         app.setSubmittedAt(OffsetDateTime.now());
         applicationRepository.save(app);
+        dashboardCounters.recordTransition(previousStatus, t.to().name());
 
         ApplicationStep submitStep = ApplicationStep.builder()
                 .application(app)
-                .stepOrder(2)
-                .stepCode("SUBMIT")
+                .stepOrder(t.to().getStepOrder())
+                .stepCode(t.to().getStepCode())
                 .status("COMPLETED")
                 .performedByUser(facilityUserRepository.findById(userId).orElse(null))
                 .performedAt(OffsetDateTime.now())
@@ -129,33 +143,23 @@ public class ApplicationService {
     }
 
     @Transactional
-    public ApplicationDto advanceWorkflow(Long applicationId, Long adminId, String notes) {
+    public ApplicationDto advanceWorkflow(Long applicationId, Long adminId, String notes, String expectedStatus) {
         Application app = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found"));
 
+        // Roles are checked on the signed-in admin; adminId may only confirm it
+        Admin admin = currentAdmin.require(adminId);
+        checkClaim(app, admin.getId());
+        expectStatus(app, expectedStatus);
         String currentStatus = app.getStatus();
 
-        // STRICT WORKFLOW ENFORCEMENT
-        if ("INSPECTION_SCHEDULED".equals(currentStatus)) {
-            throw new RuntimeException("Cannot manually advance. Must complete inspection.");
-        }
-        if ("COMMITTEE_APPROVED".equals(currentStatus)) {
-            throw new RuntimeException("Cannot manually advance. Must generate payment order.");
-        }
-        if ("PAYMENT_PENDING".equals(currentStatus)) {
-            throw new RuntimeException("Cannot manually advance. Must confirm payment.");
-        }
-
-        int currentIndex = getStatusIndex(currentStatus);
-        if (currentIndex < 0 || currentIndex >= WORKFLOW_STEPS.size() - 1) {
-            throw new RuntimeException("Cannot advance from current status: " + currentStatus);
-        }
-
-        String nextStep = WORKFLOW_STEPS.get(currentIndex + 1);
-        String nextStatus = mapStepToStatus(nextStep);
+        Transition t = workflow.require(app.getFacilityType(), currentStatus, WorkflowAction.ADVANCE);
+        workflow.checkRole(t, admin);
+        String nextStatus = t.to().name();
         app.setStatus(nextStatus);
+        clearClaim(app);
 
-        if ("LICENSE_ISSUED".equals(nextStatus)) {
+        if (t.has(SideEffect.ISSUE_LICENSE)) {
             app.setApprovedAt(OffsetDateTime.now());
 
             // Create the actual License record
@@ -169,33 +173,36 @@ public class ApplicationService {
                     .status("ACTIVE")
                     .build();
             licenseRepository.save(license);
+            licenseNumberFilter.add(licenseNum);
+            licensedFacilityIndex.refresh(app.getFacility().getId());
+            facilityClusterIndex.refresh(app.getFacility().getId());
         }
 
         applicationRepository.save(app);
+        dashboardCounters.recordTransition(currentStatus, nextStatus);
 
-        ApplicationStep step = ApplicationStep.builder()
-                .application(app)
-                .stepOrder(currentIndex + 2)
-                .stepCode(nextStep)
-                .status("COMPLETED")
-                .performedByAdmin(null)
-                .performedAt(OffsetDateTime.now())
-                .notes(notes)
-                .build();
-
-        // Set admin reference properly
-        step.setPerformedByAdmin(null); // Will be set in controller context
-        applicationStepRepository.save(step);
+        if (t.has(SideEffect.RECORD_STEP)) {
+            ApplicationStep step = ApplicationStep.builder()
+                    .application(app)
+                    .stepOrder(t.to().getStepOrder())
+                    .stepCode(t.to().getStepCode())
+                    .status("COMPLETED")
+                    .performedByAdmin(admin)
+                    .performedAt(OffsetDateTime.now())
+                    .notes(notes)
+                    .build();
+            applicationStepRepository.save(step);
+        }
 
-        auditService.log(adminId, null, "ADVANCE_WORKFLOW", "APPLICATION", app.getId(),
-                "Advanced to: " + nextStep);
+        auditService.log(admin.getId(), null, "ADVANCE_WORKFLOW", "APPLICATION", app.getId(),
+                "Advanced to: " + t.to().getStepCode());
 
         // Notify User based on step
-        if ("COMMITTEE_APPROVED".equals(nextStatus)) {
+        if (t.has(SideEffect.NOTIFY_COMMITTEE_APPROVED)) {
             notificationService.notifyUser(app.getSubmittedByUser().getId(),
                     "تمت موافقة اللجنة", "Committee Approved",
                     "يرجى استكمال إجراءات الدفع", "Please proceed to payment", "SUCCESS");
-        } else if ("LICENSE_ISSUED".equals(nextStatus)) {
+        } else if (t.has(SideEffect.NOTIFY_LICENSE_ISSUED)) {
             notificationService.notifyUser(app.getSubmittedByUser().getId(),
                     "تم إصدار الترخيص", "License Issued",
                     "يمكنك استلام الترخيص الآن", "You can collect your license now", "SUCCESS");
@@ -205,16 +212,25 @@ public class ApplicationService {
     }
 
     @Transactional
-    public ApplicationDto rejectApplication(Long applicationId, Long adminId, String reason) {
+    public ApplicationDto rejectApplication(Long applicationId, Long adminId, String reason, String expectedStatus) {
         Application app = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found"));
 
-        app.setStatus("REJECTED");
+        // Roles are checked on the signed-in admin; adminId may only confirm it
+        Admin admin = currentAdmin.require(adminId);
+        checkClaim(app, admin.getId());
+        expectStatus(app, expectedStatus);
+        String previousStatus = app.getStatus();
+        Transition t = workflow.require(app.getFacilityType(), previousStatus, WorkflowAction.REJECT);
+        workflow.checkRole(t, admin);
+        app.setStatus(t.to().name());
+        clearClaim(app);
         app.setRejectedAt(OffsetDateTime.now());
         app.setRejectionReason(reason);
         applicationRepository.save(app);
+        dashboardCounters.recordTransition(previousStatus, t.to().name());
 
-        auditService.log(adminId, null, "REJECT_APPLICATION", "APPLICATION", app.getId(),
+        auditService.log(admin.getId(), null, "REJECT_APPLICATION", "APPLICATION", app.getId(),
                 "Rejected: " + reason);
 
         notificationService.notifyUser(app.getSubmittedByUser().getId(),
@@ -224,6 +240,62 @@ public class ApplicationService {
         return toDto(app);
     }
 
+    /**
+     * Leases the oldest unclaimed application in the given status to the
+     * reviewer, or returns null when the queue is empty. Rows another reviewer
+     * is claiming at the same moment are skipped rather than waited on.
+     */
+    @Transactional
+    public ApplicationDto claimNext(Long adminId, String status) {
+        Long reviewerId = currentAdmin.require(adminId).getId();
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Application> next = applicationRepository.lockNextClaimable(status, now, PageRequest.ofSize(1));
+        if (next.isEmpty())
+            return null;
+        Application app = next.get(0);
+        app.setClaimedByAdminId(reviewerId);
+        app.setClaimExpiresAt(now.plusSeconds(claimLeaseSeconds));
+        return toDto(app);
+    }
+
+    /** Extends the reviewer's lease; fails if it already lapsed or was taken over. */
+    @Transactional
+    public ApplicationDto renewClaim(Long applicationId, Long adminId) {
+        Long reviewerId = currentAdmin.require(adminId).getId();
+        OffsetDateTime now = OffsetDateTime.now();
+        if (applicationRepository.renewClaim(applicationId, reviewerId, now, now.plusSeconds(claimLeaseSeconds)) == 0) {
+            throw new ConflictException("Claim on application " + applicationId + " is not held by this reviewer");
+        }
+        return toDto(applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new RuntimeException("Application not found")));
+    }
+
+    @Transactional
+    public void releaseClaim(Long applicationId, Long adminId) {
+        applicationRepository.releaseClaim(applicationId, currentAdmin.require(adminId).getId());
+    }
+
+    // A live claim by another reviewer blocks workflow changes
+    private static void checkClaim(Application app, Long adminId) {
+        if (app.getClaimedByAdminId() != null && !app.getClaimedByAdminId().equals(adminId)
+                && app.getClaimExpiresAt() != null && app.getClaimExpiresAt().isAfter(OffsetDateTime.now())) {
+            throw new ConflictException("Application is claimed by another reviewer until " + app.getClaimExpiresAt());
+        }
+    }
+
+    // Compare-and-set: the client states the status it acted on. The version
+    // check at flush then catches anyone who changed the row after this read.
+    private static void expectStatus(Application app, String expectedStatus) {
+        if (expectedStatus != null && !expectedStatus.equals(app.getStatus())) {
+            throw new ConflictException("Application status is " + app.getStatus() + ", expected " + expectedStatus);
+        }
+    }
+
+    private static void clearClaim(Application app) {
+        app.setClaimedByAdminId(null);
+        app.setClaimExpiresAt(null);
+    }
+
     @Transactional(readOnly = true)
     public ApplicationDto getById(Long id) {
         Application app = applicationRepository.findById(id)
@@ -240,18 +312,28 @@ public class ApplicationService {
     }
 
     @Transactional(readOnly = true)
-    public Page<ApplicationDto> getByStatus(String status, Pageable pageable) {
-        return applicationRepository.findByStatus(status, pageable).map(this::toDto);
+    public Page<ApplicationSummaryDto> getByStatus(String status, Pageable pageable) {
+        return applicationRepository.findSummariesByStatus(status, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ApplicationSummaryDto> getByFacility(Long facilityId, Pageable pageable) {
+        return applicationRepository.findSummariesByFacilityId(facilityId, pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<ApplicationDto> getByFacility(Long facilityId, Pageable pageable) {
-        return applicationRepository.findByFacilityId(facilityId, pageable).map(this::toDto);
+    public Page<ApplicationSummaryDto> getAll(Pageable pageable) {
+        return applicationRepository.findAllSummaries(pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<ApplicationDto> getAll(Pageable pageable) {
-        return applicationRepository.findAll(pageable).map(this::toDto);
+    public CursorPage<ApplicationSummaryDto> getAllByCursor(String after, Integer size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = KeysetCursor.clampSize(size);
+        List<ApplicationSummaryDto> rows = applicationRepository.findSummariesBefore(
+                cursor.getTimestamp(), cursor.getId(), KeysetCursor.probe(limit));
+        return KeysetCursor.toPage(rows, limit, ApplicationSummaryDto::getCreatedAt, ApplicationSummaryDto::getId,
+                dto -> dto);
     }
 
     @Transactional(readOnly = true)
@@ -278,6 +360,24 @@ public class ApplicationService {
         return violationRepository.findAll(pageable).map(this::toViolationDto);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<LicenseDto> getLicensesByCursor(String after, Integer size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = KeysetCursor.clampSize(size);
+        List<License> rows = licenseRepository.findPageBefore(
+                cursor.getTimestamp(), cursor.getId(), KeysetCursor.probe(limit));
+        return KeysetCursor.toPage(rows, limit, License::getCreatedAt, License::getId, this::toLicenseDto);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ViolationDto> getViolationsByCursor(String after, Integer size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = KeysetCursor.clampSize(size);
+        List<Violation> rows = violationRepository.findPageBefore(
+                cursor.getTimestamp(), cursor.getId(), KeysetCursor.probe(limit));
+        return KeysetCursor.toPage(rows, limit, Violation::getCreatedAt, Violation::getId, this::toViolationDto);
+    }
+
     @Transactional
     public ApplicationDocumentDto addDocument(Long applicationId, Long userId, ApplicationDocumentDto dto) {
         Application app = applicationRepository.findById(applicationId)
@@ -298,46 +398,7 @@ public class ApplicationService {
         return toDocDto(doc);
     }
 
-    private int getStatusIndex(String status) {
-        String step = mapStatusToStep(status);
-        return WORKFLOW_STEPS.indexOf(step);
-    }
-
-    private String mapStepToStatus(String step) {
-        return switch (step) {
-            case "DRAFT" -> "DRAFT";
-            case "SUBMIT" -> "SUBMITTED";
-            case "LICENSING_REVIEW" -> "UNDER_REVIEW";
-            case "BLUEPRINT_REVIEW" -> "BLUEPRINT_REVIEW";
-            case "INSPECTION_SCHEDULING" -> "INSPECTION_SCHEDULED";
-            case "INSPECTION_REPORT" -> "INSPECTION_COMPLETED";
-            case "COMMITTEE_APPROVAL" -> "COMMITTEE_APPROVED";
-            case "PAYMENT_ORDER" -> "PAYMENT_PENDING";
-            case "ELECTRONIC_PAYMENT" -> "PAYMENT_COMPLETED";
-            case "LICENSE_ISSUANCE" -> "LICENSE_ISSUED";
-            case "ARCHIVE" -> "ARCHIVED";
-            default -> step;
-        };
-    }
-
-    private String mapStatusToStep(String status) {
-        return switch (status) {
-            case "DRAFT" -> "DRAFT";
-            case "SUBMITTED" -> "SUBMIT";
-            case "UNDER_REVIEW" -> "LICENSING_REVIEW";
-            case "BLUEPRINT_REVIEW" -> "BLUEPRINT_REVIEW";
-            case "INSPECTION_SCHEDULED" -> "INSPECTION_SCHEDULING";
-            case "INSPECTION_COMPLETED" -> "INSPECTION_REPORT";
-            case "COMMITTEE_APPROVED" -> "COMMITTEE_APPROVAL";
-            case "PAYMENT_PENDING" -> "PAYMENT_ORDER";
-            case "PAYMENT_COMPLETED" -> "ELECTRONIC_PAYMENT";
-            case "LICENSE_ISSUED" -> "LICENSE_ISSUANCE";
-            case "ARCHIVED" -> "ARCHIVE";
-            default -> status;
-        };
-    }
-
-    private ApplicationDto toDto(Application app) {
+    ApplicationDto toDto(Application app) {
         return ApplicationDto.builder()
                 .id(app.getId())
                 .applicationNumber(app.getApplicationNumber())
@@ -371,13 +432,9 @@ public class ApplicationService {
                 .submittedAt(app.getSubmittedAt())
                 .approvedAt(app.getApprovedAt())
                 .rejectionReason(app.getRejectionReason())
-                // Relations
-                .steps(applicationStepRepository.findByApplicationIdOrderByStepOrderAsc(app.getId()).stream()
-                        .map(this::toStepDto).collect(Collectors.toList()))
-                .documents(applicationDocumentRepository.findByApplicationId(app.getId()).stream()
-                        .map(this::toDocDto).collect(Collectors.toList()))
-                .license(licenseRepository.findByApplicationId(app.getId()).stream()
-                        .findFirst().map(this::toLicenseDto).orElse(null))
+                .claimedByAdminId(app.getClaimedByAdminId())
+                .claimExpiresAt(app.getClaimExpiresAt())
+                // Relations (steps, documents, license) are only loaded by getById
                 .build();
     }
 
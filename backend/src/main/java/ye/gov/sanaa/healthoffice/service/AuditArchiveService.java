@@ -0,0 +1,281 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ye.gov.sanaa.healthoffice.dto.AuditLogDto;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly partitions of audit_logs and archives old ones.
+ *
+ * Partitions for the coming months are created ahead of time so inserts
+ * never land in the default partition. Partitions that end before the
+ * retention window are exported to gzip-compressed newline-delimited JSON
+ * under audit.archive.dir (one AuditLogDto per line) and then detached.
+ * Archived months can be read back with {@link #streamMonth}.
+ *
+ * Partitioning is PostgreSQL-only (V2__locking_outbox_and_audit_partitions.sql);
+ * against any other database, or an audit_logs table that is not
+ * partitioned, maintenance is skipped and only the archive reader is
+ * available.
+ */
+@Service
+public class AuditArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditArchiveService.class);
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_logs_y(\\d{4})m(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path archiveDir;
+    private final int retentionMonths;
+    private final int monthsAhead;
+
+    public AuditArchiveService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${audit.archive.dir:./audit-archive}") String archiveDir,
+            @Value("${audit.archive.retention-months:12}") int retentionMonths,
+            @Value("${audit.archive.months-ahead:2}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.archiveDir = Paths.get(archiveDir);
+        this.retentionMonths = retentionMonths;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${audit.archive.cron:0 30 2 * * *}")
+    public void maintain() {
+        if (!isPartitioned()) {
+            log.info("audit_logs is not a partitioned PostgreSQL table; skipping partition maintenance");
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                createPartition(month);
+            } catch (RuntimeException e) {
+                // Runs on startup too: a failed month must not stop the application
+                log.error("Creating the audit_logs partition for {} failed; its rows stay in the default partition",
+                        month, e);
+            }
+        }
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        List<String> partitions;
+        try {
+            partitions = attachedPartitions();
+        } catch (RuntimeException e) {
+            log.error("Listing audit_logs partitions failed, skipping archiving", e);
+            return;
+        }
+        for (String partition : partitions) {
+            Matcher m = PARTITION_NAME.matcher(partition);
+            if (!m.matches())
+                continue;
+            YearMonth month = YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+            if (month.isBefore(oldestKept)) {
+                try {
+                    archive(partition, month);
+                } catch (IOException | RuntimeException e) {
+                    log.error("Archiving {} failed, partition left attached", partition, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the monthly partitions from..to (inclusive) if missing, for
+     * bulk loads of past events that would otherwise fill the default
+     * partition. No-op when audit_logs is not partitioned.
+     */
+    public void ensurePartitions(YearMonth from, YearMonth to) {
+        if (!isPartitioned())
+            return;
+        for (YearMonth m = from; !m.isAfter(to); m = m.plusMonths(1)) {
+            createPartition(m);
+        }
+    }
+
+    /** Months that have an archive file, oldest first. */
+    public List<String> listArchivedMonths() {
+        if (!Files.isDirectory(archiveDir))
+            return List.of();
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith("audit_logs_") && n.endsWith(".ndjson.gz"))
+                    .map(n -> n.substring("audit_logs_".length(), n.length() - ".ndjson.gz".length()))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to list audit archive: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copies an archived month to {@code out} as uncompressed NDJSON, keeping
+     * only lines for the given entity when entityType is set. The file is read
+     * line by line, so memory use does not depend on the size of the month.
+     */
+    public void streamMonth(String month, String entityType, Long entityId, OutputStream out) throws IOException {
+        Path file = requireArchive(month);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file), 64 * 1024), StandardCharsets.UTF_8));
+                Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (entityType != null) {
+                    AuditLogDto row = objectMapper.readValue(line, AuditLogDto.class);
+                    if (!entityType.equals(row.getEntityType())
+                            || (entityId != null && !entityId.equals(row.getEntityId())))
+                        continue;
+                }
+                w.write(line);
+                w.write('\n');
+            }
+        }
+    }
+
+    /** Validates the month and checks its archive exists, before a response is committed. */
+    public Path requireArchive(String month) {
+        YearMonth parsed;
+        try {
+            parsed = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid archive month, expected yyyy-MM: " + month);
+        }
+        Path file = archiveFile(parsed);
+        if (!Files.exists(file))
+            throw new RuntimeException("No audit archive for month: " + month);
+        return file;
+    }
+
+    private boolean isPartitioned() {
+        try {
+            Integer n = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid"
+                            + " WHERE c.relname = 'audit_logs'",
+                    Integer.class);
+            return n != null && n > 0;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private List<String> attachedPartitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i"
+                + " JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent"
+                + " WHERE p.relname = 'audit_logs' ORDER BY c.relname", String.class);
+    }
+
+    /**
+     * PostgreSQL refuses to create a partition while the default partition
+     * holds rows in its range (after an outage longer than months-ahead, or
+     * events written before the first run). Those rows are moved over in one
+     * transaction: detach the default, create the partition, copy and delete
+     * the rows, reattach the default. Audit inserts wait for the move.
+     */
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        String from = "'" + month.atDay(1) + " 00:00:00+00'";
+        String to = "'" + month.plusMonths(1).atDay(1) + " 00:00:00+00'";
+        String range = " WHERE event_time >= " + from + " AND event_time < " + to;
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition))
+            return;
+        String create = "CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF audit_logs FOR VALUES FROM ("
+                + from + ") TO (" + to + ")";
+        if (!jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM audit_logs_default" + range + ")",
+                Boolean.class)) {
+            jdbcTemplate.execute(create);
+            return;
+        }
+        int moved = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("ALTER TABLE audit_logs DETACH PARTITION audit_logs_default");
+            jdbcTemplate.execute(create);
+            int rows = jdbcTemplate.update("INSERT INTO " + partition + " SELECT * FROM audit_logs_default" + range);
+            jdbcTemplate.update("DELETE FROM audit_logs_default" + range);
+            jdbcTemplate.execute("ALTER TABLE audit_logs ATTACH PARTITION audit_logs_default DEFAULT");
+            return rows;
+        });
+        log.warn("Created {} and moved {} rows into it from audit_logs_default", partition, moved);
+    }
+
+    private void archive(String partition, YearMonth month) throws IOException {
+        Files.createDirectories(archiveDir);
+        Path target = archiveFile(month);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        long rows;
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024), StandardCharsets.UTF_8))) {
+            rows = export(partition, w);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        jdbcTemplate.execute("ALTER TABLE audit_logs DETACH PARTITION " + partition);
+        log.info("Archived {} ({} rows) to {} and detached it", partition, rows, target);
+    }
+
+    // Runs in a transaction so the PostgreSQL driver honours the fetch size
+    // and streams the partition through a cursor instead of buffering it.
+    private long export(String partition, Writer w) {
+        long[] rows = { 0 };
+        transactionTemplate.executeWithoutResult(status -> {
+            JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+            streaming.setFetchSize(1000);
+            streaming.query("SELECT id, event_time, actor_admin_id, actor_user_id, actor_ip, action,"
+                    + " entity_type, entity_id, details FROM " + partition + " ORDER BY event_time, id", rs -> {
+                        AuditLogDto row = AuditLogDto.builder()
+                                .id(rs.getLong("id"))
+                                .eventTime(rs.getObject("event_time", OffsetDateTime.class))
+                                .actorAdminId(rs.getObject("actor_admin_id", Long.class))
+                                .actorUserId(rs.getObject("actor_user_id", Long.class))
+                                .actorIp(rs.getString("actor_ip"))
+                                .action(rs.getString("action"))
+                                .entityType(rs.getString("entity_type"))
+                                .entityId(rs.getObject("entity_id", Long.class))
+                                .details(rs.getString("details"))
+                                .build();
+                        try {
+                            w.write(objectMapper.writeValueAsString(row));
+                            w.write('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        rows[0]++;
+                    });
+        });
+        return rows[0];
+    }
+
+    private Path archiveFile(YearMonth month) {
+        return archiveDir.resolve("audit_logs_" + month + ".ndjson.gz");
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("audit_logs_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
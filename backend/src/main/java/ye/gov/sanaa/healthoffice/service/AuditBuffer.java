@@ -0,0 +1,137 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ye.gov.sanaa.healthoffice.dto.OutboxMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-memory ring for audit events raised outside a transaction
+ * (logins, mostly), written by a single background thread in multi-row
+ * batches once audit.buffer.batch-size events are waiting or
+ * audit.buffer.flush-interval-ms has passed since the first one arrived.
+ *
+ * When the ring is full, callers wait up to audit.buffer.offer-timeout-ms
+ * and then write their event themselves, so a slow database pushes back on
+ * request threads instead of dropping entries. A batch that fails to write
+ * is parked in the outbox for OutboxDispatcher to retry. On shutdown the
+ * flusher is stopped and whatever is left in the ring is written.
+ */
+@Component
+public class AuditBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditBuffer.class);
+
+    private final AuditLogWriter auditLogWriter;
+    private final OutboxService outboxService;
+    private final BlockingQueue<OutboxMessage> ring;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+
+    private final Counter flushed;
+    private final Counter callerWrites;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public AuditBuffer(AuditLogWriter auditLogWriter, OutboxService outboxService, MeterRegistry meterRegistry,
+            @Value("${audit.buffer.capacity:10000}") int capacity,
+            @Value("${audit.buffer.batch-size:500}") int batchSize,
+            @Value("${audit.buffer.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${audit.buffer.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.auditLogWriter = auditLogWriter;
+        this.outboxService = outboxService;
+        this.ring = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+
+        this.flushed = meterRegistry.counter("audit.buffer.flushed");
+        this.callerWrites = meterRegistry.counter("audit.buffer.caller_writes");
+        Gauge.builder("audit.buffer.size", ring, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        flusher = new Thread(this::run, "audit-buffer-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public void submit(OutboxMessage message) {
+        try {
+            if (ring.offer(message, offerTimeoutMs, TimeUnit.MILLISECONDS))
+                return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        callerWrites.increment();
+        flush(List.of(message));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.join(flushIntervalMs * 10);
+        List<OutboxMessage> rest = new ArrayList<>();
+        ring.drainTo(rest);
+        for (int i = 0; i < rest.size(); i += batchSize) {
+            flush(rest.subList(i, Math.min(rest.size(), i + batchSize)));
+        }
+    }
+
+    private void run() {
+        List<OutboxMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                OutboxMessage first = ring.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    ring.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0)
+                        break;
+                    OutboxMessage next = ring.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<OutboxMessage> batch) {
+        if (batch.isEmpty())
+            return;
+        try {
+            auditLogWriter.write(batch);
+            flushed.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Audit batch of {} failed, parking it in the outbox: {}", batch.size(), e.getMessage());
+            outboxService.persist(new ArrayList<>(batch));
+        }
+    }
+}
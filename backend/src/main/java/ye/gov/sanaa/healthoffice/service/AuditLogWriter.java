@@ -0,0 +1,112 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import ye.gov.sanaa.healthoffice.dto.OutboxMessage;
+
+import java.util.*;
+
+/**
+ * Multi-row writer for audit_logs and notifications rows, shared by
+ * OutboxDispatcher and AuditBuffer.
+ *
+ * Actor and recipient foreign keys are written as plain ids, like a
+ * getReferenceById proxy, so no entity is loaded per event. One IN query
+ * per table checks that the referenced rows still exist; ids that don't
+ * are written as NULL, as the old findById(..).orElse(null) lookups did.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final String INSERT_AUDIT = "INSERT INTO audit_logs"
+            + " (id, event_time, actor_admin_id, actor_user_id, action, entity_type, entity_id, details)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_NOTIFICATION = "INSERT INTO notifications"
+            + " (id, recipient_admin_id, recipient_user_id, title_ar, title_en, body_ar, body_en, type, read, created_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, false, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /** Inserts AUDIT, NOTIFY_USER and NOTIFY_ADMIN messages with one batch per table. */
+    public void write(List<OutboxMessage> messages) {
+        if (messages.isEmpty())
+            return;
+        Set<Long> adminIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (OutboxMessage m : messages) {
+            switch (m.getKind()) {
+                case "AUDIT" -> {
+                    addIfPresent(adminIds, m.getActorAdminId());
+                    addIfPresent(userIds, m.getActorUserId());
+                }
+                case "NOTIFY_ADMIN" -> addIfPresent(adminIds, m.getRecipientId());
+                case "NOTIFY_USER" -> addIfPresent(userIds, m.getRecipientId());
+                default -> throw new RuntimeException("Unknown outbox message kind: " + m.getKind());
+            }
+        }
+        Set<Long> admins = existing("admins", adminIds);
+        Set<Long> users = existing("facility_users", userIds);
+
+        long auditCount = messages.stream().filter(m -> "AUDIT".equals(m.getKind())).count();
+        Iterator<Long> auditIds = allocate("audit_logs_seq", (int) auditCount).iterator();
+        Iterator<Long> notificationIds = allocate("notifications_seq", messages.size() - (int) auditCount).iterator();
+
+        List<Object[]> audits = new ArrayList<>();
+        List<Object[]> notifications = new ArrayList<>();
+        for (OutboxMessage m : messages) {
+            if ("AUDIT".equals(m.getKind())) {
+                audits.add(new Object[] { auditIds.next(), m.getOccurredAt(), keep(admins, m.getActorAdminId()),
+                        keep(users, m.getActorUserId()), m.getAction(), m.getEntityType(), m.getEntityId(),
+                        m.getDetails() });
+            } else {
+                boolean toAdmin = "NOTIFY_ADMIN".equals(m.getKind());
+                notifications.add(new Object[] { notificationIds.next(),
+                        toAdmin ? keep(admins, m.getRecipientId()) : null,
+                        toAdmin ? null : keep(users, m.getRecipientId()),
+                        m.getTitleAr(), m.getTitleEn(), m.getBodyAr(), m.getBodyEn(), m.getType(),
+                        m.getOccurredAt() });
+            }
+        }
+        if (!audits.isEmpty())
+            jdbcTemplate.batchUpdate(INSERT_AUDIT, audits);
+        if (!notifications.isEmpty())
+            jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, notifications);
+    }
+
+    // Pooled blocks (SequenceBlocks): a batch of up to 50 rows costs one sequence call
+    private List<Long> allocate(String sequence, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            long[] block = SequenceBlocks.next(
+                    () -> jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class));
+            for (long id = block[0]; id <= block[1] && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private Set<Long> existing(String table, Set<Long> ids) {
+        if (ids.isEmpty())
+            return Set.of();
+        return new HashSet<>(namedJdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids), Long.class));
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null)
+            ids.add(id);
+    }
+
+    private static Long keep(Set<Long> existing, Long id) {
+        return id != null && existing.contains(id) ? id : null;
+    }
+}
@@ -2,32 +2,53 @@ package ye.gov.sanaa.healthoffice.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ye.gov.sanaa.healthoffice.dto.AuditLogDto;
+import ye.gov.sanaa.healthoffice.dto.CursorPage;
 import ye.gov.sanaa.healthoffice.entity.AuditLog;
 import ye.gov.sanaa.healthoffice.repository.AuditLogRepository;
-import ye.gov.sanaa.healthoffice.repository.AdminRepository;
-import ye.gov.sanaa.healthoffice.repository.FacilityUserRepository;
+
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class AuditService {
 
     private final AuditLogRepository auditLogRepository;
-    private final AdminRepository adminRepository;
-    private final FacilityUserRepository facilityUserRepository;
+    private final OutboxService outboxService;
+    private final AuditBuffer auditBuffer;
 
+    // Inside a transaction the entry goes through the outbox and commits with
+    // the caller; outside one (logins) it is handed to the async AuditBuffer.
     public void log(Long adminId, Long userId, String action, String entityType, Long entityId, String details) {
-        AuditLog log = AuditLog.builder()
-                .action(action)
-                .entityType(entityType)
-                .entityId(entityId)
-                .details(details)
-                .build();
-        if (adminId != null) {
-            log.setActorAdmin(adminRepository.findById(adminId).orElse(null));
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            outboxService.audit(adminId, userId, action, entityType, entityId, details);
+        } else {
+            auditBuffer.submit(OutboxService.auditMessage(adminId, userId, action, entityType, entityId, details));
         }
-        if (userId != null) {
-            log.setActorUser(facilityUserRepository.findById(userId).orElse(null));
-        }
-        auditLogRepository.save(log);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLogDto> getAllByCursor(String after, Integer size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        int limit = KeysetCursor.clampSize(size);
+        List<AuditLog> rows = auditLogRepository.findPageBefore(
+                cursor.getTimestamp(), cursor.getId(), KeysetCursor.probe(limit));
+        return KeysetCursor.toPage(rows, limit, AuditLog::getEventTime, AuditLog::getId, this::toDto);
+    }
+
+    private AuditLogDto toDto(AuditLog log) {
+        return AuditLogDto.builder()
+                .id(log.getId())
+                .eventTime(log.getEventTime())
+                .actorAdminId(log.getActorAdmin() != null ? log.getActorAdmin().getId() : null)
+                .actorUserId(log.getActorUser() != null ? log.getActorUser().getId() : null)
+                .actorIp(log.getActorIp())
+                .action(log.getAction())
+                .entityType(log.getEntityType())
+                .entityId(log.getEntityId())
+                .details(log.getDetails())
+                .build();
     }
 }
@@ -105,10 +105,9 @@ public class AuthService {
     }
 
     public AuthResponse refreshToken(String refreshToken) {
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
-            throw new RuntimeException("Invalid refresh token");
-        }
-        String subject = jwtTokenProvider.getSubject(refreshToken);
+        String subject = jwtTokenProvider.parse(refreshToken)
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"))
+                .getSubject();
 
         // Try admin first
         var adminOpt = adminRepository.findByUsername(subject);
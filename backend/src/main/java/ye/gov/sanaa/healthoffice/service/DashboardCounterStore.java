@@ -0,0 +1,67 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory application-status counters behind the admin dashboard.
+ *
+ * Workflow services report each status change here; the change is applied
+ * only after the surrounding transaction commits, so rolled-back transitions
+ * never show up. DashboardService periodically replaces the whole map with a
+ * fresh GROUP BY from the database to correct any drift (restarts, direct SQL
+ * edits, transitions racing a reconcile).
+ */
+@Component
+public class DashboardCounterStore {
+
+    private final Map<String, AtomicLong> byStatus = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void recordCreated(String status) {
+        AfterCommit.run(() -> counter(status).incrementAndGet());
+    }
+
+    public void recordTransition(String fromStatus, String toStatus) {
+        if (fromStatus != null && fromStatus.equals(toStatus))
+            return;
+        AfterCommit.run(() -> {
+            if (fromStatus != null)
+                counter(fromStatus).decrementAndGet();
+            counter(toStatus).incrementAndGet();
+        });
+    }
+
+    public long get(String status) {
+        AtomicLong c = byStatus.get(status);
+        return c != null ? Math.max(c.get(), 0) : 0;
+    }
+
+    public long total() {
+        return byStatus.values().stream().mapToLong(c -> Math.max(c.get(), 0)).sum();
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> copy = new HashMap<>();
+        byStatus.forEach((k, v) -> copy.put(k, Math.max(v.get(), 0)));
+        return copy;
+    }
+
+    void reset(Map<String, Long> counts) {
+        byStatus.keySet().retainAll(counts.keySet());
+        counts.forEach((status, count) -> counter(status).set(count));
+        loaded = true;
+    }
+
+    private AtomicLong counter(String status) {
+        return byStatus.computeIfAbsent(status, s -> new AtomicLong());
+    }
+}
@@ -1,43 +1,95 @@
 package ye.gov.sanaa.healthoffice.service;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ye.gov.sanaa.healthoffice.dto.DashboardStatsDto;
 import ye.gov.sanaa.healthoffice.repository.*;
+import ye.gov.sanaa.healthoffice.workflow.ApplicationStatus;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Service
-@RequiredArgsConstructor
 public class DashboardService {
 
     private final ApplicationRepository applicationRepository;
     private final FacilityRepository facilityRepository;
     private final LicenseRepository licenseRepository;
     private final ViolationRepository violationRepository;
+    private final DashboardCounterStore counterStore;
+    // getStats calls reconcile on this, past the @Transactional proxy
+    private final TransactionTemplate reconcileTransaction;
 
+    // Scalar totals that no workflow transition touches; refreshed on reconcile
+    private volatile DashboardStatsDto totals = new DashboardStatsDto();
+
+    public DashboardService(ApplicationRepository applicationRepository, FacilityRepository facilityRepository,
+            LicenseRepository licenseRepository, ViolationRepository violationRepository,
+            DashboardCounterStore counterStore, PlatformTransactionManager transactionManager) {
+        this.applicationRepository = applicationRepository;
+        this.facilityRepository = facilityRepository;
+        this.licenseRepository = licenseRepository;
+        this.violationRepository = violationRepository;
+        this.counterStore = counterStore;
+        this.reconcileTransaction = new TransactionTemplate(transactionManager);
+        this.reconcileTransaction.setReadOnly(true);
+        this.reconcileTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Served entirely from memory. Application counts are kept current by the
+     * workflow services; the remaining totals are as of the last reconcile.
+     */
     public DashboardStatsDto getStats() {
-        Map<String, Long> statusCounts = new HashMap<>();
-        List<String> statuses = List.of(
-                "DRAFT", "SUBMITTED", "UNDER_REVIEW", "INSPECTION_SCHEDULED",
-                "INSPECTION_COMPLETED", "COMMITTEE_APPROVED", "PAYMENT_PENDING",
-                "PAYMENT_COMPLETED", "LICENSE_ISSUED", "REJECTED", "ARCHIVED");
-        for (String s : statuses) {
-            statusCounts.put(s, applicationRepository.countByStatus(s));
+        if (!counterStore.isLoaded()) {
+            reconcileTransaction.executeWithoutResult(status -> reconcile());
         }
 
+        Map<String, Long> statusCounts = counterStore.snapshot();
+        for (ApplicationStatus s : ApplicationStatus.values()) {
+            statusCounts.putIfAbsent(s.name(), 0L);
+        }
+
+        DashboardStatsDto t = totals;
         return DashboardStatsDto.builder()
-                .totalApplications(applicationRepository.count())
-                .pendingReview(applicationRepository.countByStatus("SUBMITTED") +
-                        applicationRepository.countByStatus("UNDER_REVIEW"))
-                .inspectionsScheduled(applicationRepository.countByStatus("INSPECTION_SCHEDULED"))
+                .totalApplications(counterStore.total())
+                .pendingReview(statusCounts.get("SUBMITTED") + statusCounts.get("UNDER_REVIEW"))
+                .inspectionsScheduled(statusCounts.get("INSPECTION_SCHEDULED"))
+                .activeLicenses(t.getActiveLicenses())
+                .expiringLicenses(t.getExpiringLicenses())
+                .totalFacilities(t.getTotalFacilities())
+                .activeViolations(t.getActiveViolations())
+                .applicationsByStatus(statusCounts)
+                .build();
+    }
+
+    /**
+     * Rebuilds all counters from the database: one GROUP BY over applications
+     * plus four scalar counts, all read from one repeatable-read snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dashboard.reconcile-interval-ms:300000}",
+            initialDelayString = "${dashboard.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public synchronized void reconcile() {
+        Map<String, Long> statusCounts = new HashMap<>();
+        for (Object[] row : applicationRepository.countGroupByStatus()) {
+            statusCounts.put((String) row[0], (Long) row[1]);
+        }
+
+        totals = DashboardStatsDto.builder()
                 .activeLicenses(licenseRepository.count())
                 .expiringLicenses(licenseRepository.countByExpiryDateBefore(java.time.LocalDate.now().plusDays(30)))
                 .totalFacilities(facilityRepository.count())
-                .activeViolations(violationRepository.findByIsActiveTrue().size())
-                .applicationsByStatus(statusCounts)
+                .activeViolations(violationRepository.countByIsActiveTrue())
                 .build();
+        counterStore.reset(statusCounts);
     }
 }
@@ -0,0 +1,253 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ye.gov.sanaa.healthoffice.dto.MapClusterDto;
+import ye.gov.sanaa.healthoffice.dto.MapTileDto;
+import ye.gov.sanaa.healthoffice.repository.FacilityRepository;
+import ye.gov.sanaa.healthoffice.repository.LicenseRepository;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Precomputed cluster pyramid over active, located facilities for the map
+ * endpoints.
+ *
+ * For every web-mercator zoom level 0..map.clusters.max-zoom, each tile is
+ * split into 2^cells-per-tile-log2 cells per side and every cell keeps a
+ * count and coordinate sum per (facility type, license status). Serving a
+ * tile is then a fixed number of map lookups regardless of how many
+ * facilities it covers.
+ *
+ * Rebuilt at startup and nightly (licenses expire without an update);
+ * single facilities are re-placed after commits that move them or change
+ * their license.
+ */
+@Component
+public class FacilityClusterIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FacilityClusterIndex.class);
+
+    private static final double MAX_MERCATOR_LAT = 85.05112878;
+    private static final List<String> STATUS_RANK = List.of("LICENSED", "SUSPENDED", "EXPIRED", "REVOKED");
+
+    private final FacilityRepository facilityRepository;
+    private final LicenseRepository licenseRepository;
+    private final int maxZoom;
+    private final int cellShift;
+    private final int maxTiles;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Pyramid pyramid;
+
+    private record Placed(String facilityType, String licenseStatus, double lat, double lon) {
+    }
+
+    private static final class Agg {
+        long count;
+        double sumLat;
+        double sumLon;
+    }
+
+    public FacilityClusterIndex(FacilityRepository facilityRepository, LicenseRepository licenseRepository,
+            @Value("${map.clusters.max-zoom:17}") int maxZoom,
+            @Value("${map.clusters.cells-per-tile-log2:3}") int cellShift,
+            @Value("${map.clusters.max-tiles:64}") int maxTiles) {
+        this.facilityRepository = facilityRepository;
+        this.licenseRepository = licenseRepository;
+        this.maxZoom = maxZoom;
+        this.cellShift = cellShift;
+        this.maxTiles = maxTiles;
+        this.pyramid = new Pyramid();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${map.clusters.rebuild-cron:0 20 0 * * *}")
+    public void rebuild() {
+        Map<Long, String> statuses = licenseStatuses(licenseRepository.findFacilityLicenseStates());
+        Pyramid fresh = new Pyramid();
+        List<Object[]> rows = facilityRepository.findActiveLocations();
+        for (Object[] r : rows) {
+            fresh.add((Long) r[0], toPlaced(r, statuses));
+        }
+        lock.writeLock().lock();
+        try {
+            pyramid = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Facility cluster pyramid built: {} facilities, zoom 0-{}", rows.size(), maxZoom);
+    }
+
+    /** Re-places one facility after the current transaction commits. */
+    public void refresh(Long facilityId) {
+        if (facilityId == null)
+            return;
+        AfterCommit.run(() -> reload(facilityId));
+    }
+
+    public MapTileDto tile(int z, int x, int y, String facilityType) {
+        if (z < 0 || z > maxZoom)
+            throw new RuntimeException("Zoom must be between 0 and " + maxZoom);
+        int n = 1 << z;
+        if (x < 0 || x >= n || y < 0 || y >= n)
+            throw new RuntimeException("Tile " + z + "/" + x + "/" + y + " is out of range");
+        lock.readLock().lock();
+        try {
+            return MapTileDto.builder().z(z).x(x).y(y).clusters(clusters(z, x, y, facilityType)).build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Non-empty tiles at zoom z covering the bounding box. */
+    public List<MapTileDto> tiles(int z, double minLat, double minLon, double maxLat, double maxLon,
+            String facilityType) {
+        if (z < 0 || z > maxZoom)
+            throw new RuntimeException("Zoom must be between 0 and " + maxZoom);
+        int x0 = tileX(minLon, z), x1 = tileX(maxLon, z);
+        int y0 = tileY(maxLat, z), y1 = tileY(minLat, z);
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > maxTiles)
+            throw new RuntimeException("Bounding box spans too many tiles at zoom " + z + "; zoom out");
+        List<MapTileDto> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int x = x0; x <= x1; x++) {
+                for (int y = y0; y <= y1; y++) {
+                    List<MapClusterDto> clusters = clusters(z, x, y, facilityType);
+                    if (!clusters.isEmpty())
+                        result.add(MapTileDto.builder().z(z).x(x).y(y).clusters(clusters).build());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private List<MapClusterDto> clusters(int z, int x, int y, String facilityType) {
+        Map<Long, Map<String, Agg>> level = pyramid.levels.get(z);
+        int side = 1 << cellShift;
+        List<MapClusterDto> out = new ArrayList<>();
+        for (int cx = x << cellShift; cx < (x << cellShift) + side; cx++) {
+            for (int cy = y << cellShift; cy < (y << cellShift) + side; cy++) {
+                Map<String, Agg> groups = level.get(key(cx, cy));
+                if (groups == null)
+                    continue;
+                for (Map.Entry<String, Agg> g : groups.entrySet()) {
+                    String[] parts = g.getKey().split("\\|", 2);
+                    if (facilityType != null && !facilityType.equals(parts[0]))
+                        continue;
+                    Agg a = g.getValue();
+                    out.add(MapClusterDto.builder()
+                            .latitude(a.sumLat / a.count)
+                            .longitude(a.sumLon / a.count)
+                            .count(a.count)
+                            .facilityType(parts[0])
+                            .licenseStatus(parts[1])
+                            .build());
+                }
+            }
+        }
+        return out;
+    }
+
+    private void reload(Long facilityId) {
+        Map<Long, String> statuses = licenseStatuses(licenseRepository.findFacilityLicenseStates(facilityId));
+        List<Object[]> rows = facilityRepository.findActiveLocation(facilityId);
+        lock.writeLock().lock();
+        try {
+            pyramid.remove(facilityId);
+            for (Object[] r : rows) {
+                pyramid.add(facilityId, toPlaced(r, statuses));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Placed toPlaced(Object[] r, Map<Long, String> statuses) {
+        return new Placed((String) r[1], statuses.getOrDefault((Long) r[0], "UNLICENSED"),
+                (Double) r[2], (Double) r[3]);
+    }
+
+    // A facility with several licenses shows its best one: a current license
+    // wins over suspended, expired and revoked ones, in that order.
+    private static Map<Long, String> licenseStatuses(List<Object[]> rows) {
+        LocalDate today = LocalDate.now();
+        Map<Long, String> best = new HashMap<>();
+        for (Object[] r : rows) {
+            String status = (String) r[1];
+            LocalDate expiry = (LocalDate) r[2];
+            String mapped = "ACTIVE".equals(status)
+                    ? (expiry != null && !expiry.isBefore(today) ? "LICENSED" : "EXPIRED")
+                    : STATUS_RANK.contains(status) ? status : "REVOKED";
+            best.merge((Long) r[0], mapped,
+                    (a, b) -> STATUS_RANK.indexOf(a) <= STATUS_RANK.indexOf(b) ? a : b);
+        }
+        return best;
+    }
+
+    private static int tileX(double lon, int zoom) {
+        int n = 1 << zoom;
+        return Math.max(0, Math.min(n - 1, (int) Math.floor((lon + 180.0) / 360.0 * n)));
+    }
+
+    private static int tileY(double lat, int zoom) {
+        int n = 1 << zoom;
+        double rad = Math.toRadians(Math.max(-MAX_MERCATOR_LAT, Math.min(MAX_MERCATOR_LAT, lat)));
+        double y = (1.0 - Math.log(Math.tan(rad) + 1.0 / Math.cos(rad)) / Math.PI) / 2.0 * n;
+        return Math.max(0, Math.min(n - 1, (int) Math.floor(y)));
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+
+    private final class Pyramid {
+        // levels.get(z): cell key at zoom z + cellShift -> "type|status" -> aggregate
+        final List<Map<Long, Map<String, Agg>>> levels = new ArrayList<>();
+        final Map<Long, Placed> placed = new HashMap<>();
+
+        Pyramid() {
+            for (int z = 0; z <= maxZoom; z++) {
+                levels.add(new HashMap<>());
+            }
+        }
+
+        void add(Long facilityId, Placed p) {
+            placed.put(facilityId, p);
+            apply(p, 1);
+        }
+
+        void remove(Long facilityId) {
+            Placed p = placed.remove(facilityId);
+            if (p != null)
+                apply(p, -1);
+        }
+
+        private void apply(Placed p, int sign) {
+            String group = p.facilityType() + "|" + p.licenseStatus();
+            for (int z = 0; z <= maxZoom; z++) {
+                long cell = key(tileX(p.lon(), z + cellShift), tileY(p.lat(), z + cellShift));
+                Map<String, Agg> groups = levels.get(z).computeIfAbsent(cell, c -> new HashMap<>());
+                Agg a = groups.computeIfAbsent(group, g -> new Agg());
+                a.count += sign;
+                a.sumLat += sign * p.lat();
+                a.sumLon += sign * p.lon();
+                if (a.count <= 0) {
+                    groups.remove(group);
+                    if (groups.isEmpty())
+                        levels.get(z).remove(cell);
+                }
+            }
+        }
+    }
+}
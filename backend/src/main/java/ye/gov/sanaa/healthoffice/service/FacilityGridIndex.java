@@ -0,0 +1,133 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ye.gov.sanaa.healthoffice.repository.FacilityRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uniform lat/lon grid of facility locations, one grid per facility type,
+ * used by GISService for minimum-distance checks. A radius query only visits
+ * the cells overlapping the radius' bounding box instead of every facility
+ * of the type.
+ *
+ * Loaded once the application is ready and kept in sync by FacilityService
+ * after each committed create or move. Until the first load finishes
+ * {@link #isLoaded()} is false and callers fall back to the database.
+ */
+@Component
+public class FacilityGridIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FacilityGridIndex.class);
+
+    static final double METERS_PER_DEGREE_LAT = 111_320.0;
+
+    private final FacilityRepository facilityRepository;
+    private final double cellDegrees;
+    private final int maxCellsPerQuery;
+
+    private final Map<String, Grid> grids = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    private record Point(long facilityId, double lat, double lon) {
+    }
+
+    public FacilityGridIndex(FacilityRepository facilityRepository,
+            @Value("${gis.grid.cell-degrees:0.01}") double cellDegrees,
+            @Value("${gis.grid.max-cells-per-query:400}") int maxCellsPerQuery) {
+        this.facilityRepository = facilityRepository;
+        this.cellDegrees = cellDegrees;
+        this.maxCellsPerQuery = maxCellsPerQuery;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = facilityRepository.findAllLocations();
+        grids.clear();
+        for (Object[] r : rows) {
+            place((Long) r[0], (String) r[1], (Double) r[2], (Double) r[3]);
+        }
+        loaded = true;
+        log.info("Facility grid index built: {} located facilities in {} types", rows.size(), grids.size());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Records a facility's (new) location once the current transaction commits. */
+    public void put(Long facilityId, String facilityType, Double lat, Double lon) {
+        AfterCommit.run(() -> place(facilityId, facilityType, lat, lon));
+    }
+
+    /**
+     * True if any facility of the type other than {@code excludeId} lies
+     * strictly closer than {@code radiusMeters}, or null if the radius spans
+     * more cells than gis.grid.max-cells-per-query and the caller should ask
+     * the database instead.
+     */
+    public Boolean anyWithin(String facilityType, double lat, double lon, double radiusMeters, Long excludeId) {
+        Grid grid = grids.get(facilityType);
+        if (grid == null)
+            return false;
+        double dLat = radiusMeters / METERS_PER_DEGREE_LAT;
+        double dLon = radiusMeters / (METERS_PER_DEGREE_LAT * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+        int rowMin = cell(lat - dLat), rowMax = cell(lat + dLat);
+        int colMin = cell(lon - dLon), colMax = cell(lon + dLon);
+        if ((long) (rowMax - rowMin + 1) * (colMax - colMin + 1) > maxCellsPerQuery)
+            return null;
+        for (int row = rowMin; row <= rowMax; row++) {
+            for (int col = colMin; col <= colMax; col++) {
+                Map<Long, Point> bucket = grid.cells.get(key(row, col));
+                if (bucket == null)
+                    continue;
+                for (Point p : bucket.values()) {
+                    if (excludeId != null && p.facilityId() == excludeId)
+                        continue;
+                    if (GISService.distanceMeters(lat, lon, p.lat(), p.lon()) < radiusMeters)
+                        return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void place(Long facilityId, String facilityType, Double lat, Double lon) {
+        Grid grid = grids.computeIfAbsent(facilityType, t -> new Grid());
+        synchronized (grid) {
+            Point old = grid.byId.remove(facilityId);
+            if (old != null) {
+                Map<Long, Point> bucket = grid.cells.get(key(cell(old.lat()), cell(old.lon())));
+                if (bucket != null)
+                    bucket.remove(facilityId);
+            }
+            if (lat == null || lon == null)
+                return;
+            Point p = new Point(facilityId, lat, lon);
+            grid.byId.put(facilityId, p);
+            grid.cells.computeIfAbsent(key(cell(lat), cell(lon)), k -> new ConcurrentHashMap<>()).put(facilityId, p);
+        }
+    }
+
+    private int cell(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    // Writers synchronize on the grid; readers go lock-free through the
+    // concurrent maps and may briefly miss a facility that is mid-move.
+    private static final class Grid {
+        final Map<Long, Map<Long, Point>> cells = new ConcurrentHashMap<>();
+        final Map<Long, Point> byId = new ConcurrentHashMap<>();
+    }
+}
@@ -6,9 +6,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ye.gov.sanaa.healthoffice.dto.FacilityDto;
+import ye.gov.sanaa.healthoffice.dto.MapTileDto;
 import ye.gov.sanaa.healthoffice.entity.Facility;
 import ye.gov.sanaa.healthoffice.repository.FacilityRepository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -17,16 +19,15 @@ public class FacilityService {
 
     private final FacilityRepository facilityRepository;
     private final GISService gisService;
+    private final FacilityGridIndex facilityGridIndex;
+    private final LicensedFacilityIndex licensedFacilityIndex;
+    private final FacilityClusterIndex facilityClusterIndex;
 
     @Transactional
     public FacilityDto createFacility(FacilityDto dto) {
         // GIS Validation
-        if (!gisService.isLocationValid(dto.getLatitude(), dto.getLongitude(), dto.getFacilityType(), 100.0)) { // 100
-                                                                                                                // meters
-                                                                                                                // minimum
-                                                                                                                // distance
-                                                                                                                // for
-                                                                                                                // example
+        // 100 meters minimum distance between facilities of the same type
+        if (!gisService.isLocationValid(dto.getLatitude(), dto.getLongitude(), dto.getFacilityType(), 100.0)) {
             throw new RuntimeException("Location validation failed: A similar facility is too close.");
         }
 
@@ -48,6 +49,9 @@ public class FacilityService {
                 .build();
 
         facility = facilityRepository.save(facility);
+        facilityGridIndex.put(facility.getId(), facility.getFacilityType(), facility.getLatitude(),
+                facility.getLongitude());
+        facilityClusterIndex.refresh(facility.getId());
         return mapToDto(facility);
     }
 
@@ -56,13 +60,16 @@ public class FacilityService {
         Facility facility = facilityRepository.findById(facilityId)
                 .orElseThrow(() -> new RuntimeException("Facility not found"));
 
-        if (!gisService.isLocationValid(latitude, longitude, facility.getFacilityType(), 100.0)) {
+        if (!gisService.isLocationValid(latitude, longitude, facility.getFacilityType(), 100.0, facilityId)) {
             throw new RuntimeException("Location validation failed: A similar facility is too close.");
         }
 
         facility.setLatitude(latitude);
         facility.setLongitude(longitude);
         facilityRepository.save(facility);
+        facilityGridIndex.put(facilityId, facility.getFacilityType(), latitude, longitude);
+        licensedFacilityIndex.refresh(facilityId);
+        facilityClusterIndex.refresh(facilityId);
 
         return mapToDto(facility);
     }
@@ -79,6 +86,19 @@ public class FacilityService {
         return mapToDto(f);
     }
 
+    public MapTileDto getMapTile(int z, int x, int y, String facilityType) {
+        return facilityClusterIndex.tile(z, x, y, blankToNull(facilityType));
+    }
+
+    public List<MapTileDto> getMapTiles(int z, double minLat, double minLon, double maxLat, double maxLon,
+            String facilityType) {
+        return facilityClusterIndex.tiles(z, minLat, minLon, maxLat, maxLon, blankToNull(facilityType));
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s;
+    }
+
     private FacilityDto mapToDto(Facility f) {
         return FacilityDto.builder()
                 .id(f.getId())
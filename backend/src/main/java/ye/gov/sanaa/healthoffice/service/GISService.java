@@ -2,6 +2,7 @@ package ye.gov.sanaa.healthoffice.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import ye.gov.sanaa.healthoffice.dto.NearbyFacilityDto;
 import ye.gov.sanaa.healthoffice.entity.Facility;
 import ye.gov.sanaa.healthoffice.repository.FacilityRepository;
 
@@ -12,10 +13,16 @@ import java.util.List;
 public class GISService {
 
     private final FacilityRepository facilityRepository;
+    private final FacilityGridIndex facilityGridIndex;
+    private final LicensedFacilityIndex licensedFacilityIndex;
 
     private static final double EARTH_RADIUS = 6371000; // meters
 
     public double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
+        return distanceMeters(lat1, lon1, lat2, lon2);
+    }
+
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
         double dLat = Math.toRadians(lat2 - lat1);
         double dLon = Math.toRadians(lon2 - lon1);
         double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
@@ -26,24 +33,51 @@ public class GISService {
     }
 
     public boolean isLocationValid(Double lat, Double lon, String facilityType, double minDistanceMeters) {
+        return isLocationValid(lat, lon, facilityType, minDistanceMeters, null);
+    }
+
+    /**
+     * Checks that no other facility of the same type lies within
+     * minDistanceMeters. {@code excludeFacilityId} lets a facility being moved
+     * ignore its own current location.
+     */
+    public boolean isLocationValid(Double lat, Double lon, String facilityType, double minDistanceMeters,
+            Long excludeFacilityId) {
         if (lat == null || lon == null)
             return true; // Skip if no location provided (or handle as error)
 
-        // For high efficiency with large datasets, this should be a PostGIS/Spatial
-        // query.
-        // For this project scope, fetching list is acceptable if N is small (<10000).
-        // Optimization: Filter by bounding box in DB first if added to Repo.
+        // Neighbouring grid cells only; the DB bounding box covers cold start
+        // and radii too large for the grid.
+        if (facilityGridIndex.isLoaded()) {
+            Boolean tooClose = facilityGridIndex.anyWithin(facilityType, lat, lon, minDistanceMeters,
+                    excludeFacilityId);
+            if (tooClose != null)
+                return !tooClose;
+        }
 
-        List<Facility> facilities = facilityRepository.findByFacilityType(facilityType);
+        double dLat = minDistanceMeters / FacilityGridIndex.METERS_PER_DEGREE_LAT;
+        double dLon = minDistanceMeters
+                / (FacilityGridIndex.METERS_PER_DEGREE_LAT * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+        List<Facility> facilities = facilityRepository.findInBoundingBox(facilityType,
+                lat - dLat, lat + dLat, lon - dLon, lon + dLon);
 
         for (Facility f : facilities) {
-            if (f.getLatitude() != null && f.getLongitude() != null) {
-                double distance = calculateDistance(lat, lon, f.getLatitude(), f.getLongitude());
-                if (distance < minDistanceMeters) {
-                    return false; // Too close
-                }
+            if (excludeFacilityId != null && excludeFacilityId.equals(f.getId()))
+                continue;
+            double distance = distanceMeters(lat, lon, f.getLatitude(), f.getLongitude());
+            if (distance < minDistanceMeters) {
+                return false; // Too close
             }
         }
         return true;
     }
+
+    /** Nearest licensed, active facilities to a point, closest first (k is clamped to 1..50). */
+    public List<NearbyFacilityDto> findNearbyLicensed(Double lat, Double lon, String facilityType, Integer k) {
+        if (lat == null || lon == null || lat < -90 || lat > 90 || lon < -180 || lon > 180)
+            throw new RuntimeException("A valid lat and lon are required");
+        int limit = k == null ? 5 : Math.max(1, Math.min(k, 50));
+        String type = facilityType == null || facilityType.isBlank() ? null : facilityType;
+        return licensedFacilityIndex.nearest(lat, lon, type, limit);
+    }
 }
@@ -0,0 +1,168 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ye.gov.sanaa.healthoffice.dto.InspectionAssignmentDto;
+import ye.gov.sanaa.healthoffice.dto.InspectionDto;
+import ye.gov.sanaa.healthoffice.entity.Admin;
+import ye.gov.sanaa.healthoffice.entity.Application;
+import ye.gov.sanaa.healthoffice.repository.AdminRepository;
+import ye.gov.sanaa.healthoffice.repository.ApplicationRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Picks an inspector for a visit instead of leaving it to the scheduler.
+ *
+ * Only enabled INSPECTOR-role admins who are free for the slot are
+ * considered. The least loaded one that day wins; ties go to an inspector
+ * already visiting the same district that day, then to the smaller overall
+ * backlog. Conflict checks and load counts come from InspectorScheduleIndex.
+ */
+@Service
+@RequiredArgsConstructor
+public class InspectionAssignmentService {
+
+    private final AdminRepository adminRepository;
+    private final ApplicationRepository applicationRepository;
+    private final InspectionService inspectionService;
+    private final InspectorScheduleIndex scheduleIndex;
+
+    @Value("${inspection.zone:Asia/Aden}")
+    private String zone;
+
+    @Value("${inspection.assignment.day-start:08:00}")
+    private String dayStart;
+
+    @Value("${inspection.assignment.day-end:14:00}")
+    private String dayEnd;
+
+    private record Candidate(Admin inspector, int dayLoad, boolean sameDistrict, int totalLoad) {
+    }
+
+    private static final Comparator<Candidate> BEST_FIRST = Comparator
+            .comparingInt(Candidate::dayLoad)
+            .thenComparing(Candidate::sameDistrict, Comparator.reverseOrder())
+            .thenComparingInt(Candidate::totalLoad)
+            .thenComparing(c -> c.inspector().getId());
+
+    /** Books the application with the best free inspector at scheduledDate. */
+    @Transactional
+    public InspectionDto autoAssign(Long applicationId, OffsetDateTime scheduledDate) {
+        Application app = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new RuntimeException("Application not found"));
+        String district = app.getFacility().getDistrict();
+        LocalDate day = scheduledDate.atZoneSameInstant(ZoneId.of(zone)).toLocalDate();
+
+        Candidate best = null;
+        for (Candidate c : rank(inspectors(), day, district)) {
+            if (scheduleIndex.isFree(c.inspector().getId(), scheduledDate)) {
+                best = c;
+                break;
+            }
+        }
+        if (best == null) {
+            throw new RuntimeException("No inspector is free at " + scheduledDate);
+        }
+        return inspectionService.scheduleInspection(applicationId, best.inspector().getId(), scheduledDate);
+    }
+
+    /**
+     * Books every application waiting at the inspection scheduling step, oldest
+     * first, into free slots on the given day. Each booking commits on its own,
+     * so one failure does not undo the others; applications that do not fit
+     * are returned with an error and stay in the backlog.
+     */
+    public List<InspectionAssignmentDto> assignBacklog(LocalDate day, Integer limit) {
+        List<Admin> inspectors = inspectors();
+        List<OffsetDateTime> slots = slots(day);
+        List<Object[]> backlog = applicationRepository.findInspectionSchedulingBacklog();
+        int max = limit != null ? Math.min(limit, backlog.size()) : backlog.size();
+
+        List<InspectionAssignmentDto> results = new ArrayList<>(max);
+        for (Object[] row : backlog.subList(0, max)) {
+            Long applicationId = (Long) row[0];
+            String district = (String) row[1];
+            InspectionAssignmentDto result = InspectionAssignmentDto.builder().applicationId(applicationId).build();
+            results.add(result);
+
+            Admin chosen = null;
+            OffsetDateTime slot = null;
+            for (Candidate c : rank(inspectors, day, district)) {
+                slot = firstFreeSlot(c.inspector().getId(), slots);
+                if (slot != null) {
+                    chosen = c.inspector();
+                    break;
+                }
+            }
+            if (chosen == null) {
+                result.setError("No inspector has a free slot on " + day);
+                continue;
+            }
+            try {
+                InspectionDto inspection = inspectionService.scheduleInspection(applicationId, chosen.getId(), slot);
+                result.setInspectionId(inspection.getId());
+                result.setInspectorId(chosen.getId());
+                result.setInspectorName(chosen.getFullName());
+                result.setScheduledDate(slot);
+            } catch (RuntimeException e) {
+                result.setError(e.getMessage());
+            }
+        }
+        return results;
+    }
+
+    private List<Admin> inspectors() {
+        List<Admin> inspectors = adminRepository.findEnabledByRoleCode("INSPECTOR");
+        if (inspectors.isEmpty()) {
+            throw new RuntimeException("No active inspectors");
+        }
+        return inspectors;
+    }
+
+    private List<Candidate> rank(List<Admin> inspectors, LocalDate day, String district) {
+        ZoneId zoneId = ZoneId.of(zone);
+        OffsetDateTime from = day.atStartOfDay(zoneId).toOffsetDateTime();
+        OffsetDateTime to = day.plusDays(1).atStartOfDay(zoneId).toOffsetDateTime();
+        List<Candidate> candidates = new ArrayList<>(inspectors.size());
+        for (Admin a : inspectors) {
+            candidates.add(new Candidate(a,
+                    scheduleIndex.countBookings(a.getId(), from, to),
+                    scheduleIndex.hasDistrict(a.getId(), from, to, district),
+                    scheduleIndex.totalBookings(a.getId())));
+        }
+        candidates.sort(BEST_FIRST);
+        return candidates;
+    }
+
+    // Back-to-back slots between day-start and day-end
+    private List<OffsetDateTime> slots(LocalDate day) {
+        ZoneId zoneId = ZoneId.of(zone);
+        OffsetDateTime start = day.atTime(LocalTime.parse(dayStart)).atZone(zoneId).toOffsetDateTime();
+        OffsetDateTime end = day.atTime(LocalTime.parse(dayEnd)).atZone(zoneId).toOffsetDateTime();
+        long slotMillis = scheduleIndex.slotMillis();
+        List<OffsetDateTime> slots = new ArrayList<>();
+        for (OffsetDateTime s = start; !s.plus(slotMillis, ChronoUnit.MILLIS).isAfter(end);
+                s = s.plus(slotMillis, ChronoUnit.MILLIS)) {
+            slots.add(s);
+        }
+        return slots;
+    }
+
+    private OffsetDateTime firstFreeSlot(Long inspectorId, List<OffsetDateTime> slots) {
+        for (OffsetDateTime s : slots) {
+            if (scheduleIndex.isFree(inspectorId, s))
+                return s;
+        }
+        return null;
+    }
+}
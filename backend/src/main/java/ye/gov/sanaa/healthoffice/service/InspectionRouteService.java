@@ -0,0 +1,209 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ye.gov.sanaa.healthoffice.dto.InspectionRouteDto;
+import ye.gov.sanaa.healthoffice.dto.RouteStopDto;
+import ye.gov.sanaa.healthoffice.entity.Facility;
+import ye.gov.sanaa.healthoffice.entity.Inspection;
+import ye.gov.sanaa.healthoffice.repository.InspectionRepository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Orders an inspector's scheduled visits for one day by travel distance.
+ *
+ * Stops are ordered by nearest neighbour and then improved with 2-opt until
+ * no segment reversal shortens the route. Routes are open: they start at the
+ * given point (usually the office) or, without one, at whichever stop gives
+ * the shortest result. Distances are great-circle, not road distance.
+ */
+@Service
+@RequiredArgsConstructor
+public class InspectionRouteService {
+
+    private static final int MAX_TWO_OPT_PASSES = 50;
+
+    private final InspectionRepository inspectionRepository;
+
+    // Day boundaries for the date parameter
+    @Value("${inspection.zone:Asia/Aden}")
+    private String zone;
+
+    @Transactional(readOnly = true)
+    public InspectionRouteDto planRoute(Long inspectorId, LocalDate date, Double startLat, Double startLon) {
+        if ((startLat == null) != (startLon == null)) {
+            throw new RuntimeException("startLat and startLon must be given together");
+        }
+        ZoneId zoneId = ZoneId.of(zone);
+        OffsetDateTime from = date.atStartOfDay(zoneId).toOffsetDateTime();
+        OffsetDateTime to = date.plusDays(1).atStartOfDay(zoneId).toOffsetDateTime();
+
+        List<Inspection> located = new ArrayList<>();
+        List<RouteStopDto> unlocated = new ArrayList<>();
+        for (Inspection i : inspectionRepository.findScheduledForInspector(inspectorId, from, to)) {
+            Facility f = i.getApplication().getFacility();
+            if (f.getLatitude() != null && f.getLongitude() != null) {
+                located.add(i);
+            } else {
+                unlocated.add(toStop(i, unlocated.size() + 1, null));
+            }
+        }
+
+        // Point n is the start point when one is given
+        boolean hasStart = startLat != null;
+        int n = located.size();
+        double[] lat = new double[hasStart ? n + 1 : n];
+        double[] lon = new double[lat.length];
+        for (int k = 0; k < n; k++) {
+            lat[k] = located.get(k).getApplication().getFacility().getLatitude();
+            lon[k] = located.get(k).getApplication().getFacility().getLongitude();
+        }
+        if (hasStart) {
+            lat[n] = startLat;
+            lon[n] = startLon;
+        }
+        double[][] d = distanceMatrix(lat, lon);
+
+        int[] order;
+        if (hasStart) {
+            order = solve(d, n);
+        } else {
+            order = null;
+            double best = Double.MAX_VALUE;
+            for (int s = 0; s < n; s++) {
+                int[] candidate = solve(d, s);
+                double length = pathLength(d, candidate);
+                if (length < best) {
+                    best = length;
+                    order = candidate;
+                }
+            }
+        }
+
+        List<RouteStopDto> stops = new ArrayList<>(n);
+        double total = 0;
+        if (order != null) {
+            for (int k = hasStart ? 1 : 0; k < order.length; k++) {
+                Double leg = k > 0 ? d[order[k - 1]][order[k]] : null;
+                if (leg != null)
+                    total += leg;
+                stops.add(toStop(located.get(order[k]), stops.size() + 1, leg));
+            }
+        }
+
+        int[] scheduled = new int[lat.length];
+        for (int k = 0; k < n; k++) {
+            scheduled[hasStart ? k + 1 : k] = k;
+        }
+        if (hasStart)
+            scheduled[0] = n;
+
+        return InspectionRouteDto.builder()
+                .inspectorId(inspectorId)
+                .date(date)
+                .startLatitude(startLat)
+                .startLongitude(startLon)
+                .stops(stops)
+                .unlocatedStops(unlocated)
+                .totalDistanceMeters(total)
+                .scheduledOrderDistanceMeters(pathLength(d, scheduled))
+                .build();
+    }
+
+    // Nearest-neighbour tour from start, then 2-opt; start stays first
+    private static int[] solve(double[][] d, int start) {
+        int size = d.length;
+        int[] order = new int[size];
+        boolean[] visited = new boolean[size];
+        order[0] = start;
+        visited[start] = true;
+        for (int k = 1; k < size; k++) {
+            int from = order[k - 1];
+            int next = -1;
+            for (int c = 0; c < size; c++) {
+                if (!visited[c] && (next < 0 || d[from][c] < d[from][next]))
+                    next = c;
+            }
+            order[k] = next;
+            visited[next] = true;
+        }
+        twoOpt(d, order);
+        return order;
+    }
+
+    // Reverses order[i..j] whenever that shortens the path. The route is open,
+    // so there is no edge after the last stop.
+    private static void twoOpt(double[][] d, int[] order) {
+        int size = order.length;
+        boolean improved = true;
+        for (int pass = 0; improved && pass < MAX_TWO_OPT_PASSES; pass++) {
+            improved = false;
+            for (int i = 1; i < size - 1; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    int a = order[i - 1];
+                    int b = order[i];
+                    int c = order[j];
+                    double before = d[a][b];
+                    double after = d[a][c];
+                    if (j + 1 < size) {
+                        int e = order[j + 1];
+                        before += d[c][e];
+                        after += d[b][e];
+                    }
+                    if (after < before - 1e-6) {
+                        for (int l = i, r = j; l < r; l++, r--) {
+                            int t = order[l];
+                            order[l] = order[r];
+                            order[r] = t;
+                        }
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static double pathLength(double[][] d, int[] order) {
+        double length = 0;
+        for (int k = 1; k < order.length; k++) {
+            length += d[order[k - 1]][order[k]];
+        }
+        return length;
+    }
+
+    private static double[][] distanceMatrix(double[] lat, double[] lon) {
+        int size = lat.length;
+        double[][] d = new double[size][size];
+        for (int a = 0; a < size; a++) {
+            for (int b = a + 1; b < size; b++) {
+                d[a][b] = d[b][a] = GISService.distanceMeters(lat[a], lon[a], lat[b], lon[b]);
+            }
+        }
+        return d;
+    }
+
+    private RouteStopDto toStop(Inspection i, int sequence, Double legDistanceMeters) {
+        Facility f = i.getApplication().getFacility();
+        return RouteStopDto.builder()
+                .sequence(sequence)
+                .inspectionId(i.getId())
+                .applicationId(i.getApplication().getId())
+                .applicationNumber(i.getApplication().getApplicationNumber())
+                .facilityId(f.getId())
+                .facilityNameAr(f.getNameAr())
+                .facilityNameEn(f.getNameEn())
+                .district(f.getDistrict())
+                .latitude(f.getLatitude())
+                .longitude(f.getLongitude())
+                .scheduledDate(i.getScheduledDate())
+                .legDistanceMeters(legDistanceMeters)
+                .build();
+    }
+}
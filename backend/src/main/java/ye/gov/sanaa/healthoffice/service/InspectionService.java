@@ -1,15 +1,29 @@
 package ye.gov.sanaa.healthoffice.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ye.gov.sanaa.healthoffice.dto.InspectionDto;
+import ye.gov.sanaa.healthoffice.dto.InspectionScoreDto;
 import ye.gov.sanaa.healthoffice.entity.*;
+import ye.gov.sanaa.healthoffice.exception.ConflictException;
 import ye.gov.sanaa.healthoffice.repository.*;
+import ye.gov.sanaa.healthoffice.workflow.ApplicationWorkflow;
+import ye.gov.sanaa.healthoffice.workflow.Transition;
+import ye.gov.sanaa.healthoffice.workflow.WorkflowAction;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -20,22 +34,34 @@ public class InspectionService {
         private final AdminRepository adminRepository;
         private final NotificationService notificationService;
         private final AuditService auditService;
-        private final InspectionTemplateRepository templateRepository;
+        private final InspectionTemplateCache templateCache;
         private final InspectionScoreRepository scoreRepository; // Add this repository
+        private final DashboardCounterStore dashboardCounters;
+        private final InspectorScheduleIndex scheduleIndex;
+        private final ApplicationWorkflow workflow;
+
+        // rows: one inspection_scores row per criterion; vector: one score_vector
+        // column on the inspection. Applies to newly seeded inspections only.
+        @Value("${inspection.score-storage:rows}")
+        private String scoreStorage;
 
         @Transactional
         public InspectionDto scheduleInspection(Long applicationId, Long inspectorId, OffsetDateTime scheduledDate) {
                 Application app = applicationRepository.findById(applicationId)
                                 .orElseThrow(() -> new RuntimeException("Application not found"));
 
-                if (!"INSPECTION_SCHEDULED".equals(app.getStatus()) && !"UNDER_REVIEW".equals(app.getStatus())
-                                && !"BLUEPRINT_REVIEW".equals(app.getStatus())) {
-                        throw new RuntimeException("Application not ready for inspection scheduling");
-                }
+                Transition t = workflow.require(app.getFacilityType(), app.getStatus(),
+                                WorkflowAction.SCHEDULE_INSPECTION);
 
                 Admin inspector = adminRepository.findById(inspectorId)
                                 .orElseThrow(() -> new RuntimeException("Inspector not found"));
 
+                InspectorScheduleIndex.Booking booking = scheduleIndex.reserve(inspectorId, scheduledDate,
+                                app.getFacility().getDistrict());
+                if (booking == null) {
+                        throw new RuntimeException("Inspector is already booked at " + scheduledDate);
+                }
+
                 Inspection inspection = Inspection.builder()
                                 .application(app)
                                 .scheduledDate(scheduledDate)
@@ -43,25 +69,14 @@ public class InspectionService {
                                 .status("SCHEDULED")
                                 .build();
                 inspection = inspectionRepository.save(inspection);
+                scheduleIndex.bind(booking, inspection.getId());
 
-                // Dynamic Template Logic
-                java.util.Optional<InspectionTemplate> template = templateRepository
-                                .findByFacilityType(app.getFacilityType());
-                if (template.isPresent()) {
-                        for (InspectionTemplateItem item : template.get().getItems()) {
-                                InspectionScore score = InspectionScore.builder()
-                                                .inspection(inspection)
-                                                .criterionCode(item.getCriterionCode())
-                                                .description(item.getDescription())
-                                                .maxScore(item.getMaxScore())
-                                                .score(null) // Pending
-                                                .build();
-                                scoreRepository.save(score);
-                        }
-                }
+                List<InspectionScoreDto> scores = seedScores(inspection, app.getFacilityType());
 
-                app.setStatus("INSPECTION_SCHEDULED");
+                String previousStatus = app.getStatus();
+                app.setStatus(t.to().name());
                 applicationRepository.save(app);
+                dashboardCounters.recordTransition(previousStatus, t.to().name());
 
                 auditService.log(inspectorId, null, "SCHEDULE_INSPECTION", "INSPECTION", inspection.getId(),
                                 "Inspection scheduled for application: " + app.getApplicationNumber());
@@ -71,44 +86,41 @@ public class InspectionService {
                                 "الموعد: " + scheduledDate.toLocalDate(), "Date: " + scheduledDate.toLocalDate(),
                                 "INFO");
 
-                return toDto(inspection);
+                return toDto(inspection, scores);
         }
 
         @Transactional
         public InspectionDto completeInspection(Long inspectionId, InspectionDto dto) {
                 Inspection inspection = inspectionRepository.findById(inspectionId)
                                 .orElseThrow(() -> new RuntimeException("Inspection not found"));
+                if (!"SCHEDULED".equals(inspection.getStatus())) {
+                        throw new ConflictException("Inspection is already " + inspection.getStatus());
+                }
+                Application app = inspection.getApplication();
+                Transition t = workflow.require(app.getFacilityType(), app.getStatus(),
+                                WorkflowAction.COMPLETE_INSPECTION);
+
+                List<InspectionScoreDto> scores = inspection.getScoreVector() != null
+                                ? applyVectorScores(inspection, dto.getItems())
+                                : applyRowScores(inspectionId, dto.getItems());
 
                 inspection.setActualVisitDate(OffsetDateTime.now());
                 inspection.setStatus("COMPLETED");
-                inspection.setOverallScore(dto.getOverallScore());
+                inspection.setOverallScore(scores.isEmpty() ? dto.getOverallScore() : overallScore(scores));
                 inspection.setNotes(dto.getNotes());
                 inspectionRepository.save(inspection);
+                scheduleIndex.release(inspectionId);
 
-                // Update Item Scores
-                if (dto.getItems() != null) {
-                        for (var itemDto : dto.getItems()) {
-                                if (itemDto.getId() != null) {
-                                        java.util.Optional<InspectionScore> scoreOpt = scoreRepository
-                                                        .findById(itemDto.getId());
-                                        if (scoreOpt.isPresent()) {
-                                                InspectionScore score = scoreOpt.get();
-                                                score.setScore(itemDto.getScore());
-                                                scoreRepository.save(score);
-                                        }
-                                }
-                        }
-                }
-
-                Application app = inspection.getApplication();
-                app.setStatus("INSPECTION_COMPLETED");
+                String previousStatus = app.getStatus();
+                app.setStatus(t.to().name());
                 applicationRepository.save(app);
+                dashboardCounters.recordTransition(previousStatus, t.to().name());
 
                 Long inspectorId = inspection.getInspector() != null ? inspection.getInspector().getId() : null;
                 auditService.log(inspectorId, null, "COMPLETE_INSPECTION", "INSPECTION", inspectionId,
-                                "Inspection completed, score: " + dto.getOverallScore());
+                                "Inspection completed, score: " + inspection.getOverallScore());
 
-                return toDto(inspection);
+                return toDto(inspection, scores);
         }
 
         @Transactional(readOnly = true)
@@ -127,23 +139,134 @@ public class InspectionService {
                                 .orElseThrow(() -> new RuntimeException("Inspection not found"));
 
                 // Self-healing: If no scores exist, try to seed from template
-                if (scoreRepository.findByInspectionId(id).isEmpty()) {
-                        java.util.Optional<InspectionTemplate> template = templateRepository
-                                        .findByFacilityType(inspection.getApplication().getFacilityType());
-                        if (template.isPresent()) {
-                                for (InspectionTemplateItem item : template.get().getItems()) {
-                                        InspectionScore score = InspectionScore.builder()
-                                                        .inspection(inspection)
-                                                        .criterionCode(item.getCriterionCode())
-                                                        .description(item.getDescription())
-                                                        .maxScore(item.getMaxScore())
-                                                        .score(null)
-                                                        .build();
-                                        scoreRepository.save(score);
+                List<InspectionScoreDto> scores = loadScores(inspection);
+                if (scores.isEmpty()) {
+                        scores = seedScores(inspection, inspection.getApplication().getFacilityType());
+                }
+                return toDto(inspection, scores);
+        }
+
+        // Percentage of the achievable total, unscored criteria counting as zero
+        private static BigDecimal overallScore(List<InspectionScoreDto> scores) {
+                BigDecimal total = BigDecimal.ZERO;
+                BigDecimal max = BigDecimal.ZERO;
+                for (InspectionScoreDto s : scores) {
+                        if (s.getScore() != null)
+                                total = total.add(s.getScore());
+                        max = max.add(s.getMaxScore());
+                }
+                if (max.signum() == 0)
+                        return BigDecimal.ZERO;
+                return total.multiply(BigDecimal.valueOf(100)).divide(max, 2, RoundingMode.HALF_UP);
+        }
+
+        /**
+         * One pending score per template criterion: either a null-filled vector
+         * on the inspection row (score-storage=vector) or inspection_scores rows
+         * written as a single JDBC batch.
+         */
+        private List<InspectionScoreDto> seedScores(Inspection inspection, String facilityType) {
+                Optional<InspectionTemplateCache.Snapshot> template = templateCache.get(facilityType);
+                if (template.isEmpty())
+                        return List.of();
+                InspectionTemplateCache.Snapshot t = template.get();
+                if ("vector".equalsIgnoreCase(scoreStorage)) {
+                        inspection.setTemplateSnapshotId(t.snapshotId());
+                        inspection.setScoreVector(new ArrayList<>(Collections.nCopies(t.criteria().size(), null)));
+                        return vectorItems(t, inspection.getScoreVector());
+                }
+                return scoreRepository.saveAll(t.criteria().stream()
+                                .map(c -> InspectionScore.builder()
+                                                .inspection(inspection)
+                                                .criterionCode(c.criterionCode())
+                                                .description(c.description())
+                                                .maxScore(c.maxScore())
+                                                .score(null) // Pending
+                                                .build())
+                                .toList())
+                                .stream().map(this::toScoreDto).toList();
+        }
+
+        private List<InspectionScoreDto> loadScores(Inspection i) {
+                if (i.getScoreVector() != null)
+                        return vectorItems(templateCache.getSnapshot(i.getTemplateSnapshotId()), i.getScoreVector());
+                return scoreRepository.findByInspectionId(i.getId()).stream().map(this::toScoreDto).toList();
+        }
+
+        // Rows are updated through dirty checking, which flushes as one JDBC batch
+        private List<InspectionScoreDto> applyRowScores(Long inspectionId, List<InspectionScoreDto> submitted) {
+                List<InspectionScore> scores = scoreRepository.findByInspectionId(inspectionId);
+                if (submitted != null) {
+                        Map<Long, InspectionScore> byId = new HashMap<>();
+                        for (InspectionScore s : scores) {
+                                byId.put(s.getId(), s);
+                        }
+                        for (InspectionScoreDto item : submitted) {
+                                if (item.getId() == null)
+                                        continue;
+                                InspectionScore score = byId.get(item.getId());
+                                if (score == null) {
+                                        throw new RuntimeException(
+                                                        "Score item " + item.getId() + " does not belong to this inspection");
+                                }
+                                checkRange(score.getCriterionCode(), item.getScore(), score.getMaxScore());
+                                score.setScore(item.getScore());
+                        }
+                }
+                return scores.stream().map(this::toScoreDto).toList();
+        }
+
+        // Vector items are addressed by 1-based position in the template snapshot
+        private List<InspectionScoreDto> applyVectorScores(Inspection inspection, List<InspectionScoreDto> submitted) {
+                InspectionTemplateCache.Snapshot t = templateCache.getSnapshot(inspection.getTemplateSnapshotId());
+                List<BigDecimal> vector = new ArrayList<>(inspection.getScoreVector());
+                if (submitted != null) {
+                        for (InspectionScoreDto item : submitted) {
+                                if (item.getId() == null)
+                                        continue;
+                                if (item.getId() < 1 || item.getId() > vector.size()) {
+                                        throw new RuntimeException(
+                                                        "Score item " + item.getId() + " does not belong to this inspection");
                                 }
+                                int index = (int) (item.getId() - 1);
+                                InspectionTemplateCache.Criterion c = t.criteria().get(index);
+                                checkRange(c.criterionCode(), item.getScore(), c.maxScore());
+                                vector.set(index, item.getScore());
                         }
                 }
-                return toDto(inspection);
+                inspection.setScoreVector(vector);
+                return vectorItems(t, vector);
+        }
+
+        private static void checkRange(String criterionCode, BigDecimal value, BigDecimal maxScore) {
+                if (value != null && (value.signum() < 0 || value.compareTo(maxScore) > 0)) {
+                        throw new RuntimeException("Score for " + criterionCode + " must be between 0 and " + maxScore);
+                }
+        }
+
+        private List<InspectionScoreDto> vectorItems(InspectionTemplateCache.Snapshot t, List<BigDecimal> vector) {
+                List<InspectionScoreDto> items = new ArrayList<>(vector.size());
+                for (int i = 0; i < vector.size(); i++) {
+                        InspectionTemplateCache.Criterion c = t.criteria().get(i);
+                        InspectionScoreDto d = new InspectionScoreDto();
+                        d.setId((long) i + 1);
+                        d.setCriterionCode(c.criterionCode());
+                        d.setDescription(c.description());
+                        d.setScore(vector.get(i));
+                        d.setMaxScore(c.maxScore());
+                        items.add(d);
+                }
+                return items;
+        }
+
+        private InspectionScoreDto toScoreDto(InspectionScore s) {
+                InspectionScoreDto d = new InspectionScoreDto();
+                d.setId(s.getId());
+                d.setCriterionCode(s.getCriterionCode());
+                d.setDescription(s.getDescription());
+                d.setScore(s.getScore());
+                d.setMaxScore(s.getMaxScore());
+                return d;
         }
 
         @Transactional(readOnly = true)
@@ -158,7 +281,7 @@ public class InspectionService {
 
         @Transactional(readOnly = true)
         public java.util.List<ye.gov.sanaa.healthoffice.dto.AdminDto> getInspectors() {
-                return adminRepository.findAll().stream()
+                return adminRepository.findEnabledByRoleCode("INSPECTOR").stream()
                                 .map(this::toAdminDto)
                                 .collect(java.util.stream.Collectors.toList());
         }
@@ -173,19 +296,10 @@ public class InspectionService {
         }
 
         private InspectionDto toDto(Inspection i) {
-                java.util.List<ye.gov.sanaa.healthoffice.dto.InspectionScoreDto> items = scoreRepository
-                                .findByInspectionId(i.getId()).stream() // Assuming this method exists
-                                .map(s -> {
-                                        ye.gov.sanaa.healthoffice.dto.InspectionScoreDto d = new ye.gov.sanaa.healthoffice.dto.InspectionScoreDto();
-                                        d.setId(s.getId());
-                                        d.setCriterionCode(s.getCriterionCode());
-                                        d.setDescription(s.getDescription());
-                                        d.setScore(s.getScore());
-                                        d.setMaxScore(s.getMaxScore());
-                                        return d;
-                                })
-                                .collect(java.util.stream.Collectors.toList());
+                return toDto(i, loadScores(i));
+        }
 
+        private InspectionDto toDto(Inspection i, List<InspectionScoreDto> items) {
                 return InspectionDto.builder()
                                 .id(i.getId())
                                 .applicationId(i.getApplication().getId())
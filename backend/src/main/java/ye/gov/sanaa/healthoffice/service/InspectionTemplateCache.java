@@ -0,0 +1,164 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ye.gov.sanaa.healthoffice.entity.InspectionTemplate;
+import ye.gov.sanaa.healthoffice.entity.InspectionTemplateItem;
+import ye.gov.sanaa.healthoffice.entity.InspectionTemplateSnapshot;
+import ye.gov.sanaa.healthoffice.repository.InspectionTemplateRepository;
+import ye.gov.sanaa.healthoffice.repository.InspectionTemplateSnapshotRepository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inspection templates by facility type, held as immutable snapshots so
+ * scheduling an inspection does not reload the template and its items.
+ * Facility types without a template are cached too. Whatever changes a
+ * template must call {@link #evict}.
+ *
+ * With inspection.score-storage=vector every snapshot handed out is also
+ * persisted (deduplicated by content) in inspection_template_snapshots, so
+ * score vectors can be aligned to it long after the template itself has
+ * changed. Snapshots are immutable and are cached by id without
+ * invalidation. In rows mode nothing reads the snapshot id, so snapshots
+ * stay in memory and have no id.
+ */
+@Component
+public class InspectionTemplateCache {
+
+    private final InspectionTemplateRepository templateRepository;
+    private final InspectionTemplateSnapshotRepository snapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate requiresNew;
+    private final boolean persistSnapshots;
+    private final Map<String, Optional<Snapshot>> byFacilityType = new ConcurrentHashMap<>();
+    private final Map<Long, Snapshot> bySnapshotId = new ConcurrentHashMap<>();
+
+    public record Criterion(String criterionCode, String description, BigDecimal maxScore) {
+    }
+
+    public record Snapshot(Long snapshotId, Long templateId, String facilityType, int version,
+            List<Criterion> criteria) {
+    }
+
+    public InspectionTemplateCache(InspectionTemplateRepository templateRepository,
+            InspectionTemplateSnapshotRepository snapshotRepository, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${inspection.score-storage:rows}") String scoreStorage) {
+        this.templateRepository = templateRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.objectMapper = objectMapper;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.persistSnapshots = "vector".equalsIgnoreCase(scoreStorage);
+    }
+
+    public Optional<Snapshot> get(String facilityType) {
+        if (facilityType == null)
+            return Optional.empty();
+        Optional<Snapshot> cached = byFacilityType.get(facilityType);
+        if (cached != null)
+            return cached;
+        // Built outside the map so a cold load (and its snapshot transaction)
+        // holds no map lock; concurrent loaders agree on the first one stored.
+        Optional<Snapshot> loaded = templateRepository.findWithItemsByFacilityType(facilityType)
+                .map(this::snapshot);
+        Optional<Snapshot> raced = byFacilityType.putIfAbsent(facilityType, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    public Snapshot getSnapshot(Long snapshotId) {
+        return bySnapshotId.computeIfAbsent(snapshotId, id -> snapshotRepository.findById(id)
+                .map(s -> new Snapshot(s.getId(), s.getTemplateId(), s.getFacilityType(), s.getVersion(),
+                        readCriteria(s.getCriteria())))
+                .orElseThrow(() -> new RuntimeException("Inspection template snapshot not found: " + id)));
+    }
+
+    /** Drops the entry now and again after the current transaction commits. */
+    public void evict(String facilityType) {
+        byFacilityType.remove(facilityType);
+        AfterCommit.run(() -> byFacilityType.remove(facilityType));
+    }
+
+    private Snapshot snapshot(InspectionTemplate t) {
+        List<Criterion> criteria = t.getItems().stream()
+                .sorted(Comparator.comparing(InspectionTemplateItem::getItemOrder,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(i -> new Criterion(i.getCriterionCode(), i.getDescription(), i.getMaxScore()))
+                .toList();
+        if (!persistSnapshots)
+            return new Snapshot(null, t.getId(), t.getFacilityType(), 0, criteria);
+        String json = writeCriteria(criteria);
+        String hash = sha256(t.getId() + "|" + t.getFacilityType() + "|" + json);
+
+        InspectionTemplateSnapshot stored = store(t, hash, json);
+        Snapshot snapshot = new Snapshot(stored.getId(), t.getId(), t.getFacilityType(), stored.getVersion(),
+                criteria);
+        bySnapshotId.put(snapshot.snapshotId(), snapshot);
+        return snapshot;
+    }
+
+    // Own transaction: the snapshot is cached by id, so it must not vanish if
+    // the caller's transaction rolls back. Another instance may store the same
+    // content or take the next version first; the unique keys reject that
+    // write and the retry picks up their row or the following version.
+    private InspectionTemplateSnapshot store(InspectionTemplate t, String hash, String json) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return requiresNew.execute(status -> snapshotRepository.findByContentHash(hash)
+                        .orElseGet(() -> snapshotRepository.save(InspectionTemplateSnapshot.builder()
+                                .templateId(t.getId())
+                                .facilityType(t.getFacilityType())
+                                .version((int) snapshotRepository.countByTemplateId(t.getId()) + 1)
+                                .contentHash(hash)
+                                .criteria(json)
+                                .build())));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == 3)
+                    throw e;
+            }
+        }
+    }
+
+    private String writeCriteria(List<Criterion> criteria) {
+        try {
+            return objectMapper.writeValueAsString(criteria);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize template criteria: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Criterion> readCriteria(String json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<Criterion>>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unreadable template snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    private static String sha256(String s) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ye.gov.sanaa.healthoffice.repository.InspectionRepository;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Booked inspection slots per inspector, one interval tree each, so a
+ * conflict check is O(log n) instead of a scan of the inspector's schedule.
+ *
+ * Every scheduled inspection occupies [scheduledDate, scheduledDate + slot).
+ * Slots are reserved while the scheduling transaction is still open, which
+ * makes check-and-book atomic across concurrent requests, and released again
+ * if it rolls back. Completed inspections are dropped after commit. Rebuilt
+ * at startup and nightly to pick up anything changed outside this service.
+ */
+@Component
+public class InspectorScheduleIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(InspectorScheduleIndex.class);
+
+    private final InspectionRepository inspectionRepository;
+    private final long slotMillis;
+
+    private final Map<Long, IntervalTree<Booking>> trees = new HashMap<>();
+    private final Map<Long, Booking> byInspection = new HashMap<>();
+    private final AtomicLong seq = new AtomicLong();
+
+    /** One booked slot; inspectionId is bound once the inspection row exists. */
+    public static final class Booking {
+        private final long seq;
+        private final long inspectorId;
+        private final long start;
+        private final String district;
+        private Long inspectionId;
+
+        private Booking(long seq, long inspectorId, long start, String district) {
+            this.seq = seq;
+            this.inspectorId = inspectorId;
+            this.start = start;
+            this.district = district;
+        }
+
+        public String getDistrict() {
+            return district;
+        }
+    }
+
+    public InspectorScheduleIndex(InspectionRepository inspectionRepository,
+            @Value("${inspection.assignment.slot-minutes:90}") long slotMinutes) {
+        this.inspectionRepository = inspectionRepository;
+        this.slotMillis = slotMinutes * 60_000;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${inspection.assignment.rebuild-cron:0 25 0 * * *}")
+    public synchronized void rebuild() {
+        List<Object[]> rows = inspectionRepository.findScheduledSlots();
+        trees.clear();
+        byInspection.clear();
+        for (Object[] r : rows) {
+            Booking b = add((Long) r[1], (OffsetDateTime) r[2], (String) r[3]);
+            bind(b, (Long) r[0]);
+        }
+        log.info("Inspector schedule index built: {} scheduled inspections", rows.size());
+    }
+
+    public synchronized boolean isFree(Long inspectorId, OffsetDateTime start) {
+        IntervalTree<Booking> tree = trees.get(inspectorId);
+        long s = start.toInstant().toEpochMilli();
+        return tree == null || !tree.overlaps(s, s + slotMillis);
+    }
+
+    /**
+     * Books the slot if the inspector is free, or returns null. Inside a
+     * transaction the booking is undone if that transaction rolls back.
+     */
+    public synchronized Booking reserve(Long inspectorId, OffsetDateTime start, String district) {
+        if (!isFree(inspectorId, start))
+            return null;
+        Booking b = add(inspectorId, start, district);
+        AfterCommit.onRollback(() -> remove(b));
+        return b;
+    }
+
+    public synchronized void bind(Booking booking, Long inspectionId) {
+        booking.inspectionId = inspectionId;
+        byInspection.put(inspectionId, booking);
+    }
+
+    /** Frees the inspection's slot after the current transaction commits. */
+    public void release(Long inspectionId) {
+        AfterCommit.run(() -> releaseNow(inspectionId));
+    }
+
+    /** Bookings of one inspector overlapping [from, to). */
+    public synchronized int countBookings(Long inspectorId, OffsetDateTime from, OffsetDateTime to) {
+        int[] count = { 0 };
+        forEach(inspectorId, from, to, b -> count[0]++);
+        return count[0];
+    }
+
+    public synchronized boolean hasDistrict(Long inspectorId, OffsetDateTime from, OffsetDateTime to,
+            String district) {
+        if (district == null)
+            return false;
+        boolean[] found = { false };
+        forEach(inspectorId, from, to, b -> found[0] |= Objects.equals(district, b.getDistrict()));
+        return found[0];
+    }
+
+    public synchronized int totalBookings(Long inspectorId) {
+        IntervalTree<Booking> tree = trees.get(inspectorId);
+        return tree == null ? 0 : tree.size();
+    }
+
+    public long slotMillis() {
+        return slotMillis;
+    }
+
+    private void forEach(Long inspectorId, OffsetDateTime from, OffsetDateTime to,
+            Consumer<Booking> action) {
+        IntervalTree<Booking> tree = trees.get(inspectorId);
+        if (tree != null)
+            tree.forEachOverlapping(from.toInstant().toEpochMilli(), to.toInstant().toEpochMilli(), action);
+    }
+
+    private Booking add(Long inspectorId, OffsetDateTime start, String district) {
+        long s = start.toInstant().toEpochMilli();
+        Booking b = new Booking(seq.incrementAndGet(), inspectorId, s, district);
+        trees.computeIfAbsent(inspectorId, id -> new IntervalTree<>()).insert(s, s + slotMillis, b.seq, b);
+        return b;
+    }
+
+    private synchronized void remove(Booking b) {
+        IntervalTree<Booking> tree = trees.get(b.inspectorId);
+        if (tree != null)
+            tree.remove(b.start, b.seq);
+        if (b.inspectionId != null)
+            byInspection.remove(b.inspectionId, b);
+    }
+
+    private synchronized void releaseNow(Long inspectionId) {
+        Booking b = byInspection.get(inspectionId);
+        if (b != null)
+            remove(b);
+    }
+}
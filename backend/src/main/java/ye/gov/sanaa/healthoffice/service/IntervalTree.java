@@ -0,0 +1,128 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Half-open intervals [start, end) in a treap ordered by (start, seq), each
+ * node carrying the largest end in its subtree. Insert, remove and the
+ * any-overlap test are O(log n) expected; listing overlaps is O(log n + k).
+ *
+ * Not thread-safe; InspectorScheduleIndex guards it.
+ */
+final class IntervalTree<T> {
+
+    private static final class Node<T> {
+        final long start;
+        final long end;
+        final long seq;
+        final int priority;
+        final T value;
+        long maxEnd;
+        Node<T> left;
+        Node<T> right;
+
+        Node(long start, long end, long seq, T value) {
+            this.start = start;
+            this.end = end;
+            this.seq = seq;
+            this.value = value;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<T> root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /** seq must be unique among intervals with the same start. */
+    void insert(long start, long end, long seq, T value) {
+        Node<T>[] parts = split(root, start, seq);
+        root = merge(merge(parts[0], new Node<>(start, end, seq, value)), parts[1]);
+        size++;
+    }
+
+    boolean remove(long start, long seq) {
+        Node<T>[] lower = split(root, start, seq);
+        Node<T>[] upper = split(lower[1], start, seq + 1);
+        boolean found = upper[0] != null;
+        if (found)
+            size--;
+        root = merge(lower[0], upper[1]);
+        return found;
+    }
+
+    /** Whether any stored interval overlaps [start, end). */
+    boolean overlaps(long start, long end) {
+        Node<T> n = root;
+        while (n != null) {
+            if (n.start < end && start < n.end)
+                return true;
+            // Only the left subtree can hold an overlap if its max end reaches
+            // past start (see CLRS interval search)
+            n = n.left != null && n.left.maxEnd > start ? n.left : n.right;
+        }
+        return false;
+    }
+
+    void forEachOverlapping(long start, long end, Consumer<T> action) {
+        visit(root, start, end, action);
+    }
+
+    private static <T> void visit(Node<T> n, long start, long end, Consumer<T> action) {
+        if (n == null || n.maxEnd <= start)
+            return;
+        visit(n.left, start, end, action);
+        if (n.start < end && start < n.end)
+            action.accept(n.value);
+        if (n.start < end)
+            visit(n.right, start, end, action);
+    }
+
+    // [0] holds keys < (start, seq), [1] the rest
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] split(Node<T> n, long start, long seq) {
+        if (n == null)
+            return new Node[] { null, null };
+        if (n.start < start || (n.start == start && n.seq < seq)) {
+            Node<T>[] parts = split(n.right, start, seq);
+            n.right = parts[0];
+            update(n);
+            parts[0] = n;
+            return parts;
+        }
+        Node<T>[] parts = split(n.left, start, seq);
+        n.left = parts[1];
+        update(n);
+        parts[1] = n;
+        return parts;
+    }
+
+    private static <T> Node<T> merge(Node<T> a, Node<T> b) {
+        if (a == null)
+            return b;
+        if (b == null)
+            return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static void update(Node<?> n) {
+        long max = n.end;
+        if (n.left != null)
+            max = Math.max(max, n.left.maxEnd);
+        if (n.right != null)
+            max = Math.max(max, n.right.maxEnd);
+        n.maxEnd = max;
+    }
+}
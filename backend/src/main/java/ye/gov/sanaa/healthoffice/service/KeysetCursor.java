@@ -0,0 +1,96 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ye.gov.sanaa.healthoffice.dto.CursorPage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursor over a (timestamp, id) pair, newest first.
+ *
+ * Repositories seek with
+ * {@code ts <= :ts AND (ts < :ts OR id < :id) ORDER BY ts DESC, id DESC}
+ * and a limit of size + 1, so each page is an index range scan with no
+ * COUNT(*) and no OFFSET, regardless of how deep the reader has paged.
+ */
+public final class KeysetCursor {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 200;
+
+    // Sentinel used for the first page: sorts after every real row
+    private static final KeysetCursor FIRST = new KeysetCursor(
+            OffsetDateTime.of(9999, 12, 31, 23, 59, 59, 0, ZoneOffset.UTC), Long.MAX_VALUE);
+
+    private final OffsetDateTime timestamp;
+    private final Long id;
+
+    private KeysetCursor(OffsetDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public OffsetDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank())
+            return FIRST;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new KeysetCursor(instant.atOffset(ZoneOffset.UTC), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid pagination cursor");
+        }
+    }
+
+    public static String encode(OffsetDateTime timestamp, Long id) {
+        Instant instant = timestamp.toInstant();
+        String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int clampSize(Integer size) {
+        if (size == null || size <= 0)
+            return DEFAULT_SIZE;
+        return Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * Limit for the seek query: one extra row tells us whether a next page exists.
+     */
+    public static Pageable probe(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    public static <E, D> CursorPage<D> toPage(List<E> rows, int size,
+            Function<E, OffsetDateTime> timestampOf, Function<E, Long> idOf, Function<E, D> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> slice = hasNext ? rows.subList(0, size) : rows;
+        String next = null;
+        if (hasNext) {
+            E last = slice.get(slice.size() - 1);
+            next = encode(timestampOf.apply(last), idOf.apply(last));
+        }
+        return CursorPage.<D>builder()
+                .content(slice.stream().map(mapper).toList())
+                .size(slice.size())
+                .hasNext(hasNext)
+                .nextCursor(next)
+                .build();
+    }
+}
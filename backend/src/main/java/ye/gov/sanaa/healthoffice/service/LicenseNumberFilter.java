@@ -0,0 +1,253 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ye.gov.sanaa.healthoffice.repository.LicenseRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over every issued license number, used to answer "definitely
+ * not a license" for scanner and bot traffic without touching the database.
+ *
+ * Built once the application is ready and fed by the services that issue
+ * licenses. Licenses are never deleted, so the filter only grows. Until the
+ * first build finishes, every number is treated as possibly present.
+ * Numbers added while a build is running (including before the first one)
+ * are buffered and replayed into the new filter before it is swapped in.
+ *
+ * Licenses this instance did not issue (other instances, the generator,
+ * direct SQL) are picked up every license.filter.poll-interval-ms: the poll
+ * reads licenses with an id above the highest one already loaded, and
+ * again those created within license.filter.poll-overlap-ms, because a
+ * lower id from another instance's sequence block can commit after a higher
+ * one. The full rebuild every license.filter.rebuild-interval-ms resizes the
+ * filter as it fills and is the backstop for anything the poll missed.
+ *
+ * Micrometer meters (license.filter.*) track lookups so the observed
+ * false-positive rate can be compared with the configured target.
+ */
+@Component
+public class LicenseNumberFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(LicenseNumberFilter.class);
+
+    private final LicenseRepository licenseRepository;
+    private final int expectedInsertions;
+    private final double targetFpp;
+    private final Duration pollOverlap;
+    private final Object buildLock = new Object();
+
+    private volatile Bits bits;
+    // Highest license id loaded into the filter; guarded by buildLock
+    private long highWaterMark;
+    // Non-null while a build is running; guarded by this
+    private List<String> addedDuringBuild = new ArrayList<>();
+
+    private final Counter negatives;
+    private final Counter truePositives;
+    private final Counter falsePositives;
+
+    public LicenseNumberFilter(LicenseRepository licenseRepository, MeterRegistry meterRegistry,
+            @Value("${license.filter.expected-insertions:1000000}") int expectedInsertions,
+            @Value("${license.filter.fpp:0.01}") double targetFpp,
+            @Value("${license.filter.poll-overlap-ms:60000}") long pollOverlapMs) {
+        this.licenseRepository = licenseRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.targetFpp = targetFpp;
+        this.pollOverlap = Duration.ofMillis(pollOverlapMs);
+
+        this.negatives = meterRegistry.counter("license.filter.lookups", "result", "negative");
+        this.truePositives = meterRegistry.counter("license.filter.lookups", "result", "true_positive");
+        this.falsePositives = meterRegistry.counter("license.filter.lookups", "result", "false_positive");
+        Gauge.builder("license.filter.fpp.observed", this, LicenseNumberFilter::observedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("license.filter.fpp.expected", this, LicenseNumberFilter::expectedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("license.filter.size", this, f -> f.bits != null ? f.bits.count.get() : 0)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${license.filter.rebuild-interval-ms:3600000}",
+            initialDelayString = "${license.filter.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (buildLock) {
+            synchronized (this) {
+                if (addedDuringBuild == null)
+                    addedDuringBuild = new ArrayList<>();
+            }
+            // Read first: anything committed after it is left to the poll
+            long maxId = licenseRepository.findMaxId();
+            List<String> numbers = licenseRepository.findAllLicenseNumbers();
+            Bits fresh = new Bits(Math.max(expectedInsertions, numbers.size() * 2), targetFpp);
+            for (String n : numbers) {
+                fresh.add(n);
+            }
+            synchronized (this) {
+                for (String n : addedDuringBuild) {
+                    fresh.add(n);
+                }
+                addedDuringBuild = null;
+                bits = fresh;
+            }
+            highWaterMark = Math.max(highWaterMark, maxId);
+            log.info("License number filter built: {} entries, {} bits, {} hashes", numbers.size(),
+                    fresh.bitCount, fresh.hashCount);
+        }
+    }
+
+    /** Loads licenses committed since the last poll or build. */
+    @Scheduled(fixedDelayString = "${license.filter.poll-interval-ms:5000}",
+            initialDelayString = "${license.filter.poll-interval-ms:5000}")
+    public void poll() {
+        synchronized (buildLock) {
+            if (bits == null)
+                return;
+            OffsetDateTime since = OffsetDateTime.now().minus(pollOverlap);
+            int added = 0;
+            for (Object[] row : licenseRepository.findNumbersAddedSince(highWaterMark, since)) {
+                highWaterMark = Math.max(highWaterMark, (Long) row[0]);
+                if (addNow((String) row[1]))
+                    added++;
+            }
+            if (added > 0)
+                log.debug("License number filter: {} numbers added by poll", added);
+        }
+    }
+
+    /**
+     * Adds the number once the current transaction commits: a build that
+     * starts after that reads it from the database, one already running
+     * picks it up from the buffer.
+     */
+    public void add(String licenseNumber) {
+        AfterCommit.run(() -> addNow(licenseNumber));
+    }
+
+    // True if the number was not in the filter yet
+    private boolean addNow(String licenseNumber) {
+        Bits b;
+        synchronized (this) {
+            if (addedDuringBuild != null)
+                addedDuringBuild.add(licenseNumber);
+            b = bits;
+        }
+        return b != null && b.add(licenseNumber);
+    }
+
+    public boolean mightContain(String licenseNumber) {
+        Bits b = bits;
+        if (b == null || b.mightContain(licenseNumber)) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Feedback from the database lookup that followed a positive answer.
+     */
+    public void recordLookup(boolean found) {
+        if (found) {
+            truePositives.increment();
+        } else {
+            falsePositives.increment();
+        }
+    }
+
+    public double observedFalsePositiveRate() {
+        double fp = falsePositives.count();
+        double absent = fp + negatives.count();
+        return absent == 0 ? 0 : fp / absent;
+    }
+
+    public double expectedFalsePositiveRate() {
+        Bits b = bits;
+        if (b == null)
+            return 1;
+        // (1 - e^(-kn/m))^k
+        return Math.pow(1 - Math.exp(-(double) b.hashCount * b.count.get() / b.bitCount), b.hashCount);
+    }
+
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLong count = new AtomicLong();
+
+        Bits(int capacity, double fpp) {
+            long m = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((m + 63) / 64));
+            this.bitCount = (long) words.length() * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        // Counts the value only if it set a bit, so the numbers the poll
+        // reads again within its overlap do not inflate the size
+        boolean add(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            boolean changed = false;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long prev;
+                do {
+                    prev = words.get(word);
+                    if ((prev & mask) != 0)
+                        break;
+                } while (!words.compareAndSet(word, prev, prev | mask));
+                changed |= (prev & mask) == 0;
+            }
+            if (changed)
+                count.incrementAndGet();
+            return changed;
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                    return false;
+            }
+            return true;
+        }
+
+        // FNV-1a over the UTF-8 bytes, finished with a murmur3 avalanche step
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -7,6 +7,8 @@ import ye.gov.sanaa.healthoffice.dto.LicenseDto;
 import ye.gov.sanaa.healthoffice.dto.PublicLicenseDto;
 import ye.gov.sanaa.healthoffice.entity.*;
 import ye.gov.sanaa.healthoffice.repository.*;
+import ye.gov.sanaa.healthoffice.workflow.ApplicationWorkflow;
+import ye.gov.sanaa.healthoffice.workflow.WorkflowAction;
 
 import java.io.*;
 import java.nio.file.*;
@@ -30,6 +32,11 @@ public class LicenseService {
         private final AuditService auditService;
         private final NotificationService notificationService;
         private final SystemSettingRepository systemSettingRepository;
+        private final LicenseVerificationCache verificationCache;
+        private final LicenseNumberFilter licenseNumberFilter;
+        private final LicensedFacilityIndex licensedFacilityIndex;
+        private final FacilityClusterIndex facilityClusterIndex;
+        private final ApplicationWorkflow workflow;
 
         private static final String BASE_VERIFY_URL = "http://localhost:8080/public/verify/";
         private static final DateTimeFormatter AR_DATE_FMT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
@@ -43,11 +50,7 @@ public class LicenseService {
                 Application app = applicationRepository.findById(applicationId)
                                 .orElseThrow(() -> new RuntimeException("Application not found"));
 
-                if (!"LICENSE_ISSUED".equals(app.getStatus()) && !"PAYMENT_COMPLETED".equals(app.getStatus())) {
-                        throw new RuntimeException(
-                                        "License can only be generated after payment completion or license issuance. Current: "
-                                                        + app.getStatus());
-                }
+                workflow.require(app.getFacilityType(), app.getStatus(), WorkflowAction.GENERATE_LICENSE);
 
                 // Find or create the license record
                 List<License> existing = licenseRepository.findByApplicationId(applicationId);
@@ -66,12 +69,16 @@ public class LicenseService {
                                         .status("ACTIVE")
                                         .build();
                         license = licenseRepository.save(license);
+                        licenseNumberFilter.add(licenseNumber);
+                        licensedFacilityIndex.refresh(app.getFacility().getId());
+                        facilityClusterIndex.refresh(app.getFacility().getId());
                 }
 
                 // Generate PDF content as HTML (will be rendered by a print-ready viewer)
                 String pdfFileName = generateLicenseHtml(app, license);
                 license.setPdfUrl(pdfFileName);
                 licenseRepository.save(license);
+                verificationCache.evict(license.getLicenseNumber());
 
                 auditService.log(adminId, null, "GENERATE_LICENSE_PDF", "LICENSE", license.getId(),
                                 "License PDF generated: " + license.getLicenseNumber());
@@ -114,6 +121,9 @@ public class LicenseService {
 
                 license.setStatus("REVOKED");
                 licenseRepository.save(license);
+                verificationCache.evict(license.getLicenseNumber());
+                licensedFacilityIndex.refresh(license.getApplication().getFacility().getId());
+                facilityClusterIndex.refresh(license.getApplication().getFacility().getId());
 
                 auditService.log(adminId, null, "INVALIDATE_LICENSE", "LICENSE", license.getId(),
                                 "License revoked: " + license.getLicenseNumber() + ". Reason: " + reason);
@@ -151,6 +161,9 @@ public class LicenseService {
                 String pdfFileName = generateLicenseHtml(app, license);
                 license.setPdfUrl(pdfFileName);
                 licenseRepository.save(license);
+                verificationCache.evict(license.getLicenseNumber());
+                licensedFacilityIndex.refresh(app.getFacility().getId());
+                facilityClusterIndex.refresh(app.getFacility().getId());
 
                 auditService.log(adminId, null, "UPDATE_LICENSE", "LICENSE", license.getId(),
                                 "License updated: " + license.getLicenseNumber()
@@ -160,29 +173,29 @@ public class LicenseService {
         }
 
         /**
-         * Public verification endpoint data.
+         * Public verification endpoint data. Empty when no such license exists.
+         * Not transactional on purpose: a cache hit must not open a transaction
+         * (and borrow a connection), and numbers the Bloom filter rules out are
+         * answered without any database access; a miss is a single fetch-join query.
          */
-        @Transactional(readOnly = true)
-        public PublicLicenseDto verifyLicense(String licenseNumber) {
-                License license = licenseRepository.findByLicenseNumber(licenseNumber)
-                                .orElseThrow(() -> new RuntimeException("License not found"));
+        public Optional<PublicLicenseDto> verifyLicense(String licenseNumber) {
+                PublicLicenseDto cached = verificationCache.get(licenseNumber);
+                if (cached != null) {
+                        return Optional.of(cached);
+                }
+                if (!licenseNumberFilter.mightContain(licenseNumber)) {
+                        return Optional.empty();
+                }
 
-                Application app = license.getApplication();
-                Facility facility = app.getFacility();
-                boolean isValid = "ACTIVE".equals(license.getStatus())
-                                && !license.getExpiryDate().isBefore(LocalDate.now());
+                long stamp = verificationCache.stamp();
+                Optional<License> license = licenseRepository.findForVerification(licenseNumber);
+                licenseNumberFilter.recordLookup(license.isPresent());
 
-                return PublicLicenseDto.builder()
-                                .facilityName(facility.getNameAr())
-                                .licenseNumber(license.getLicenseNumber())
-                                .facilityType(app.getFacilityType())
-                                .status(license.getStatus())
-                                .issueDate(license.getIssueDate())
-                                .expiryDate(license.getExpiryDate())
-                                .isValid(isValid)
-                                .district(facility.getDistrict())
-                                .supervisorName(app.getSupervisorName())
-                                .build();
+                return license.map(l -> {
+                        PublicLicenseDto dto = toPublicDto(l);
+                        verificationCache.put(dto, stamp);
+                        return dto;
+                });
         }
 
         @Transactional(readOnly = true)
@@ -211,6 +224,29 @@ public class LicenseService {
          * for now we generate print-ready HTML that can be converted to PDF.
          */
         private String generateLicenseHtml(Application app, License license) {
+                // Determine fee
+                String fee = systemSettingRepository
+                                .findByCategoryAndSettingKey("FEES", "LICENSE_FEE_" + app.getFacilityType())
+                                .map(SystemSetting::getSettingValue)
+                                .orElse("150,000");
+
+                String html = renderLicenseHtml(app, license, fee);
+
+                // Save to file system
+                String fileName = "LICENSE_" + license.getLicenseNumber().replace("-", "_") + ".html";
+                try {
+                        Path uploadDir = Paths.get("uploads").toAbsolutePath().normalize();
+                        Files.createDirectories(uploadDir);
+                        Files.writeString(uploadDir.resolve(fileName), html);
+                } catch (IOException e) {
+                        throw new RuntimeException("Failed to write license file: " + e.getMessage(), e);
+                }
+
+                return fileName;
+        }
+
+        /** The license document itself; no database or file access. */
+        String renderLicenseHtml(Application app, License license, String fee) {
                 String verifyUrl = BASE_VERIFY_URL + license.getLicenseNumber();
 
                 Facility facility = app.getFacility();
@@ -218,13 +254,7 @@ public class LicenseService {
                 String issueStr = license.getIssueDate().format(AR_DATE_FMT);
                 String expiryStr = license.getExpiryDate().format(AR_DATE_FMT);
 
-                // Determine fee
-                String fee = systemSettingRepository
-                                .findByCategoryAndSettingKey("FEES", "LICENSE_FEE_" + app.getFacilityType())
-                                .map(SystemSetting::getSettingValue)
-                                .orElse("150,000");
-
-                String html = """
+                return """
                                 <!DOCTYPE html>
                                 <html dir="rtl" lang="ar">
                                 <head>
@@ -349,18 +379,6 @@ public class LicenseService {
                                                                 : "",
                                                 fee,
                                                 verifyUrl);
-
-                // Save to file system
-                String fileName = "LICENSE_" + license.getLicenseNumber().replace("-", "_") + ".html";
-                try {
-                        Path uploadDir = Paths.get("uploads").toAbsolutePath().normalize();
-                        Files.createDirectories(uploadDir);
-                        Files.writeString(uploadDir.resolve(fileName), html);
-                } catch (IOException e) {
-                        throw new RuntimeException("Failed to write license file: " + e.getMessage(), e);
-                }
-
-                return fileName;
         }
 
         private String mapFacilityTypeAr(String type) {
@@ -377,6 +395,24 @@ public class LicenseService {
                 };
         }
 
+        private PublicLicenseDto toPublicDto(License license) {
+                Application app = license.getApplication();
+                Facility facility = app.getFacility();
+                boolean isValid = LicenseVerificationCache.isValid(license.getStatus(), license.getExpiryDate());
+
+                return PublicLicenseDto.builder()
+                                .facilityName(facility.getNameAr())
+                                .licenseNumber(license.getLicenseNumber())
+                                .facilityType(app.getFacilityType())
+                                .status(license.getStatus())
+                                .issueDate(license.getIssueDate())
+                                .expiryDate(license.getExpiryDate())
+                                .isValid(isValid)
+                                .district(facility.getDistrict())
+                                .supervisorName(app.getSupervisorName())
+                                .build();
+        }
+
         private LicenseDto toDto(License l) {
                 return LicenseDto.builder()
                                 .id(l.getId())
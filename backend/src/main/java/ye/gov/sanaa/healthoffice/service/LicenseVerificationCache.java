@@ -0,0 +1,100 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ye.gov.sanaa.healthoffice.dto.PublicLicenseDto;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU + TTL cache of public verification results, keyed by license
+ * number. Entries hold the raw license snapshot; validity is recomputed
+ * against today's date on every read so a cached entry never reports an
+ * expired license as valid.
+ *
+ * Every eviction bumps an invalidation stamp. A reader takes the stamp
+ * before its database lookup and passes it to {@link #put}, which drops the
+ * result if any eviction happened in between: the row it read may predate
+ * the change. Evictions are rare (license updates), so the occasional
+ * unrelated put that is dropped costs one extra lookup.
+ */
+@Component
+public class LicenseVerificationCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+    // Guarded by entries
+    private long invalidations;
+
+    private record Entry(PublicLicenseDto license, long expiresAt) {
+    }
+
+    public LicenseVerificationCache(
+            @Value("${license.verify-cache.max-entries:10000}") int maxEntries,
+            @Value("${license.verify-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > LicenseVerificationCache.this.maxEntries;
+            }
+        };
+    }
+
+    public PublicLicenseDto get(String licenseNumber) {
+        Entry e;
+        synchronized (entries) {
+            e = entries.get(licenseNumber);
+            if (e == null)
+                return null;
+            if (e.expiresAt() < System.currentTimeMillis()) {
+                entries.remove(licenseNumber);
+                return null;
+            }
+        }
+        PublicLicenseDto cached = e.license();
+        return cached.toBuilder()
+                .isValid(isValid(cached.getStatus(), cached.getExpiryDate()))
+                .build();
+    }
+
+    /** Taken before the database lookup whose result is later passed to {@link #put}. */
+    public long stamp() {
+        synchronized (entries) {
+            return invalidations;
+        }
+    }
+
+    public void put(PublicLicenseDto license, long stamp) {
+        synchronized (entries) {
+            if (stamp != invalidations)
+                return;
+            entries.put(license.getLicenseNumber(), new Entry(license, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    /**
+     * Drops the entry now and again once the current transaction commits.
+     * Both bump the stamp, so a reader that looked the license up before the
+     * commit cannot cache the row it saw.
+     */
+    public void evict(String licenseNumber) {
+        remove(licenseNumber);
+        AfterCommit.run(() -> remove(licenseNumber));
+    }
+
+    public static boolean isValid(String status, LocalDate expiryDate) {
+        return "ACTIVE".equals(status) && expiryDate != null && !expiryDate.isBefore(LocalDate.now());
+    }
+
+    private void remove(String licenseNumber) {
+        synchronized (entries) {
+            entries.remove(licenseNumber);
+            invalidations++;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ye.gov.sanaa.healthoffice.dto.NearbyFacilityDto;
+import ye.gov.sanaa.healthoffice.repository.LicenseRepository;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grid of active facilities holding a current license, answering k-nearest
+ * queries for the public portal.
+ *
+ * A query walks rings of cells outward from the caller's cell, keeping the
+ * k best hits in a bounded max-heap, and stops as soon as the next ring is
+ * provably farther than the k-th hit. If the ring walk would touch more
+ * cells than there are facilities (sparse or far-flung data) it switches to
+ * a linear scan, so the worst case stays O(n).
+ *
+ * Rebuilt at startup and nightly (licenses expire without an update), and
+ * refreshed per facility after commits that issue, revoke or renew a
+ * license or move a facility.
+ */
+@Component
+public class LicensedFacilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LicensedFacilityIndex.class);
+
+    private static final String ALL_TYPES = "*";
+
+    private final LicenseRepository licenseRepository;
+    private final double cellDegrees;
+
+    private final Map<String, Grid> grids = new ConcurrentHashMap<>();
+
+    private record Entry(long facilityId, double lat, double lon, NearbyFacilityDto facility) {
+    }
+
+    private record Hit(Entry entry, double distance) {
+    }
+
+    public LicensedFacilityIndex(LicenseRepository licenseRepository,
+            @Value("${gis.grid.cell-degrees:0.01}") double cellDegrees) {
+        this.licenseRepository = licenseRepository;
+        this.cellDegrees = cellDegrees;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${gis.nearby.rebuild-cron:0 15 0 * * *}")
+    public synchronized void rebuild() {
+        List<Object[]> rows = licenseRepository.findLicensedFacilityLocations(LocalDate.now());
+        Map<String, Grid> fresh = new HashMap<>();
+        for (Object[] r : rows) {
+            Entry e = toEntry(r);
+            fresh.computeIfAbsent(ALL_TYPES, t -> new Grid()).put(e);
+            fresh.computeIfAbsent(e.facility().getFacilityType(), t -> new Grid()).put(e);
+        }
+        grids.keySet().retainAll(fresh.keySet());
+        grids.putAll(fresh);
+        log.info("Licensed facility index built: {} facilities", fresh.containsKey(ALL_TYPES)
+                ? fresh.get(ALL_TYPES).byId.size() : 0);
+    }
+
+    /** Re-reads one facility after the current transaction commits. */
+    public void refresh(Long facilityId) {
+        if (facilityId == null)
+            return;
+        AfterCommit.run(() -> reload(facilityId));
+    }
+
+    /** The k nearest licensed facilities, optionally of one type, closest first. */
+    public List<NearbyFacilityDto> nearest(double lat, double lon, String facilityType, int k) {
+        Grid grid = grids.get(facilityType != null ? facilityType : ALL_TYPES);
+        if (grid == null || k <= 0)
+            return List.of();
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble(Hit::distance).reversed());
+        int row0 = cell(lat), col0 = cell(lon);
+        // Smallest side of a cell at this latitude, in meters
+        double cellMeters = cellDegrees * FacilityGridIndex.METERS_PER_DEGREE_LAT
+                * Math.min(1.0, Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+        int maxRing = grid.maxRingFrom(row0, col0);
+        int budget = grid.byId.size();
+        int visited = 0;
+
+        for (int r = 0; r <= maxRing; r++) {
+            for (int row = row0 - r; row <= row0 + r; row++) {
+                boolean edgeRow = row == row0 - r || row == row0 + r;
+                for (int col = col0 - r; col <= col0 + r; col += edgeRow || r == 0 ? 1 : 2 * r) {
+                    offer(best, k, grid.cells.get(key(row, col)), lat, lon);
+                    visited++;
+                }
+            }
+            if (best.size() == k && best.peek().distance() <= r * cellMeters)
+                break;
+            if (visited > budget) {
+                best.clear();
+                offer(best, k, grid.byId, lat, lon);
+                break;
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(Hit::distance));
+        List<NearbyFacilityDto> result = new ArrayList<>(hits.size());
+        for (Hit h : hits) {
+            result.add(h.entry().facility().toBuilder().distanceMeters(Math.round(h.distance() * 10) / 10.0).build());
+        }
+        return result;
+    }
+
+    private static void offer(PriorityQueue<Hit> best, int k, Map<Long, Entry> bucket, double lat, double lon) {
+        if (bucket == null)
+            return;
+        for (Entry e : bucket.values()) {
+            double d = GISService.distanceMeters(lat, lon, e.lat(), e.lon());
+            if (best.size() < k) {
+                best.add(new Hit(e, d));
+            } else if (d < best.peek().distance()) {
+                best.poll();
+                best.add(new Hit(e, d));
+            }
+        }
+    }
+
+    private synchronized void reload(Long facilityId) {
+        for (Grid g : grids.values()) {
+            g.remove(facilityId);
+        }
+        for (Object[] r : licenseRepository.findLicensedFacilityLocation(facilityId, LocalDate.now())) {
+            Entry e = toEntry(r);
+            grids.computeIfAbsent(ALL_TYPES, t -> new Grid()).put(e);
+            grids.computeIfAbsent(e.facility().getFacilityType(), t -> new Grid()).put(e);
+        }
+    }
+
+    private Entry toEntry(Object[] r) {
+        NearbyFacilityDto dto = NearbyFacilityDto.builder()
+                .facilityId((Long) r[0])
+                .facilityType((String) r[1])
+                .nameAr((String) r[2])
+                .nameEn((String) r[3])
+                .district((String) r[4])
+                .area((String) r[5])
+                .latitude((Double) r[6])
+                .longitude((Double) r[7])
+                .licenseNumber((String) r[8])
+                .licenseExpiryDate((LocalDate) r[9])
+                .build();
+        return new Entry(dto.getFacilityId(), dto.getLatitude(), dto.getLongitude(), dto);
+    }
+
+    private int cell(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    // Mutated only under the index lock; read concurrently by queries.
+    private final class Grid {
+        final Map<Long, Map<Long, Entry>> cells = new ConcurrentHashMap<>();
+        final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+        volatile int minRow = Integer.MAX_VALUE, maxRow = Integer.MIN_VALUE;
+        volatile int minCol = Integer.MAX_VALUE, maxCol = Integer.MIN_VALUE;
+
+        void put(Entry e) {
+            // A facility with several current licenses is listed once
+            remove(e.facilityId());
+            int row = cell(e.lat()), col = cell(e.lon());
+            byId.put(e.facilityId(), e);
+            cells.computeIfAbsent(key(row, col), c -> new ConcurrentHashMap<>()).put(e.facilityId(), e);
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minCol = Math.min(minCol, col);
+            maxCol = Math.max(maxCol, col);
+        }
+
+        void remove(long facilityId) {
+            Entry old = byId.remove(facilityId);
+            if (old != null) {
+                Map<Long, Entry> bucket = cells.get(key(cell(old.lat()), cell(old.lon())));
+                if (bucket != null)
+                    bucket.remove(facilityId);
+            }
+        }
+
+        int maxRingFrom(int row, int col) {
+            if (byId.isEmpty())
+                return -1;
+            return Math.max(Math.max(Math.abs(row - minRow), Math.abs(row - maxRow)),
+                    Math.max(Math.abs(col - minCol), Math.abs(col - maxCol)));
+        }
+    }
+}
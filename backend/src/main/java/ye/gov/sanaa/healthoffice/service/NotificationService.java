@@ -13,27 +13,16 @@ import ye.gov.sanaa.healthoffice.repository.*;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final AdminRepository adminRepository;
-    private final FacilityUserRepository facilityUserRepository;
+    private final OutboxService outboxService;
 
+    // Both notify methods go through the outbox, so notifications only
+    // appear once the transaction that raised them has committed.
     public void notifyUser(Long userId, String titleAr, String titleEn, String bodyAr, String bodyEn, String type) {
-        Notification n = Notification.builder()
-                .recipientUser(facilityUserRepository.findById(userId).orElse(null))
-                .titleAr(titleAr).titleEn(titleEn)
-                .bodyAr(bodyAr).bodyEn(bodyEn)
-                .type(type)
-                .build();
-        notificationRepository.save(n);
+        outboxService.notifyUser(userId, titleAr, titleEn, bodyAr, bodyEn, type);
     }
 
     public void notifyAdmin(Long adminId, String titleAr, String titleEn, String bodyAr, String bodyEn, String type) {
-        Notification n = Notification.builder()
-                .recipientAdmin(adminRepository.findById(adminId).orElse(null))
-                .titleAr(titleAr).titleEn(titleEn)
-                .bodyAr(bodyAr).bodyEn(bodyEn)
-                .type(type)
-                .build();
-        notificationRepository.save(n);
+        outboxService.notifyAdmin(adminId, titleAr, titleEn, bodyAr, bodyEn, type);
     }
 
     public Page<NotificationDto> getUserNotifications(Long userId, Pageable pageable) {
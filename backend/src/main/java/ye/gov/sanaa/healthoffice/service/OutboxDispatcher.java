@@ -0,0 +1,117 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ye.gov.sanaa.healthoffice.dto.OutboxMessage;
+import ye.gov.sanaa.healthoffice.entity.OutboxEvent;
+import ye.gov.sanaa.healthoffice.repository.OutboxEventRepository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains outbox_events in batches, handing the messages to AuditLogWriter
+ * and deleting the drained rows in the same transaction. A batch that fails
+ * is retried row by row so one bad payload cannot stall the queue; rows that
+ * keep failing stop being picked up after outbox.max-attempts.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, AuditLogWriter auditLogWriter,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${outbox.batch-size:200}") int batchSize,
+            @Value("${outbox.max-attempts:5}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.auditLogWriter = auditLogWriter;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatch-interval-ms:500}")
+    public void dispatch() {
+        int drained;
+        do {
+            drained = dispatchBatch();
+        } while (drained == batchSize);
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.warn("Outbox drain on shutdown failed; rows remain for the next start", e);
+        }
+    }
+
+    private int dispatchBatch() {
+        try {
+            Integer n = transactionTemplate.execute(status -> {
+                List<OutboxEvent> events = outboxEventRepository.lockNextBatch(maxAttempts,
+                        PageRequest.of(0, batchSize));
+                if (events.isEmpty())
+                    return 0;
+                List<OutboxMessage> messages = new ArrayList<>();
+                for (OutboxEvent e : events) {
+                    messages.addAll(parse(e));
+                }
+                auditLogWriter.write(messages);
+                outboxEventRepository.deleteAllInBatch(events);
+                return events.size();
+            });
+            return n != null ? n : 0;
+        } catch (RuntimeException batchFailure) {
+            log.warn("Outbox batch failed, retrying rows individually: {}", batchFailure.getMessage());
+            return dispatchIndividually();
+        }
+    }
+
+    private int dispatchIndividually() {
+        List<Long> ids = transactionTemplate.execute(status -> outboxEventRepository
+                .lockNextBatch(maxAttempts, PageRequest.of(0, batchSize)).stream().map(OutboxEvent::getId).toList());
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findById(id).ifPresent(e -> {
+                    auditLogWriter.write(parse(e));
+                    outboxEventRepository.delete(e);
+                }));
+            } catch (RuntimeException rowFailure) {
+                log.error("Outbox event {} failed: {}", id, rowFailure.getMessage());
+                transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findById(id)
+                        .ifPresent(e -> e.setAttempts(e.getAttempts() + 1)));
+            }
+        }
+        return 0;
+    }
+
+    private List<OutboxMessage> parse(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), new TypeReference<List<OutboxMessage>>() {
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Unreadable outbox payload in event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ye.gov.sanaa.healthoffice.dto.OutboxMessage;
+import ye.gov.sanaa.healthoffice.entity.OutboxEvent;
+import ye.gov.sanaa.healthoffice.repository.OutboxEventRepository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox for audit entries and notifications.
+ *
+ * Messages enqueued inside a transaction are collected and written as a
+ * single outbox row just before that transaction commits, so a workflow
+ * step pays for one INSERT no matter how many side effects it has, and
+ * the side effects disappear with it on rollback. Outside a transaction
+ * each message is written as its own row immediately.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final Object PENDING_KEY = OutboxService.class.getName() + ".PENDING";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public void audit(Long adminId, Long userId, String action, String entityType, Long entityId, String details) {
+        enqueue(auditMessage(adminId, userId, action, entityType, entityId, details));
+    }
+
+    static OutboxMessage auditMessage(Long adminId, Long userId, String action, String entityType,
+            Long entityId, String details) {
+        return OutboxMessage.builder()
+                .kind("AUDIT")
+                .occurredAt(OffsetDateTime.now())
+                .actorAdminId(adminId)
+                .actorUserId(userId)
+                .action(action)
+                .entityType(entityType)
+                .entityId(entityId)
+                .details(details)
+                .build();
+    }
+
+    public void notifyUser(Long userId, String titleAr, String titleEn, String bodyAr, String bodyEn, String type) {
+        enqueue(notification("NOTIFY_USER", userId, titleAr, titleEn, bodyAr, bodyEn, type));
+    }
+
+    public void notifyAdmin(Long adminId, String titleAr, String titleEn, String bodyAr, String bodyEn, String type) {
+        enqueue(notification("NOTIFY_ADMIN", adminId, titleAr, titleEn, bodyAr, bodyEn, type));
+    }
+
+    private OutboxMessage notification(String kind, Long recipientId, String titleAr, String titleEn,
+            String bodyAr, String bodyEn, String type) {
+        return OutboxMessage.builder()
+                .kind(kind)
+                .occurredAt(OffsetDateTime.now())
+                .recipientId(recipientId)
+                .titleAr(titleAr).titleEn(titleEn)
+                .bodyAr(bodyAr).bodyEn(bodyEn)
+                .type(type)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void enqueue(OutboxMessage message) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            persist(List.of(message));
+            return;
+        }
+
+        List<OutboxMessage> pending = (List<OutboxMessage>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            List<OutboxMessage> batch = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    persist(batch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = batch;
+        }
+        pending.add(message);
+    }
+
+    // Package-private so AuditBuffer can park a batch it failed to write.
+    void persist(List<OutboxMessage> messages) {
+        if (messages.isEmpty())
+            return;
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .payload(objectMapper.writeValueAsString(messages))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox messages: " + e.getMessage(), e);
+        }
+    }
+}
@@ -5,9 +5,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ye.gov.sanaa.healthoffice.dto.CursorPage;
 import ye.gov.sanaa.healthoffice.dto.PaymentDto;
 import ye.gov.sanaa.healthoffice.entity.*;
+import ye.gov.sanaa.healthoffice.exception.ConflictException;
 import ye.gov.sanaa.healthoffice.repository.*;
+import ye.gov.sanaa.healthoffice.workflow.ApplicationWorkflow;
+import ye.gov.sanaa.healthoffice.workflow.Transition;
+import ye.gov.sanaa.healthoffice.workflow.WorkflowAction;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -24,17 +29,15 @@ public class PaymentService {
         private final SystemSettingRepository systemSettingRepository;
         private final AuditService auditService;
         private final NotificationService notificationService;
+        private final DashboardCounterStore dashboardCounters;
+        private final ApplicationWorkflow workflow;
 
         @Transactional
         public PaymentDto createPaymentOrder(Long applicationId, Long adminId) {
                 Application app = applicationRepository.findById(applicationId)
                                 .orElseThrow(() -> new RuntimeException("Application not found"));
 
-                if (!"COMMITTEE_APPROVED".equals(app.getStatus()) && !"PAYMENT_PENDING".equals(app.getStatus())) {
-                        throw new RuntimeException(
-                                        "Payment can only be created after committee approval. Current status: "
-                                                        + app.getStatus());
-                }
+                Transition t = workflow.require(app.getFacilityType(), app.getStatus(), WorkflowAction.CREATE_PAYMENT);
 
                 BigDecimal fee = systemSettingRepository
                                 .findByCategoryAndSettingKey("FEES", "LICENSE_FEE_" + app.getFacilityType())
@@ -52,8 +55,10 @@ public class PaymentService {
                                 .build();
                 payment = paymentRepository.save(payment);
 
-                app.setStatus("PAYMENT_PENDING");
+                String previousStatus = app.getStatus();
+                app.setStatus(t.to().name());
                 applicationRepository.save(app);
+                dashboardCounters.recordTransition(previousStatus, t.to().name());
 
                 auditService.log(adminId, null, "CREATE_PAYMENT", "PAYMENT", payment.getId(),
                                 "Payment order created: " + paymentRef + ", amount: " + fee);
@@ -72,8 +77,10 @@ public class PaymentService {
                                 .orElseThrow(() -> new RuntimeException("Payment not found"));
 
                 if (!"PENDING".equals(payment.getStatus())) {
-                        throw new RuntimeException("Payment already processed");
+                        throw new ConflictException("Payment already processed");
                 }
+                Application app = payment.getApplication();
+                Transition t = workflow.require(app.getFacilityType(), app.getStatus(), WorkflowAction.CONFIRM_PAYMENT);
 
                 payment.setStatus("PAID");
                 payment.setPaidAt(OffsetDateTime.now());
@@ -81,9 +88,10 @@ public class PaymentService {
                 payment.setExternalTransactionId(externalTxId);
                 paymentRepository.save(payment);
 
-                Application app = payment.getApplication();
-                app.setStatus("PAYMENT_COMPLETED");
+                String previousStatus = app.getStatus();
+                app.setStatus(t.to().name());
                 applicationRepository.save(app);
+                dashboardCounters.recordTransition(previousStatus, t.to().name());
 
                 auditService.log(null, null, "CONFIRM_PAYMENT", "PAYMENT", payment.getId(),
                                 "Payment confirmed via " + channel);
@@ -106,6 +114,15 @@ public class PaymentService {
                 return paymentRepository.findAll(pageable).map(this::toDto);
         }
 
+        @Transactional(readOnly = true)
+        public CursorPage<PaymentDto> getAllByCursor(String after, Integer size) {
+                KeysetCursor cursor = KeysetCursor.decode(after);
+                int limit = KeysetCursor.clampSize(size);
+                List<Payment> rows = paymentRepository.findPageBefore(
+                                cursor.getTimestamp(), cursor.getId(), KeysetCursor.probe(limit));
+                return KeysetCursor.toPage(rows, limit, Payment::getCreatedAt, Payment::getId, this::toDto);
+        }
+
         private PaymentDto toDto(Payment p) {
                 return PaymentDto.builder()
                                 .id(p.getId())
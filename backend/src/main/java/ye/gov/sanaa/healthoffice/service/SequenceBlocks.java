@@ -0,0 +1,31 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Id blocks taken from a table's sequence the way Hibernate's pooled
+ * optimizer takes them, so rows written with plain JDBC never reuse ids
+ * that entity inserts hand out.
+ *
+ * Every entity sequence is START 1 INCREMENT 50 with allocationSize 50, and
+ * each nextval is the top of the block [hi - 49, hi]. The one exception is
+ * the first value of a fresh sequence: Hibernate then calls nextval again
+ * and uses 1..hi2, so the same is done here. Two writers that both start
+ * on a fresh sequence can still overlap, as two Hibernate instances can.
+ */
+public final class SequenceBlocks {
+
+    // Must match allocationSize on the entities
+    public static final int ALLOCATION_SIZE = 50;
+
+    private SequenceBlocks() {
+    }
+
+    /** The next block as {first, last}; {@code nextval} calls the sequence. */
+    public static long[] next(LongSupplier nextval) {
+        long hi = nextval.getAsLong();
+        if (hi <= ALLOCATION_SIZE)
+            return new long[] { 1, nextval.getAsLong() };
+        return new long[] { hi - ALLOCATION_SIZE + 1, hi };
+    }
+}
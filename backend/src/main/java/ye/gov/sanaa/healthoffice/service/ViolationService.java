@@ -4,9 +4,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import ye.gov.sanaa.healthoffice.entity.Application;
 import ye.gov.sanaa.healthoffice.entity.FacilityUser;
+import ye.gov.sanaa.healthoffice.entity.Inspection;
 import ye.gov.sanaa.healthoffice.entity.Violation;
 import ye.gov.sanaa.healthoffice.repository.ApplicationRepository;
 import ye.gov.sanaa.healthoffice.repository.FacilityUserRepository;
+import ye.gov.sanaa.healthoffice.repository.InspectionRepository;
 import ye.gov.sanaa.healthoffice.repository.ViolationRepository;
 
 import java.util.List;
@@ -19,9 +21,23 @@ public class ViolationService {
     private final NotificationService notificationService;
     private final ApplicationRepository applicationRepository;
     private final FacilityUserRepository facilityUserRepository;
+    private final InspectionRepository inspectionRepository;
 
     public Violation addViolation(Violation violation) {
+        // The request only carries ids. Bound as detached entities they have no
+        // version, which Hibernate rejects for versioned Application/Inspection,
+        // so persist against references and hand the caller's objects back.
+        Application requestedApp = violation.getApplication();
+        Inspection requestedInspection = violation.getInspection();
+        if (requestedApp != null) {
+            violation.setApplication(applicationRepository.getReferenceById(requestedApp.getId()));
+        }
+        if (requestedInspection != null) {
+            violation.setInspection(inspectionRepository.getReferenceById(requestedInspection.getId()));
+        }
         Violation saved = violationRepository.save(violation);
+        saved.setApplication(requestedApp);
+        saved.setInspection(requestedInspection);
 
         // Notify the facility owner
         if (violation.getApplication() != null) {
@@ -0,0 +1,37 @@
+package ye.gov.sanaa.healthoffice.workflow;
+
+/**
+ * Application states, stored by name in applications.status. Each state
+ * reached through the regular workflow records an application step with the
+ * code and order given here.
+ */
+public enum ApplicationStatus {
+    DRAFT("DRAFT", 1),
+    SUBMITTED("SUBMIT", 2),
+    UNDER_REVIEW("LICENSING_REVIEW", 3),
+    BLUEPRINT_REVIEW("BLUEPRINT_REVIEW", 4),
+    INSPECTION_SCHEDULED("INSPECTION_SCHEDULING", 5),
+    INSPECTION_COMPLETED("INSPECTION_REPORT", 6),
+    COMMITTEE_APPROVED("COMMITTEE_APPROVAL", 7),
+    PAYMENT_PENDING("PAYMENT_ORDER", 8),
+    PAYMENT_COMPLETED("ELECTRONIC_PAYMENT", 9),
+    LICENSE_ISSUED("LICENSE_ISSUANCE", 10),
+    ARCHIVED("ARCHIVE", 11),
+    REJECTED(null, 0);
+
+    private final String stepCode;
+    private final int stepOrder;
+
+    ApplicationStatus(String stepCode, int stepOrder) {
+        this.stepCode = stepCode;
+        this.stepOrder = stepOrder;
+    }
+
+    public String getStepCode() {
+        return stepCode;
+    }
+
+    public int getStepOrder() {
+        return stepOrder;
+    }
+}
@@ -0,0 +1,182 @@
+package ye.gov.sanaa.healthoffice.workflow;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import ye.gov.sanaa.healthoffice.entity.Admin;
+import ye.gov.sanaa.healthoffice.entity.Role;
+import ye.gov.sanaa.healthoffice.exception.ConflictException;
+
+import java.util.*;
+
+import static ye.gov.sanaa.healthoffice.workflow.ApplicationStatus.*;
+import static ye.gov.sanaa.healthoffice.workflow.SideEffect.*;
+import static ye.gov.sanaa.healthoffice.workflow.WorkflowAction.*;
+
+/**
+ * The application workflow as a transition table indexed by
+ * [status.ordinal()][action.ordinal()], compiled once at startup: the
+ * default table below plus one variant per facility type configured under
+ * workflow.variants. Services ask it whether an action is allowed, which
+ * state follows, which side effects to run and which roles may do it,
+ * instead of comparing status strings themselves.
+ */
+@Component
+public class ApplicationWorkflow {
+
+    private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+    private static final WorkflowAction[] ACTIONS = WorkflowAction.values();
+
+    private static final Map<WorkflowAction, Set<String>> DEFAULT_ROLES = Map.of(
+            SUBMIT, Set.of(),
+            ADVANCE, Set.of("ADMIN", "REVIEWER"),
+            REJECT, Set.of("ADMIN", "REVIEWER"),
+            SCHEDULE_INSPECTION, Set.of("ADMIN", "REVIEWER"),
+            COMPLETE_INSPECTION, Set.of("ADMIN", "INSPECTOR"),
+            CREATE_PAYMENT, Set.of("ADMIN", "FINANCE"),
+            CONFIRM_PAYMENT, Set.of("ADMIN", "FINANCE"),
+            GENERATE_LICENSE, Set.of("ADMIN"));
+
+    private final Transition[][] defaultTable;
+    private final Map<String, Transition[][]> variants = new HashMap<>();
+
+    public ApplicationWorkflow(WorkflowProperties properties) {
+        Map<WorkflowAction, Set<String>> roles = new EnumMap<>(DEFAULT_ROLES);
+        properties.getRoles().forEach((action, codes) -> roles.put(action(action), Set.copyOf(codes)));
+
+        List<Transition> defaults = defaultTransitions(roles);
+        defaultTable = compile(defaults);
+        properties.getVariants().forEach((facilityType, overrides) -> {
+            Transition[][] table = compile(defaults);
+            for (WorkflowProperties.TransitionOverride o : overrides) {
+                ApplicationStatus from = status(o.getFrom());
+                WorkflowAction action = action(o.getAction());
+                if (o.getTo() == null || o.getTo().isBlank()) {
+                    table[from.ordinal()][action.ordinal()] = null;
+                    continue;
+                }
+                ApplicationStatus to = status(o.getTo());
+                Set<String> allowed = o.getRoles().isEmpty() ? roles.get(action) : Set.copyOf(o.getRoles());
+                table[from.ordinal()][action.ordinal()] = new Transition(from, action, to,
+                        effectsOf(action, to), allowed);
+            }
+            variants.put(facilityType, table);
+        });
+    }
+
+    /** The transition for this action, or ConflictException if the status does not allow it. */
+    public Transition require(String facilityType, String status, WorkflowAction action) {
+        Transition t = find(facilityType, status, action);
+        if (t != null)
+            return t;
+        if (action == ADVANCE) {
+            // Point at the dedicated operation when there is one
+            Transition[] row = table(facilityType)[status(status).ordinal()];
+            for (Transition other : row) {
+                if (other != null && other.action() != REJECT && other.to() != other.from())
+                    throw new ConflictException("Cannot manually advance. Must " + other.action().getDescription() + ".");
+            }
+        }
+        throw new ConflictException("Cannot " + action.getDescription() + " from status " + status);
+    }
+
+    public Transition find(String facilityType, String status, WorkflowAction action) {
+        return table(facilityType)[status(status).ordinal()][action.ordinal()];
+    }
+
+    public boolean allows(String facilityType, String status, WorkflowAction action) {
+        return find(facilityType, status, action) != null;
+    }
+
+    /** AccessDeniedException unless the admin holds one of the transition's roles. */
+    public void checkRole(Transition t, Admin admin) {
+        if (t.roles().isEmpty())
+            return;
+        for (Role r : admin.getRoles()) {
+            if (t.roles().contains(r.getCode()))
+                return;
+        }
+        throw new AccessDeniedException("Only " + t.roles() + " may " + t.action().getDescription());
+    }
+
+    private Transition[][] table(String facilityType) {
+        Transition[][] variant = facilityType != null ? variants.get(facilityType) : null;
+        return variant != null ? variant : defaultTable;
+    }
+
+    private static List<Transition> defaultTransitions(Map<WorkflowAction, Set<String>> roles) {
+        List<Transition> list = new ArrayList<>();
+        // Main line, one manual advance per review stage
+        ApplicationStatus[][] advances = {
+                { DRAFT, SUBMITTED },
+                { SUBMITTED, UNDER_REVIEW },
+                { UNDER_REVIEW, BLUEPRINT_REVIEW },
+                { BLUEPRINT_REVIEW, INSPECTION_SCHEDULED },
+                { INSPECTION_COMPLETED, COMMITTEE_APPROVED },
+                { PAYMENT_COMPLETED, LICENSE_ISSUED },
+                { LICENSE_ISSUED, ARCHIVED } };
+        for (ApplicationStatus[] a : advances) {
+            list.add(new Transition(a[0], ADVANCE, a[1], effectsOf(ADVANCE, a[1]), roles.get(ADVANCE)));
+        }
+        list.add(new Transition(DRAFT, SUBMIT, SUBMITTED, effectsOf(SUBMIT, SUBMITTED), roles.get(SUBMIT)));
+        for (ApplicationStatus from : List.of(UNDER_REVIEW, BLUEPRINT_REVIEW, INSPECTION_SCHEDULED)) {
+            list.add(new Transition(from, SCHEDULE_INSPECTION, INSPECTION_SCHEDULED,
+                    effectsOf(SCHEDULE_INSPECTION, INSPECTION_SCHEDULED), roles.get(SCHEDULE_INSPECTION)));
+        }
+        list.add(new Transition(INSPECTION_SCHEDULED, COMPLETE_INSPECTION, INSPECTION_COMPLETED,
+                effectsOf(COMPLETE_INSPECTION, INSPECTION_COMPLETED), roles.get(COMPLETE_INSPECTION)));
+        for (ApplicationStatus from : List.of(COMMITTEE_APPROVED, PAYMENT_PENDING)) {
+            list.add(new Transition(from, CREATE_PAYMENT, PAYMENT_PENDING,
+                    effectsOf(CREATE_PAYMENT, PAYMENT_PENDING), roles.get(CREATE_PAYMENT)));
+        }
+        list.add(new Transition(PAYMENT_PENDING, CONFIRM_PAYMENT, PAYMENT_COMPLETED,
+                effectsOf(CONFIRM_PAYMENT, PAYMENT_COMPLETED), roles.get(CONFIRM_PAYMENT)));
+        // Generating the document leaves the status alone
+        for (ApplicationStatus from : List.of(PAYMENT_COMPLETED, LICENSE_ISSUED)) {
+            list.add(new Transition(from, GENERATE_LICENSE, from, Set.of(), roles.get(GENERATE_LICENSE)));
+        }
+        for (ApplicationStatus from : STATUSES) {
+            if (from != REJECTED && from != ARCHIVED)
+                list.add(new Transition(from, REJECT, REJECTED, Set.of(), roles.get(REJECT)));
+        }
+        return list;
+    }
+
+    // Effects follow from how the target state is entered, so variants that
+    // reroute an edge keep the right ones
+    private static Set<SideEffect> effectsOf(WorkflowAction action, ApplicationStatus to) {
+        if (action != ADVANCE)
+            return Set.of();
+        EnumSet<SideEffect> effects = EnumSet.of(RECORD_STEP);
+        if (to == COMMITTEE_APPROVED)
+            effects.add(NOTIFY_COMMITTEE_APPROVED);
+        if (to == LICENSE_ISSUED) {
+            effects.add(ISSUE_LICENSE);
+            effects.add(NOTIFY_LICENSE_ISSUED);
+        }
+        return Collections.unmodifiableSet(effects);
+    }
+
+    private static Transition[][] compile(List<Transition> transitions) {
+        Transition[][] table = new Transition[STATUSES.length][ACTIONS.length];
+        for (Transition t : transitions) {
+            table[t.from().ordinal()][t.action().ordinal()] = t;
+        }
+        return table;
+    }
+
+    private static ApplicationStatus status(String name) {
+        try {
+            return ApplicationStatus.valueOf(name);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalStateException("Unknown application status: " + name);
+        }
+    }
+
+    private static WorkflowAction action(String name) {
+        try {
+            return WorkflowAction.valueOf(name);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalStateException("Unknown workflow action: " + name);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ye.gov.sanaa.healthoffice.workflow;
+
+/** Work a transition requires besides the status change itself. */
+public enum SideEffect {
+    /** Append an application step for the target state. */
+    RECORD_STEP,
+    /** Stamp approved_at and create the license record. */
+    ISSUE_LICENSE,
+    NOTIFY_COMMITTEE_APPROVED,
+    NOTIFY_LICENSE_ISSUED
+}
@@ -0,0 +1,12 @@
+package ye.gov.sanaa.healthoffice.workflow;
+
+import java.util.Set;
+
+/** One compiled edge of the workflow; effects and roles are immutable. */
+public record Transition(ApplicationStatus from, WorkflowAction action, ApplicationStatus to,
+        Set<SideEffect> effects, Set<String> roles) {
+
+    public boolean has(SideEffect effect) {
+        return effects.contains(effect);
+    }
+}
@@ -0,0 +1,23 @@
+package ye.gov.sanaa.healthoffice.workflow;
+
+/** Operations that move an application between states. */
+public enum WorkflowAction {
+    SUBMIT("submit the application"),
+    ADVANCE("advance manually"),
+    REJECT("reject"),
+    SCHEDULE_INSPECTION("schedule inspection"),
+    COMPLETE_INSPECTION("complete inspection"),
+    CREATE_PAYMENT("generate payment order"),
+    CONFIRM_PAYMENT("confirm payment"),
+    GENERATE_LICENSE("generate the license");
+
+    private final String description;
+
+    WorkflowAction(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
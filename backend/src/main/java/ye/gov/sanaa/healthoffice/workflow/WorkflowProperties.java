@@ -0,0 +1,32 @@
+package ye.gov.sanaa.healthoffice.workflow;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** workflow.* settings: role overrides and per-facility-type variants. */
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow")
+public class WorkflowProperties {
+
+    // Action name -> admin role codes allowed to perform it, for every facility type
+    private Map<String, List<String>> roles = new HashMap<>();
+
+    // Facility type -> transitions replacing (or adding to) the default table
+    private Map<String, List<TransitionOverride>> variants = new HashMap<>();
+
+    @Data
+    public static class TransitionOverride {
+        private String from;
+        private String action;
+        // Empty removes the transition for this facility type
+        private String to;
+        private List<String> roles = new ArrayList<>();
+    }
+}
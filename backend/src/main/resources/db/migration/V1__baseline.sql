@@ -1,5 +1,11 @@
 -- PostgreSQL schema for Health and Environment Office – Capital Secretariat, Sana’a
--- Core master tables
+--
+-- Baseline: the schema ddl-auto created from the entities before migrations,
+-- so databases created that way are marked as this version
+-- (spring.flyway.baseline-on-migrate) and only pick up the later scripts. New
+-- databases run this too, so both reach the current schema the same way.
+
+-- Roles & users
 
 CREATE TABLE roles (
     id              BIGSERIAL PRIMARY KEY,
@@ -18,11 +24,32 @@ CREATE TABLE permissions (
 );
 
 CREATE TABLE role_permissions (
-    role_id         BIGINT NOT NULL REFERENCES roles(id) ON DELETE CASCADE,
-    permission_id   BIGINT NOT NULL REFERENCES permissions(id) ON DELETE CASCADE,
-    PRIMARY KEY (role_id, permission_id)
+    role_id         BIGINT NOT NULL REFERENCES roles(id),
+    permission_id   BIGINT NOT NULL REFERENCES permissions(id),
+    PRIMARY KEY (permission_id, role_id)
+);
+
+CREATE TABLE admins (
+    id              BIGSERIAL PRIMARY KEY,
+    full_name       VARCHAR(255) NOT NULL,
+    username        VARCHAR(100) UNIQUE NOT NULL,
+    password_hash   VARCHAR(255) NOT NULL,
+    phone_number    VARCHAR(30),
+    email           VARCHAR(150),
+    enabled         BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    last_login_at   TIMESTAMPTZ
+);
+
+CREATE TABLE admin_roles (
+    admin_id        BIGINT NOT NULL REFERENCES admins(id),
+    role_id         BIGINT NOT NULL REFERENCES roles(id),
+    PRIMARY KEY (admin_id, role_id)
 );
 
+-- Facilities
+
 CREATE TABLE facilities (
     id                  BIGSERIAL PRIMARY KEY,
     facility_code       VARCHAR(50) UNIQUE NOT NULL,
@@ -33,33 +60,23 @@ CREATE TABLE facilities (
     district            VARCHAR(150),
     area                VARCHAR(150),
     street              VARCHAR(150),
+    latitude            DOUBLE PRECISION,
+    longitude           DOUBLE PRECISION,
     property_owner      VARCHAR(255),
     ownership_proof_url TEXT,
     site_sketch_url     TEXT,
-    rooms_count         INT CHECK (rooms_count >= 0),
+    rooms_count         INT,
     is_active           BOOLEAN NOT NULL DEFAULT TRUE,
     created_at          TIMESTAMPTZ NOT NULL DEFAULT NOW(),
     updated_at          TIMESTAMPTZ NOT NULL DEFAULT NOW()
 );
 
-CREATE TABLE admins (
-    id              BIGSERIAL PRIMARY KEY,
-    full_name       VARCHAR(255) NOT NULL,
-    username        VARCHAR(100) UNIQUE NOT NULL,
-    password_hash   VARCHAR(255) NOT NULL,
-    phone_number    VARCHAR(30),
-    email           VARCHAR(150),
-    role_id         BIGINT NOT NULL REFERENCES roles(id),
-    is_active       BOOLEAN NOT NULL DEFAULT TRUE,
-    created_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
-    updated_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
-    last_login_at   TIMESTAMPTZ
-);
-
 CREATE TABLE facility_users (
     id              BIGSERIAL PRIMARY KEY,
-    facility_id     BIGINT NOT NULL REFERENCES facilities(id) ON DELETE CASCADE,
-    full_name       VARCHAR(255) NOT NULL,
+    facility_id     BIGINT REFERENCES facilities(id),
+    first_name      VARCHAR(255) NOT NULL,
+    middle_name     VARCHAR(255),
+    last_name       VARCHAR(255) NOT NULL,
     phone_number    VARCHAR(30) NOT NULL,
     email           VARCHAR(150),
     national_id     VARCHAR(50),
@@ -71,27 +88,74 @@ CREATE TABLE facility_users (
     updated_at      TIMESTAMPTZ NOT NULL DEFAULT NOW()
 );
 
--- Applications & workflow
+CREATE TABLE medical_professionals (
+    id                      BIGSERIAL PRIMARY KEY,
+    national_id             VARCHAR(20) UNIQUE NOT NULL,
+    full_name_ar            VARCHAR(255) NOT NULL,
+    full_name_en            VARCHAR(255),
+    phone_number            VARCHAR(20),
+    email                   VARCHAR(100),
+    qualification           VARCHAR(255) NOT NULL,
+    specialization          VARCHAR(255) NOT NULL,
+    university              VARCHAR(255),
+    graduation_year         INT,
+    practice_license_number VARCHAR(50) UNIQUE NOT NULL,
+    license_issue_date      DATE,
+    license_expiry_date     DATE NOT NULL,
+    created_at              TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at              TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
 
-CREATE TABLE applications (
+CREATE TABLE facility_staff (
     id                      BIGSERIAL PRIMARY KEY,
-    application_number      VARCHAR(50) UNIQUE NOT NULL,
     facility_id             BIGINT NOT NULL REFERENCES facilities(id),
-    submitted_by_user_id    BIGINT REFERENCES facility_users(id),
-    status                  VARCHAR(30) NOT NULL, -- DRAFT, SUBMITTED, UNDER_REVIEW, INSPECTION_SCHEDULED, ...
-    license_type            VARCHAR(20) NOT NULL, -- NEW, RENEWAL
-    facility_type           VARCHAR(50) NOT NULL,
+    medical_professional_id BIGINT NOT NULL REFERENCES medical_professionals(id),
+    job_title               VARCHAR(255) NOT NULL,
+    is_technical_manager    BOOLEAN NOT NULL DEFAULT FALSE,
+    contract_type           VARCHAR(255),
+    contract_start_date     DATE NOT NULL,
+    contract_end_date       DATE,
+    is_active               BOOLEAN NOT NULL DEFAULT TRUE,
     created_at              TIMESTAMPTZ NOT NULL DEFAULT NOW(),
-    updated_at              TIMESTAMPTZ NOT NULL DEFAULT NOW(),
-    submitted_at            TIMESTAMPTZ,
-    approved_at             TIMESTAMPTZ,
-    rejected_at             TIMESTAMPTZ,
-    rejection_reason        TEXT
+    updated_at              TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Applications & workflow
+
+CREATE TABLE applications (
+    id                          BIGSERIAL PRIMARY KEY,
+    application_number          VARCHAR(50) UNIQUE NOT NULL,
+    facility_id                 BIGINT NOT NULL REFERENCES facilities(id),
+    submitted_by_user_id        BIGINT REFERENCES facility_users(id),
+    status                      VARCHAR(30) NOT NULL, -- see workflow.ApplicationStatus
+    license_type                VARCHAR(20) NOT NULL, -- NEW, RENEWAL
+    facility_type               VARCHAR(50) NOT NULL,
+    supervisor_name             VARCHAR(255),
+    supervisor_phone            VARCHAR(20),
+    supervisor_national_id      VARCHAR(50),
+    supervisor_id_issuer        VARCHAR(255),
+    supervisor_id_issue_date    DATE,
+    supervisor_qualification    VARCHAR(255),
+    supervisor_university       VARCHAR(255),
+    supervisor_qual_issuer      VARCHAR(255),
+    supervisor_qual_date        DATE,
+    supervisor_practice_license VARCHAR(100),
+    supervisor_license_expiry   DATE,
+    prev_issuing_authority      VARCHAR(255),
+    prev_license_number         VARCHAR(100),
+    prev_license_date           DATE,
+    prev_validity_period        VARCHAR(255),
+    created_at                  TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at                  TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    submitted_at                TIMESTAMPTZ,
+    approved_at                 TIMESTAMPTZ,
+    rejected_at                 TIMESTAMPTZ,
+    rejection_reason            TEXT
 );
 
 CREATE TABLE application_steps (
     id                  BIGSERIAL PRIMARY KEY,
-    application_id      BIGINT NOT NULL REFERENCES applications(id) ON DELETE CASCADE,
+    application_id      BIGINT NOT NULL REFERENCES applications(id),
     step_order          INT NOT NULL,
     step_code           VARCHAR(50) NOT NULL, -- DRAFT, SUBMIT, LICENSING_REVIEW, INSPECTION_SCHEDULING, ...
     status              VARCHAR(30) NOT NULL, -- PENDING, IN_PROGRESS, COMPLETED, REJECTED
@@ -103,7 +167,7 @@ CREATE TABLE application_steps (
 
 CREATE TABLE application_documents (
     id                  BIGSERIAL PRIMARY KEY,
-    application_id      BIGINT NOT NULL REFERENCES applications(id) ON DELETE CASCADE,
+    application_id      BIGINT NOT NULL REFERENCES applications(id),
     document_type       VARCHAR(100) NOT NULL,
     reference_number    VARCHAR(100),
     issue_date          DATE,
@@ -115,9 +179,26 @@ CREATE TABLE application_documents (
 
 -- Inspections & violations
 
+CREATE TABLE inspection_templates (
+    id                  BIGSERIAL PRIMARY KEY,
+    name                VARCHAR(255) NOT NULL,
+    facility_type       VARCHAR(255) UNIQUE NOT NULL,
+    created_at          TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at          TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE inspection_template_items (
+    id                  BIGSERIAL PRIMARY KEY,
+    template_id         BIGINT NOT NULL REFERENCES inspection_templates(id),
+    criterion_code      VARCHAR(255) NOT NULL,
+    description         VARCHAR(255) NOT NULL,
+    max_score           NUMERIC(5,2) NOT NULL,
+    item_order          INT
+);
+
 CREATE TABLE inspections (
     id                  BIGSERIAL PRIMARY KEY,
-    application_id      BIGINT NOT NULL REFERENCES applications(id) ON DELETE CASCADE,
+    application_id      BIGINT NOT NULL REFERENCES applications(id),
     scheduled_date      TIMESTAMPTZ,
     actual_visit_date   TIMESTAMPTZ,
     inspector_id        BIGINT REFERENCES admins(id),
@@ -130,17 +211,17 @@ CREATE TABLE inspections (
 
 CREATE TABLE inspection_scores (
     id                  BIGSERIAL PRIMARY KEY,
-    inspection_id       BIGINT NOT NULL REFERENCES inspections(id) ON DELETE CASCADE,
+    inspection_id       BIGINT NOT NULL REFERENCES inspections(id),
     criterion_code      VARCHAR(100) NOT NULL,
     description         TEXT,
-    score               NUMERIC(5,2) NOT NULL,
+    score               NUMERIC(5,2),
     max_score           NUMERIC(5,2) NOT NULL
 );
 
 CREATE TABLE violations (
     id                  BIGSERIAL PRIMARY KEY,
-    inspection_id       BIGINT REFERENCES inspections(id) ON DELETE SET NULL,
-    application_id      BIGINT REFERENCES applications(id) ON DELETE SET NULL,
+    inspection_id       BIGINT REFERENCES inspections(id),
+    application_id      BIGINT REFERENCES applications(id),
     code                VARCHAR(50) NOT NULL,
     description         TEXT NOT NULL,
     penalty             TEXT,
@@ -155,7 +236,7 @@ CREATE TABLE violations (
 
 CREATE TABLE payments (
     id                      BIGSERIAL PRIMARY KEY,
-    application_id          BIGINT NOT NULL REFERENCES applications(id) ON DELETE CASCADE,
+    application_id          BIGINT NOT NULL REFERENCES applications(id),
     payment_reference       VARCHAR(100) UNIQUE NOT NULL,
     governorate_code        VARCHAR(50) NOT NULL,
     amount                  NUMERIC(12,2) NOT NULL,
@@ -169,7 +250,7 @@ CREATE TABLE payments (
 
 CREATE TABLE licenses (
     id                      BIGSERIAL PRIMARY KEY,
-    application_id          BIGINT NOT NULL REFERENCES applications(id) ON DELETE CASCADE,
+    application_id          BIGINT NOT NULL REFERENCES applications(id),
     license_number          VARCHAR(100) UNIQUE NOT NULL,
     issue_date              DATE NOT NULL,
     expiry_date             DATE NOT NULL,
@@ -178,6 +259,36 @@ CREATE TABLE licenses (
     created_at              TIMESTAMPTZ NOT NULL DEFAULT NOW()
 );
 
+-- Public side
+
+CREATE TABLE complaints (
+    id                  BIGSERIAL PRIMARY KEY,
+    citizen_name        VARCHAR(255),
+    citizen_phone       VARCHAR(255) NOT NULL,
+    target_facility_id  BIGINT REFERENCES facilities(id),
+    subject             TEXT NOT NULL,
+    details             TEXT NOT NULL,
+    status              VARCHAR(30) NOT NULL,
+    admin_notes         TEXT,
+    created_at          TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at          TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE public_content (
+    id                  BIGSERIAL PRIMARY KEY,
+    category            VARCHAR(50) NOT NULL,
+    title_ar            VARCHAR(255) NOT NULL,
+    title_en            VARCHAR(255),
+    content_ar          TEXT NOT NULL,
+    content_en          TEXT,
+    image_url           VARCHAR(255),
+    file_url            VARCHAR(255),
+    is_published        BOOLEAN NOT NULL DEFAULT FALSE,
+    author_id           BIGINT REFERENCES admins(id),
+    created_at          TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at          TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
 -- Notifications & settings
 
 CREATE TABLE notifications (
@@ -197,12 +308,14 @@ CREATE TABLE notifications (
 CREATE TABLE system_settings (
     id              BIGSERIAL PRIMARY KEY,
     category        VARCHAR(100) NOT NULL,
-    key             VARCHAR(100) NOT NULL,
-    value           VARCHAR(255) NOT NULL,
+    setting_key     VARCHAR(100) NOT NULL,
+    setting_value   VARCHAR(255) NOT NULL,
     description     TEXT,
-    UNIQUE (category, key)
+    UNIQUE (category, setting_key)
 );
 
+-- Audit
+
 CREATE TABLE audit_logs (
     id              BIGSERIAL PRIMARY KEY,
     event_time      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
@@ -214,4 +327,3 @@ CREATE TABLE audit_logs (
     entity_id       BIGINT,
     details         TEXT
 );
-
@@ -0,0 +1,99 @@
+-- Schema changes made on top of the baseline entities: optimistic locking,
+-- reviewer claims, score vectors, the outbox and template snapshot tables,
+-- keyset pagination indexes and the monthly partitioning of audit_logs.
+-- Every statement checks first, so a database that ddl-auto already moved
+-- part of the way is brought to the same end state. Ids of the new tables
+-- get their sequences in V3.
+
+-- Optimistic locking and the reviewer work queue
+
+ALTER TABLE applications ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE applications ADD COLUMN IF NOT EXISTS claimed_by_admin_id BIGINT; -- work-queue lease holder
+ALTER TABLE applications ADD COLUMN IF NOT EXISTS claim_expires_at TIMESTAMPTZ;
+
+ALTER TABLE inspections ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Inspection templates and score vectors
+
+-- Versioned criteria copies; inspections in score-vector mode align their
+-- score_vector to one of these
+CREATE TABLE IF NOT EXISTS inspection_template_snapshots (
+    id                  BIGINT PRIMARY KEY,
+    template_id         BIGINT NOT NULL,
+    facility_type       VARCHAR(255) NOT NULL,
+    version             INTEGER NOT NULL,
+    content_hash        VARCHAR(64) NOT NULL UNIQUE,
+    criteria            TEXT NOT NULL,
+    created_at          TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+ALTER TABLE inspections ADD COLUMN IF NOT EXISTS template_snapshot_id BIGINT;
+-- Set instead of inspection_scores rows when inspection.score-storage=vector
+ALTER TABLE inspections ADD COLUMN IF NOT EXISTS score_vector JSONB;
+
+-- Transactional outbox: one row per committed transaction, drained by OutboxDispatcher
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id              BIGINT PRIMARY KEY,
+    payload         TEXT NOT NULL,
+    attempts        INTEGER NOT NULL DEFAULT 0,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Audit log partitioned by month on event_time. AuditArchiveService creates
+-- the monthly partitions ahead of time (audit_logs_yYYYYmMM) and exports and
+-- detaches those past the retention window; the default partition catches
+-- the rest. A plain audit_logs table is rebuilt as a partitioned one with its
+-- rows in the default partition, which AuditArchiveService moves into
+-- monthly partitions as it creates them. The copy holds a lock on audit_logs
+-- for its duration.
+
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass('audit_logs')) = 'r' THEN
+        ALTER TABLE audit_logs RENAME TO audit_logs_unpartitioned;
+        ALTER TABLE audit_logs_unpartitioned RENAME CONSTRAINT audit_logs_pkey TO audit_logs_unpartitioned_pkey;
+
+        -- The primary key of a partitioned table must include the partition key
+        CREATE TABLE audit_logs (
+            id              BIGINT NOT NULL,
+            event_time      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+            actor_admin_id  BIGINT REFERENCES admins(id),
+            actor_user_id   BIGINT REFERENCES facility_users(id),
+            actor_ip        VARCHAR(50),
+            action          VARCHAR(100) NOT NULL,
+            entity_type     VARCHAR(100),
+            entity_id       BIGINT,
+            details         TEXT,
+            PRIMARY KEY (id, event_time)
+        ) PARTITION BY RANGE (event_time);
+        CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+        INSERT INTO audit_logs (id, event_time, actor_admin_id, actor_user_id, actor_ip, action,
+                                entity_type, entity_id, details)
+        SELECT id, event_time, actor_admin_id, actor_user_id, actor_ip, action,
+               entity_type, entity_id, details
+        FROM audit_logs_unpartitioned;
+
+        -- Takes the BIGSERIAL sequence with it; V3 gives audit_logs its own
+        DROP TABLE audit_logs_unpartitioned;
+    END IF;
+END $$;
+
+-- Indexes declared on the entities
+
+-- Keyset pagination: admin lists seek on (created_at, id) newest first
+CREATE INDEX IF NOT EXISTS idx_applications_created_at_id ON applications (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_licenses_created_at_id ON licenses (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_payments_created_at_id ON payments (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_violations_created_at_id ON violations (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_event_time_id ON audit_logs (event_time, id);
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_entity ON audit_logs (entity_type, entity_id, event_time);
+
+-- Bounding-box prefilter for GISService proximity checks before the grid index is loaded
+CREATE INDEX IF NOT EXISTS idx_facilities_type_location ON facilities (facility_type, latitude, longitude);
+
+-- Reviewer claim-next scans one status oldest first
+CREATE INDEX IF NOT EXISTS idx_applications_queue ON applications (status, submitted_at, id);
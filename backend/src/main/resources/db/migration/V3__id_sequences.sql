@@ -0,0 +1,39 @@
+-- Entities allocate ids from a <table>_seq sequence in pooled blocks, while
+-- the baseline (V1, or ddl-auto before it) used BIGSERIAL or IDENTITY ids
+-- and the tables added in V2 have no default. For every table this creates
+-- <table>_seq (increment 50, the entities' allocationSize) if missing, moves
+-- it past the current ids and makes it the column default, which rows
+-- written with plain SQL rely on. Identity columns are dropped; old
+-- BIGSERIAL sequences are left unused.
+
+DO $$
+DECLARE
+    t TEXT;
+    max_id BIGINT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'roles', 'permissions', 'facilities', 'admins', 'facility_users',
+        'applications', 'application_steps', 'application_documents',
+        'inspection_templates', 'inspection_template_items', 'inspection_template_snapshots',
+        'inspections', 'inspection_scores', 'violations', 'payments', 'licenses',
+        'notifications', 'system_settings', 'audit_logs', 'outbox_events',
+        'complaints', 'facility_staff', 'medical_professionals', 'public_content']
+    LOOP
+        CONTINUE WHEN to_regclass(t) IS NULL;
+
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', t || '_seq');
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', t) INTO max_id;
+        -- The next nextval is the top of a fresh block above max_id
+        IF max_id > 0 THEN
+            EXECUTE format('SELECT setval(%L, GREATEST(%s, (SELECT last_value FROM %I)))',
+                    t || '_seq', max_id + 1, t || '_seq');
+        END IF;
+
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = t
+                     AND column_name = 'id' AND is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY', t);
+        END IF;
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t, t || '_seq');
+    END LOOP;
+END $$;
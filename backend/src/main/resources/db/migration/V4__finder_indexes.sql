@@ -0,0 +1,94 @@
+-- One index per repository finder that had to scan. Foreign keys are not
+-- indexed by PostgreSQL on their own, so every findByXxxId lookup needs one.
+-- CONCURRENTLY keeps live tables writable while the indexes build; Flyway runs
+-- this script outside a transaction for that.
+
+-- Applications: findByFacilityId / findSummariesByFacilityId, newest first.
+-- findByStatus, countByStatus and the status lists use idx_applications_queue.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applications_facility
+    ON applications (facility_id, created_at);
+
+-- ApplicationStepRepository.findByApplicationIdOrderByStepOrderAsc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_application_steps_application
+    ON application_steps (application_id, step_order);
+
+-- ApplicationDocumentRepository.findByApplicationId and the list count subquery
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_application_documents_application
+    ON application_documents (application_id);
+
+-- Inspections: findByApplicationId, findByStatus (and the SCHEDULED slot
+-- scan), findByInspectorId / findScheduledForInspector
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inspections_application
+    ON inspections (application_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inspections_status_scheduled
+    ON inspections (status, scheduled_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inspections_inspector_scheduled
+    ON inspections (inspector_id, scheduled_date);
+
+-- InspectionScoreRepository.findByInspectionId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inspection_scores_inspection
+    ON inspection_scores (inspection_id);
+
+-- Violations: findByApplicationId, findByInspectionId; findByIsActiveTrue and
+-- countByIsActiveTrue only ever read the small active subset
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_violations_application
+    ON violations (application_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_violations_inspection
+    ON violations (inspection_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_violations_active
+    ON violations (created_at) WHERE is_active;
+
+-- PaymentRepository.findByApplicationId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_application
+    ON payments (application_id);
+
+-- Licenses: findByApplicationId and the list count subquery;
+-- countByExpiryDateBefore and the active licensed-location scans
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_licenses_application
+    ON licenses (application_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_licenses_expiry
+    ON licenses (expiry_date);
+
+-- Notifications: the inbox pages newest first over all of a recipient's rows;
+-- the unread badge counts only unread ones, so it gets a partial index
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_created
+    ON notifications (recipient_user_id, created_at DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_unread
+    ON notifications (recipient_user_id, created_at DESC) WHERE read = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_admin_created
+    ON notifications (recipient_admin_id, created_at DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_admin_unread
+    ON notifications (recipient_admin_id, created_at DESC) WHERE read = false;
+
+-- FacilityUserRepository: findByPhoneNumber (login) and findByFacilityId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_facility_users_phone
+    ON facility_users (phone_number);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_facility_users_facility
+    ON facility_users (facility_id);
+
+-- FacilityStaffRepository: findByFacilityId, findByMedicalProfessionalId and
+-- the active-contract checks
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_facility_staff_facility
+    ON facility_staff (facility_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_facility_staff_professional
+    ON facility_staff (medical_professional_id, is_active);
+
+-- AdminRepository.findEnabledByRoleCode joins admin_roles from the role side
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_admin_roles_role
+    ON admin_roles (role_id);
+
+-- ComplaintRepository.findByCitizenPhoneOrderByCreatedAtDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_complaints_phone_created
+    ON complaints (citizen_phone, created_at DESC);
+
+-- PublicContentRepository: published items newest first, optionally by category
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_public_content_published
+    ON public_content (category, created_at DESC) WHERE is_published;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_public_content_published_created
+    ON public_content (created_at DESC) WHERE is_published;
+
+-- Template lookups by parent
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inspection_template_items_template
+    ON inspection_template_items (template_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inspection_template_snapshots_template
+    ON inspection_template_snapshots (template_id);
@@ -0,0 +1,5 @@
+-- Snapshot versions are numbered per template by whichever instance stores
+-- one first (InspectionTemplateCache); the unique key makes a concurrent
+-- writer retry with the next number instead of duplicating it.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_inspection_template_snapshots_version
+    ON inspection_template_snapshots (template_id, version);
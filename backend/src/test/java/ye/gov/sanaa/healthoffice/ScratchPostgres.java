@@ -0,0 +1,80 @@
+package ye.gov.sanaa.healthoffice;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A throwaway database on the PostgreSQL server named by the PG* environment
+ * variables, the same ones application.yml connects with. Tests that need
+ * PostgreSQL run only when PGHOST is set:
+ *
+ *   PGHOST=localhost PGUSER=postgres PGPASSWORD=... mvn test
+ */
+public final class ScratchPostgres implements AutoCloseable {
+
+    private static final String HOST = env("PGHOST", "localhost");
+    private static final String PORT = env("PGPORT", "5432");
+    private static final String USER = env("PGUSER", "postgres");
+    private static final String PASSWORD = env("PGPASSWORD", "");
+
+    private final String name;
+
+    private ScratchPostgres(String name) {
+        this.name = name;
+    }
+
+    /** Creates an empty database named after the prefix and a random suffix. */
+    public static ScratchPostgres create(String prefix) {
+        String name = prefix + "_" + Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+        server().execute("CREATE DATABASE " + name);
+        return new ScratchPostgres(name);
+    }
+
+    public String url() {
+        return "jdbc:postgresql://" + HOST + ":" + PORT + "/" + name + "?reWriteBatchedInserts=true";
+    }
+
+    public JdbcTemplate jdbc() {
+        return new JdbcTemplate(new DriverManagerDataSource(url(), USER, PASSWORD));
+    }
+
+    /**
+     * Starts the application on this database, with extra properties:
+     * Flyway migrates it and Hibernate validates the entities against it.
+     */
+    @SafeVarargs
+    public final ConfigurableApplicationContext start(Map<String, Object> properties,
+            ApplicationContextInitializer<ConfigurableApplicationContext>... initializers) {
+        Map<String, Object> all = new HashMap<>(properties);
+        all.put("spring.datasource.url", url());
+        all.put("spring.datasource.username", USER);
+        all.put("spring.datasource.password", PASSWORD);
+        all.put("server.port", 0);
+        // As arguments, so they override application.yml
+        return new SpringApplicationBuilder(HealthOfficeBackendApplication.class)
+                .initializers(initializers)
+                .run(all.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+    }
+
+    @Override
+    public void close() {
+        server().execute("DROP DATABASE IF EXISTS " + name + " WITH (FORCE)");
+    }
+
+    private static JdbcTemplate server() {
+        return new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:postgresql://" + HOST + ":" + PORT + "/postgres", USER, PASSWORD));
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isEmpty() ? fallback : value;
+    }
+}
@@ -0,0 +1,98 @@
+package ye.gov.sanaa.healthoffice.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ye.gov.sanaa.healthoffice.ScratchPostgres;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations on PostgreSQL, both on a database that ddl-auto
+ * created from the entities before migrations existed and on an empty one,
+ * and starts the application on the result so Hibernate validates the
+ * entities against the migrated schema.
+ */
+@EnabledIfEnvironmentVariable(named = "PGHOST", matches = ".+", disabledReason = "needs PostgreSQL")
+class MigrationTest {
+
+    private static final List<String> VERSIONS = List.of("1", "2", "3", "4", "5");
+
+    @TempDir
+    Path archiveDir;
+
+    @Test
+    void upgradesDatabaseCreatedByDdlAuto() {
+        try (ScratchPostgres db = ScratchPostgres.create("migration_upgrade")) {
+            JdbcTemplate jdbc = db.jdbc();
+            new ResourceDatabasePopulator(new ClassPathResource("db/baseline-ddl-auto.sql"))
+                    .execute(jdbc.getDataSource());
+            // A few rows as the application wrote them before, with BIGSERIAL ids
+            jdbc.update("INSERT INTO roles (code, name_ar, name_en, created_at, updated_at)"
+                    + " VALUES ('ADMIN', 'مدير النظام', 'System Administrator', now(), now())");
+            jdbc.update("INSERT INTO facilities (facility_code, name_ar, facility_type, license_type, is_active,"
+                    + " created_at, updated_at) VALUES ('FAC-001', 'مستشفى', 'HOSPITAL', 'NEW', true, now(), now())");
+            jdbc.update("INSERT INTO applications (application_number, facility_id, status, license_type,"
+                    + " facility_type, created_at, updated_at)"
+                    + " VALUES ('APP-1', 1, 'SUBMITTED', 'NEW', 'HOSPITAL', now(), now())");
+            long auditId = jdbc.queryForObject("INSERT INTO audit_logs (event_time, action, entity_type, entity_id)"
+                    + " VALUES (now(), 'CREATE_APPLICATION', 'APPLICATION', 1) RETURNING id", Long.class);
+
+            try (ConfigurableApplicationContext ignored = db.start(properties())) {
+                assertThat(migratedVersions(jdbc)).isEqualTo(VERSIONS);
+                assertThat(jdbc.queryForObject("SELECT type FROM flyway_schema_history WHERE version = '1'",
+                        String.class)).isEqualTo("BASELINE");
+
+                assertThat(jdbc.queryForObject("SELECT version FROM applications WHERE id = 1", Long.class))
+                        .isZero();
+                // Roles added by DataInitializer took ids from roles_seq above the existing one
+                assertThat(jdbc.queryForObject("SELECT min(id) FROM roles WHERE code <> 'ADMIN'", Long.class))
+                        .isGreaterThan(1);
+
+                // The audit row survived the conversion and was moved out of the default partition
+                assertThat(jdbc.queryForObject("SELECT relkind FROM pg_class WHERE oid = 'audit_logs'::regclass",
+                        String.class)).isEqualTo("p");
+                assertThat(jdbc.queryForObject("SELECT tableoid::regclass::text FROM audit_logs WHERE id = ?",
+                        String.class, auditId)).isEqualTo(partitionName(YearMonth.now(ZoneOffset.UTC)));
+            }
+        }
+    }
+
+    @Test
+    void migratesEmptyDatabase() {
+        try (ScratchPostgres db = ScratchPostgres.create("migration_empty")) {
+            JdbcTemplate jdbc = db.jdbc();
+
+            try (ConfigurableApplicationContext ignored = db.start(properties())) {
+                assertThat(migratedVersions(jdbc)).isEqualTo(VERSIONS);
+                assertThat(jdbc.queryForObject("SELECT relkind FROM pg_class WHERE oid = 'audit_logs'::regclass",
+                        String.class)).isEqualTo("p");
+                assertThat(jdbc.queryForObject("SELECT count(*) FROM admins WHERE username = 'admin'", Long.class))
+                        .isOne();
+            }
+        }
+    }
+
+    private Map<String, Object> properties() {
+        return Map.of("audit.archive.dir", archiveDir.toString());
+    }
+
+    private static List<String> migratedVersions(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT version FROM flyway_schema_history WHERE success"
+                + " AND version IS NOT NULL ORDER BY installed_rank", String.class);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("audit_logs_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
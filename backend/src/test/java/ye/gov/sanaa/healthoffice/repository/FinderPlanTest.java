@@ -0,0 +1,238 @@
+package ye.gov.sanaa.healthoffice.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ye.gov.sanaa.healthoffice.ScratchPostgres;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the repository finders covered by V4__finder_indexes.sql are
+ * planned as index scans on a production-sized data set.
+ *
+ * The application starts on a scratch PostgreSQL database under the
+ * "generate" profile, so DataGenerator loads its default volume. Each finder
+ * is then called through its repository with values taken from the
+ * generated rows, the statements it sends are recorded with their bind
+ * values, and every statement on the finder's own table is run again through
+ * EXPLAIN (FORMAT JSON). Statements loading associations of the results are
+ * primary-key lookups on other tables and are not checked. A finder passes
+ * only if each of its statements reads one of the indexes expected for it.
+ *
+ * Paged finders are called with the sort the index is built for; unsorted,
+ * the page query stops after one page of matches and a sequential scan can
+ * be the cheaper plan.
+ *
+ * Deliberately not checked:
+ * - ViolationRepository.findByIsActiveTrue and countByIsActiveTrue. About a
+ *   fifth of generated violations stay active, too many for the partial
+ *   index to beat a scan; it pays off once most violations are closed.
+ * - NotificationRepository's admin inbox finders, ComplaintRepository,
+ *   FacilityStaffRepository, PublicContentRepository,
+ *   AdminRepository.findEnabledByRoleCode and the template lookups. The
+ *   generator leaves those rows at their seed size or empty, and on a few
+ *   pages of rows the planner rightly reads the whole table.
+ */
+@EnabledIfEnvironmentVariable(named = "PGHOST", matches = ".+", disabledReason = "needs PostgreSQL")
+class FinderPlanTest {
+
+    private static final Set<String> INDEX_SCANS = Set.of("Index Scan", "Index Only Scan", "Bitmap Index Scan");
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+
+    private static ScratchPostgres db;
+    private static ConfigurableApplicationContext context;
+    private static JdbcTemplate jdbc;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    static Path archiveDir;
+
+    /** One finder call, the table it reads and the indexes any of which it may use. */
+    private record Finder(String name, String table, Set<String> indexes, Runnable call) {
+    }
+
+    @BeforeAll
+    static void seed() {
+        db = ScratchPostgres.create("finder_plans");
+        context = db.start(Map.of("spring.profiles.active", "generate", "audit.archive.dir", archiveDir),
+                ctx -> ctx.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource ds ? StatementRecorder.wrap(ds) : bean;
+                    }
+                }));
+        jdbc = db.jdbc();
+        jdbc.execute("VACUUM ANALYZE");
+    }
+
+    @AfterAll
+    static void drop() {
+        if (context != null)
+            context.close();
+        if (db != null)
+            db.close();
+    }
+
+    @Test
+    void findersAreIndexScans() throws Exception {
+        List<String> failures = new ArrayList<>();
+        for (Finder finder : finders()) {
+            List<StatementRecorder.Recorded> statements = StatementRecorder.record(finder.call());
+            Pattern ownTable = Pattern.compile("\\bfrom " + finder.table() + "\\b");
+            List<StatementRecorder.Recorded> own = statements.stream()
+                    .filter(s -> ownTable.matcher(s.sql()).find())
+                    .toList();
+            if (own.isEmpty())
+                failures.add(finder.name() + ": sent no statement on " + finder.table());
+            for (StatementRecorder.Recorded statement : own) {
+                String json = jdbc.queryForObject("EXPLAIN (FORMAT JSON) " + statement.sql(), String.class,
+                        statement.params());
+                JsonNode plan = objectMapper.readTree(json).get(0).get("Plan");
+                List<String> used = new ArrayList<>();
+                collectIndexes(plan, used);
+                if (used.stream().noneMatch(finder.indexes()::contains))
+                    failures.add(finder.name() + ": expected " + finder.indexes() + ", plan " + describe(plan)
+                            + " for " + statement.sql());
+            }
+        }
+        assertThat(failures).as("finders not planned as index scans").isEmpty();
+    }
+
+    private static List<Finder> finders() {
+        ApplicationRepository applications = context.getBean(ApplicationRepository.class);
+        ApplicationStepRepository steps = context.getBean(ApplicationStepRepository.class);
+        ApplicationDocumentRepository documents = context.getBean(ApplicationDocumentRepository.class);
+        InspectionRepository inspections = context.getBean(InspectionRepository.class);
+        InspectionScoreRepository scores = context.getBean(InspectionScoreRepository.class);
+        ViolationRepository violations = context.getBean(ViolationRepository.class);
+        PaymentRepository payments = context.getBean(PaymentRepository.class);
+        LicenseRepository licenses = context.getBean(LicenseRepository.class);
+        NotificationRepository notifications = context.getBean(NotificationRepository.class);
+        FacilityUserRepository facilityUsers = context.getBean(FacilityUserRepository.class);
+
+        long facilityId = first("applications", "facility_id");
+        long applicationId = first("application_steps", "application_id");
+        long inspectionId = first("inspection_scores", "inspection_id");
+        long inspectorId = first("inspections", "inspector_id");
+        long userId = first("notifications", "recipient_user_id");
+        OffsetDateTime scheduledDay = jdbc.queryForObject("SELECT date_trunc('day', scheduled_date) FROM inspections"
+                + " WHERE status = 'SCHEDULED' AND inspector_id = ? ORDER BY id LIMIT 1",
+                OffsetDateTime.class, inspectorId);
+        String phone = jdbc.queryForObject("SELECT phone_number FROM facility_users ORDER BY id DESC LIMIT 1",
+                String.class);
+        Sort queueOrder = Sort.by("submittedAt", "id");
+        Sort byDate = Sort.by("scheduledDate");
+
+        return List.of(
+                new Finder("ApplicationRepository.findByFacilityId", "applications",
+                        Set.of("idx_applications_facility"),
+                        () -> applications.findByFacilityId(facilityId)),
+                new Finder("ApplicationRepository.findByFacilityId(Pageable)", "applications",
+                        Set.of("idx_applications_facility"),
+                        () -> applications.findByFacilityId(facilityId,
+                                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt")))),
+                new Finder("ApplicationRepository.findByStatus", "applications",
+                        Set.of("idx_applications_queue"),
+                        () -> applications.findByStatus("SUBMITTED", PAGE.withSort(queueOrder))),
+                new Finder("ApplicationRepository.countByStatus", "applications",
+                        Set.of("idx_applications_queue"),
+                        () -> applications.countByStatus("SUBMITTED")),
+                new Finder("ApplicationStepRepository.findByApplicationIdOrderByStepOrderAsc", "application_steps",
+                        Set.of("idx_application_steps_application"),
+                        () -> steps.findByApplicationIdOrderByStepOrderAsc(applicationId)),
+                new Finder("ApplicationDocumentRepository.findByApplicationId", "application_documents",
+                        Set.of("idx_application_documents_application"),
+                        () -> documents.findByApplicationId(first("application_documents", "application_id"))),
+                new Finder("InspectionRepository.findByApplicationId", "inspections",
+                        Set.of("idx_inspections_application"),
+                        () -> inspections.findByApplicationId(first("inspections", "application_id"))),
+                new Finder("InspectionRepository.findByStatus", "inspections",
+                        Set.of("idx_inspections_status_scheduled"),
+                        () -> inspections.findByStatus("SCHEDULED", PAGE.withSort(byDate))),
+                new Finder("InspectionRepository.findByInspectorId", "inspections",
+                        Set.of("idx_inspections_inspector_scheduled"),
+                        () -> inspections.findByInspectorId(inspectorId, PAGE.withSort(byDate))),
+                new Finder("InspectionRepository.findScheduledForInspector", "inspections",
+                        Set.of("idx_inspections_inspector_scheduled", "idx_inspections_status_scheduled"),
+                        () -> inspections.findScheduledForInspector(inspectorId, scheduledDay,
+                                scheduledDay.plusDays(1))),
+                new Finder("InspectionScoreRepository.findByInspectionId", "inspection_scores",
+                        Set.of("idx_inspection_scores_inspection"),
+                        () -> scores.findByInspectionId(inspectionId)),
+                new Finder("ViolationRepository.findByApplicationId", "violations",
+                        Set.of("idx_violations_application"),
+                        () -> violations.findByApplicationId(first("violations", "application_id"))),
+                new Finder("ViolationRepository.findByInspectionId", "violations",
+                        Set.of("idx_violations_inspection"),
+                        () -> violations.findByInspectionId(first("violations", "inspection_id"))),
+                new Finder("PaymentRepository.findByApplicationId", "payments",
+                        Set.of("idx_payments_application"),
+                        () -> payments.findByApplicationId(first("payments", "application_id"))),
+                new Finder("LicenseRepository.findByApplicationId", "licenses",
+                        Set.of("idx_licenses_application"),
+                        () -> licenses.findByApplicationId(first("licenses", "application_id"))),
+                new Finder("LicenseRepository.countByExpiryDateBefore", "licenses",
+                        Set.of("idx_licenses_expiry"),
+                        // As the dashboard counts licenses expiring within 30 days
+                        () -> licenses.countByExpiryDateBefore(LocalDate.now(ZoneOffset.UTC).plusDays(30))),
+                new Finder("NotificationRepository.findByRecipientUserIdOrderByCreatedAtDesc", "notifications",
+                        Set.of("idx_notifications_user_created"),
+                        () -> notifications.findByRecipientUserIdOrderByCreatedAtDesc(userId, PAGE)),
+                new Finder("NotificationRepository.countByRecipientUserIdAndReadFalse", "notifications",
+                        Set.of("idx_notifications_user_unread"),
+                        () -> notifications.countByRecipientUserIdAndReadFalse(userId)),
+                new Finder("FacilityUserRepository.findByPhoneNumber", "facility_users",
+                        Set.of("idx_facility_users_phone"),
+                        () -> facilityUsers.findByPhoneNumber(phone)),
+                new Finder("FacilityUserRepository.findByFacilityId", "facility_users",
+                        Set.of("idx_facility_users_facility"),
+                        () -> facilityUsers.findByFacilityId(first("facility_users", "facility_id"))));
+    }
+
+    /** The non-null value of the table's column on its oldest row. */
+    private static long first(String table, String column) {
+        return jdbc.queryForObject("SELECT " + column + " FROM " + table + " WHERE " + column
+                + " IS NOT NULL ORDER BY id LIMIT 1", Long.class);
+    }
+
+    private static void collectIndexes(JsonNode node, List<String> into) {
+        if (INDEX_SCANS.contains(node.path("Node Type").asText()))
+            into.add(node.path("Index Name").asText());
+        for (JsonNode child : node.path("Plans"))
+            collectIndexes(child, into);
+    }
+
+    /** Node types of the plan tree, outermost first, e.g. "Limit(Seq Scan on applications)". */
+    private static String describe(JsonNode node) {
+        StringBuilder sb = new StringBuilder(node.path("Node Type").asText());
+        if (node.has("Relation Name"))
+            sb.append(" on ").append(node.path("Relation Name").asText());
+        List<String> children = new ArrayList<>();
+        for (JsonNode child : node.path("Plans"))
+            children.add(describe(child));
+        if (!children.isEmpty())
+            sb.append('(').append(String.join(", ", children)).append(')');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package ye.gov.sanaa.healthoffice.repository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the prepared statements the application sends through a
+ * DataSource, with their bind values, on the thread that asked for it.
+ * Recording at the JDBC boundary rather than in a Hibernate StatementInspector
+ * keeps the values, so the exact statement can be explained again.
+ */
+final class StatementRecorder {
+
+    /** One executed statement and its parameters in bind order. */
+    record Recorded(String sql, Object[] params) {
+    }
+
+    private static final ThreadLocal<List<Recorded>> RECORDING = new ThreadLocal<>();
+
+    private StatementRecorder() {
+    }
+
+    /** Runs {@code call} and returns the statements it executed on this thread. */
+    static List<Recorded> record(Runnable call) {
+        List<Recorded> into = new ArrayList<>();
+        RECORDING.set(into);
+        try {
+            call.run();
+        } finally {
+            RECORDING.remove();
+        }
+        return into;
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            return result instanceof Connection c ? wrap(c) : result;
+        });
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            if (result instanceof PreparedStatement ps && method.getName().equals("prepareStatement"))
+                return wrap(ps, (String) args[0]);
+            return result;
+        });
+    }
+
+    private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+        Map<Integer, Object> params = new HashMap<>();
+        return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index)
+                params.put(index, name.equals("setNull") ? null : args[1]);
+            else if (name.equals("clearParameters"))
+                params.clear();
+            else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                List<Recorded> into = RECORDING.get();
+                if (into != null) {
+                    Object[] values = new Object[params.size()];
+                    params.forEach((i, v) -> values[i - 1] = v);
+                    into.add(new Recorded(sql, values));
+                }
+            }
+            return method.invoke(target, args);
+        });
+    }
+
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        InvocationHandler invocation = (p, method, args) -> {
+            try {
+                return handler.handle(target, method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, invocation);
+    }
+}
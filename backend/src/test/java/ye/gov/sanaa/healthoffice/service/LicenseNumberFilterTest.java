@@ -0,0 +1,58 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ye.gov.sanaa.healthoffice.repository.LicenseRepository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that licenses inserted behind the filter's back (another instance,
+ * the generator, SQL) are found after one poll, without waiting for the
+ * full rebuild.
+ */
+class LicenseNumberFilterTest {
+
+    private final LicenseRepository repository = mock(LicenseRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LicenseNumberFilter filter = new LicenseNumberFilter(repository, registry, 1000, 0.01, 60000);
+
+    @Test
+    void pollPicksUpLicensesIssuedElsewhere() {
+        when(repository.findMaxId()).thenReturn(10L);
+        when(repository.findAllLicenseNumbers()).thenReturn(List.of("LIC-1", "LIC-2"));
+        filter.rebuild();
+        assertThat(filter.mightContain("LIC-3")).isFalse();
+
+        when(repository.findNumbersAddedSince(anyLong(), any())).thenReturn(List.<Object[]>of(
+                new Object[] { 12L, "LIC-3" }, new Object[] { 11L, "LIC-2" }));
+        filter.poll();
+
+        assertThat(filter.mightContain("LIC-3")).isTrue();
+        verify(repository).findNumbersAddedSince(eq(10L), any(OffsetDateTime.class));
+        // LIC-2 was already in, so only LIC-3 counts
+        assertThat(registry.get("license.filter.size").gauge().value()).isEqualTo(3);
+
+        // The next poll starts above the highest id seen, and rows read again change nothing
+        filter.poll();
+        verify(repository).findNumbersAddedSince(eq(12L), any(OffsetDateTime.class));
+        assertThat(registry.get("license.filter.size").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void pollWaitsForTheFirstBuild() {
+        filter.poll();
+        assertThat(filter.mightContain("LIC-1")).isTrue();
+        verify(repository, never()).findNumbersAddedSince(anyLong(), any());
+    }
+}
@@ -0,0 +1,158 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import ye.gov.sanaa.healthoffice.repository.ApplicationRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks over HTTP, on the in-memory H2 profile, that workflow transitions
+ * and review claims act as the signed-in admin: the adminId request
+ * parameter can neither borrow another admin's roles nor act in their name.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class WorkflowAccessTest {
+
+    private static final long ADMIN_ID = 1;
+    private static final long FACILITY_ID = 1;
+    private static final long USER_ID = 1;
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    private HttpHeaders admin;
+    private HttpHeaders owner;
+    private Employee finance;
+    private Employee reviewer;
+
+    /** A signed-in admin created for the test. */
+    private record Employee(long id, HttpHeaders auth) {
+    }
+
+    @BeforeEach
+    void login() {
+        admin = login("admin", "password");
+        owner = bearer(post("/api/v1/auth/user/login", null,
+                Map.of("phoneNumber", "777777777", "password", "password")).getBody());
+        finance = employee("finance", "FINANCE");
+        reviewer = employee("reviewer", "REVIEWER");
+    }
+
+    @Test
+    void rolesAreCheckedOnTheSignedInAdmin() {
+        long app = submittedApplication();
+
+        // FINANCE may not advance, whichever adminId it names
+        assertThat(advance(app, finance.auth(), ADMIN_ID)).isEqualTo(403);
+        assertThat(advance(app, finance.auth(), null)).isEqualTo(403);
+        assertThat(status(app)).isEqualTo("SUBMITTED");
+
+        assertThat(advance(app, admin, null)).isEqualTo(200);
+        assertThat(status(app)).isEqualTo("UNDER_REVIEW");
+    }
+
+    @Test
+    void adminIdOfAnotherAdminIsRejected() {
+        long app = submittedApplication();
+
+        assertThat(advance(app, admin, finance.id())).isEqualTo(403);
+        assertThat(post("/api/v1/admin/applications/" + app + "/reject?adminId=" + finance.id(), admin,
+                Map.of("reason", "access test")).getStatusCode().value()).isEqualTo(403);
+        assertThat(status(app)).isEqualTo("SUBMITTED");
+
+        assertThat(advance(app, admin, ADMIN_ID)).isEqualTo(200);
+    }
+
+    @Test
+    void claimsBelongToTheSignedInAdmin() {
+        submittedApplication();
+        ResponseEntity<Map<String, Object>> claimed = post("/api/v1/admin/applications/claim-next",
+                reviewer.auth(), null);
+        assertThat(claimed.getStatusCode().value()).isEqualTo(200);
+        long app = ((Number) claimed.getBody().get("id")).longValue();
+        assertThat(applicationRepository.findById(app).orElseThrow().getClaimedByAdminId()).isEqualTo(reviewer.id());
+
+        // Someone else's live claim is a conflict, and naming the holder does not help
+        assertThat(advance(app, admin, null)).isEqualTo(409);
+        assertThat(post("/api/v1/admin/applications/" + app + "/claim/heartbeat?adminId=" + reviewer.id(), admin, null)
+                .getStatusCode().value()).isEqualTo(403);
+        assertThat(post("/api/v1/admin/applications/" + app + "/claim/heartbeat", admin, null)
+                .getStatusCode().value()).isEqualTo(409);
+        assertThat(release(app, admin)).isEqualTo(204);
+        assertThat(advance(app, admin, null)).isEqualTo(409);
+
+        assertThat(post("/api/v1/admin/applications/" + app + "/claim/heartbeat", reviewer.auth(), null)
+                .getStatusCode().value()).isEqualTo(200);
+        assertThat(release(app, reviewer.auth())).isEqualTo(204);
+        assertThat(advance(app, admin, null)).isEqualTo(200);
+    }
+
+    private Employee employee(String prefix, String role) {
+        String username = prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+        Map<String, Object> created = post("/api/v1/admin/employees", admin, Map.of("fullName", prefix,
+                "username", username, "password", "password", "roles", List.of(role))).getBody();
+        return new Employee(((Number) created.get("id")).longValue(), login(username, "password"));
+    }
+
+    private long submittedApplication() {
+        Map<String, Object> app = post("/api/v1/portal/applications?facilityId=" + FACILITY_ID + "&userId=" + USER_ID,
+                owner, Map.of("licenseType", "NEW", "facilityType", "HOSPITAL")).getBody();
+        long id = ((Number) app.get("id")).longValue();
+        assertThat(post("/api/v1/portal/applications/" + id + "/submit?userId=" + USER_ID, owner, null)
+                .getStatusCode().value()).isEqualTo(200);
+        return id;
+    }
+
+    private int advance(long app, HttpHeaders auth, Long adminId) {
+        return post("/api/v1/admin/applications/" + app + "/advance" + (adminId != null ? "?adminId=" + adminId : ""),
+                auth, null).getStatusCode().value();
+    }
+
+    private int release(long app, HttpHeaders auth) {
+        return rest.exchange("/api/v1/admin/applications/" + app + "/claim", HttpMethod.DELETE,
+                new HttpEntity<>(auth), Void.class).getStatusCode().value();
+    }
+
+    private String status(long app) {
+        return applicationRepository.findById(app).orElseThrow().getStatus();
+    }
+
+    private HttpHeaders login(String username, String password) {
+        return bearer(post("/api/v1/auth/admin/login", null,
+                Map.of("username", username, "password", password)).getBody());
+    }
+
+    private ResponseEntity<Map<String, Object>> post(String path, HttpHeaders auth, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (auth != null)
+            headers.putAll(auth);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return rest.exchange(path, HttpMethod.POST, new HttpEntity<>(body, headers),
+                new ParameterizedTypeReference<Map<String, Object>>() {
+                });
+    }
+
+    private static HttpHeaders bearer(Map<String, Object> auth) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth((String) auth.get("accessToken"));
+        return headers;
+    }
+}
@@ -0,0 +1,233 @@
+package ye.gov.sanaa.healthoffice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import ye.gov.sanaa.healthoffice.entity.ApplicationStep;
+import ye.gov.sanaa.healthoffice.repository.ApplicationRepository;
+import ye.gov.sanaa.healthoffice.repository.ApplicationStepRepository;
+import ye.gov.sanaa.healthoffice.repository.PaymentRepository;
+import ye.gov.sanaa.healthoffice.workflow.ApplicationStatus;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires concurrent workflow transitions at one application over HTTP, on the
+ * in-memory H2 profile, and checks that none is lost or applied twice:
+ * exactly one caller wins each expected status, the others get 409, and
+ * each advance leaves exactly one step row.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        // The losers' stale-version batch failures are expected
+        properties = "logging.level.org.hibernate.orm.jdbc.batch=OFF")
+@ActiveProfiles("h2")
+class WorkflowConcurrencyTest {
+
+    private static final int THREADS = 12;
+    private static final long ADMIN_ID = 1;
+    private static final long FACILITY_ID = 1;
+    private static final long USER_ID = 1;
+    private static final AtomicInteger SLOT = new AtomicInteger();
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private ApplicationStepRepository stepRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private HttpHeaders admin;
+    private HttpHeaders owner;
+
+    @BeforeEach
+    void login() {
+        admin = bearer(post("/api/v1/auth/admin/login", null,
+                Map.of("username", "admin", "password", "password")).getBody());
+        owner = bearer(post("/api/v1/auth/user/login", null,
+                Map.of("phoneNumber", "777777777", "password", "password")).getBody());
+    }
+
+    @Test
+    void advanceWithExpectedStatusHasExactlyOneWinner() throws Exception {
+        long app = submittedApplication();
+
+        List<Integer> codes = race(i -> advance(app, "SUBMITTED"));
+
+        assertThat(count(codes, 200)).isEqualTo(1);
+        assertThat(count(codes, 409)).isEqualTo(THREADS - 1);
+        assertThat(status(app)).isEqualTo("UNDER_REVIEW");
+        assertThat(steps(app, ApplicationStatus.UNDER_REVIEW)).isEqualTo(1);
+    }
+
+    @Test
+    void advanceAndRejectRaceHasExactlyOneWinner() throws Exception {
+        long app = submittedApplication();
+        assertThat(advance(app, "SUBMITTED")).isEqualTo(200);
+
+        List<Integer> codes = race(i -> i % 2 == 0 ? advance(app, "UNDER_REVIEW") : reject(app, "UNDER_REVIEW"));
+
+        assertThat(count(codes, 200)).isEqualTo(1);
+        assertThat(count(codes, 409)).isEqualTo(THREADS - 1);
+        String status = status(app);
+        assertThat(status).isIn("BLUEPRINT_REVIEW", "REJECTED");
+        assertThat(steps(app, ApplicationStatus.BLUEPRINT_REVIEW)).isEqualTo(status.equals("REJECTED") ? 0 : 1);
+    }
+
+    @Test
+    void advanceWithoutExpectedStatusRecordsEachStepOnce() throws Exception {
+        long app = submittedApplication();
+
+        List<Integer> codes = race(i -> advance(app, null));
+
+        // SUBMITTED -> UNDER_REVIEW -> BLUEPRINT_REVIEW -> INSPECTION_SCHEDULED, then no further advance
+        ApplicationStatus[] path = { ApplicationStatus.UNDER_REVIEW, ApplicationStatus.BLUEPRINT_REVIEW,
+                ApplicationStatus.INSPECTION_SCHEDULED };
+        long won = count(codes, 200);
+        assertThat(won).isBetween(1L, (long) path.length);
+        assertThat(codes).allMatch(c -> c == 200 || c == 409 || c == 400);
+        assertThat(status(app)).isEqualTo(path[(int) won - 1].name());
+        for (int i = 0; i < path.length; i++) {
+            assertThat(steps(app, path[i])).as(path[i].name()).isEqualTo(i < won ? 1 : 0);
+        }
+    }
+
+    @Test
+    void confirmPaymentHasExactlyOneWinner() throws Exception {
+        long app = submittedApplication();
+        String reference = paymentPending(app);
+
+        List<Integer> codes = race(i -> post("/api/v1/admin/payments/confirm", admin,
+                Map.of("paymentReference", reference, "channel", "BANK", "externalTransactionId", "TX-" + i))
+                .getStatusCode().value());
+
+        assertThat(count(codes, 200)).isEqualTo(1);
+        assertThat(count(codes, 409)).isEqualTo(THREADS - 1);
+        assertThat(status(app)).isEqualTo("PAYMENT_COMPLETED");
+        assertThat(paymentRepository.findByPaymentReference(reference).orElseThrow().getStatus()).isEqualTo("PAID");
+    }
+
+    /** Runs THREADS calls released together and returns their HTTP status codes. */
+    private List<Integer> race(IntFunction<Integer> call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int n = i;
+                Callable<Integer> task = () -> {
+                    start.await();
+                    return call.apply(n);
+                };
+                results.add(pool.submit(task));
+            }
+            start.countDown();
+            List<Integer> codes = new ArrayList<>();
+            for (Future<Integer> f : results) {
+                codes.add(f.get());
+            }
+            return codes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long submittedApplication() {
+        Map<String, Object> app = post("/api/v1/portal/applications?facilityId=" + FACILITY_ID + "&userId=" + USER_ID,
+                owner, Map.of("licenseType", "NEW", "facilityType", "HOSPITAL")).getBody();
+        long id = ((Number) app.get("id")).longValue();
+        assertThat(post("/api/v1/portal/applications/" + id + "/submit?userId=" + USER_ID, owner, null)
+                .getStatusCode().value()).isEqualTo(200);
+        return id;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String paymentPending(long app) {
+        assertThat(advance(app, "SUBMITTED")).isEqualTo(200);
+        assertThat(advance(app, "UNDER_REVIEW")).isEqualTo(200);
+        // A distinct slot per call so the inspector is never double-booked
+        OffsetDateTime slot = OffsetDateTime.parse("2031-01-01T06:00:00Z").plusHours(2L * SLOT.getAndIncrement());
+        Map<String, Object> inspection = post("/api/v1/admin/inspections/schedule?applicationId=" + app
+                + "&inspectorId=" + ADMIN_ID + "&scheduledDate=" + slot, admin, null).getBody();
+        Object inspectionId = inspection.get("id");
+        Map<String, Object> scored = new HashMap<>();
+        scored.put("notes", "ok");
+        scored.put("overallScore", 100);
+        scored.put("items", ((List<Map<String, Object>>) inspection.get("items")).stream()
+                .map(item -> Map.of("id", item.get("id"), "score", item.get("maxScore")))
+                .toList());
+        assertThat(post("/api/v1/admin/inspections/" + inspectionId + "/complete", admin, scored)
+                .getStatusCode().value()).isEqualTo(200);
+        assertThat(advance(app, "INSPECTION_COMPLETED")).isEqualTo(200);
+        Map<String, Object> payment = post("/api/v1/admin/payments/create?applicationId=" + app
+                + "&adminId=" + ADMIN_ID, admin, null).getBody();
+        assertThat(status(app)).isEqualTo("PAYMENT_PENDING");
+        return (String) payment.get("paymentReference");
+    }
+
+    private int advance(long app, String expectedStatus) {
+        return post("/api/v1/admin/applications/" + app + "/advance?adminId=" + ADMIN_ID
+                + (expectedStatus != null ? "&expectedStatus=" + expectedStatus : ""), admin, null)
+                .getStatusCode().value();
+    }
+
+    private int reject(long app, String expectedStatus) {
+        return post("/api/v1/admin/applications/" + app + "/reject?adminId=" + ADMIN_ID
+                + "&expectedStatus=" + expectedStatus, admin, Map.of("reason", "concurrency test"))
+                .getStatusCode().value();
+    }
+
+    private String status(long app) {
+        return applicationRepository.findById(app).orElseThrow().getStatus();
+    }
+
+    private long steps(long app, ApplicationStatus status) {
+        return stepRepository.findByApplicationIdOrderByStepOrderAsc(app).stream()
+                .map(ApplicationStep::getStepCode)
+                .filter(status.getStepCode()::equals)
+                .count();
+    }
+
+    private static long count(List<Integer> codes, int code) {
+        return codes.stream().filter(c -> c == code).count();
+    }
+
+    private ResponseEntity<Map<String, Object>> post(String path, HttpHeaders auth, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (auth != null)
+            headers.putAll(auth);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return rest.exchange(path, HttpMethod.POST, new HttpEntity<>(body, headers),
+                new ParameterizedTypeReference<Map<String, Object>>() {
+                });
+    }
+
+    private static HttpHeaders bearer(Map<String, Object> auth) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth((String) auth.get("accessToken"));
+        return headers;
+    }
+}
@@ -0,0 +1,472 @@
+-- The schema spring.jpa.hibernate.ddl-auto created on PostgreSQL from the
+-- entities as they were before Flyway migrations, as Hibernate generated it.
+-- MigrationTest upgrades a database built from this.
+
+create table admin_roles (
+    admin_id bigint not null,
+    role_id bigint not null,
+    primary key (admin_id, role_id)
+);
+
+create table admins (
+    enabled boolean not null,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    last_login_at timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone not null,
+    phone_number varchar(30),
+    username varchar(100) not null unique,
+    email varchar(150),
+    full_name varchar(255) not null,
+    password_hash varchar(255) not null,
+    primary key (id)
+);
+
+create table application_documents (
+    is_mandatory boolean not null,
+    issue_date date,
+    application_id bigint not null,
+    id bigserial not null,
+    uploaded_at timestamp(6) with time zone not null,
+    uploaded_by_user bigint,
+    document_type varchar(100) not null,
+    reference_number varchar(100),
+    file_url TEXT not null,
+    primary key (id)
+);
+
+create table application_steps (
+    step_order integer not null,
+    application_id bigint not null,
+    id bigserial not null,
+    performed_at timestamp(6) with time zone,
+    performed_by_admin bigint,
+    performed_by_user bigint,
+    status varchar(30) not null,
+    step_code varchar(50) not null,
+    notes TEXT,
+    primary key (id)
+);
+
+create table applications (
+    prev_license_date date,
+    supervisor_id_issue_date date,
+    supervisor_license_expiry date,
+    supervisor_qual_date date,
+    approved_at timestamp(6) with time zone,
+    created_at timestamp(6) with time zone not null,
+    facility_id bigint not null,
+    id bigserial not null,
+    rejected_at timestamp(6) with time zone,
+    submitted_at timestamp(6) with time zone,
+    submitted_by_user_id bigint,
+    updated_at timestamp(6) with time zone not null,
+    license_type varchar(20) not null,
+    supervisor_phone varchar(20),
+    status varchar(30) not null,
+    application_number varchar(50) not null unique,
+    facility_type varchar(50) not null,
+    supervisor_national_id varchar(50),
+    prev_license_number varchar(100),
+    supervisor_practice_license varchar(100),
+    prev_issuing_authority varchar(255),
+    prev_validity_period varchar(255),
+    rejection_reason TEXT,
+    supervisor_id_issuer varchar(255),
+    supervisor_name varchar(255),
+    supervisor_qual_issuer varchar(255),
+    supervisor_qualification varchar(255),
+    supervisor_university varchar(255),
+    primary key (id)
+);
+
+create table audit_logs (
+    actor_admin_id bigint,
+    actor_user_id bigint,
+    entity_id bigint,
+    event_time timestamp(6) with time zone not null,
+    id bigserial not null,
+    actor_ip varchar(50),
+    action varchar(100) not null,
+    entity_type varchar(100),
+    details TEXT,
+    primary key (id)
+);
+
+create table complaints (
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    target_facility_id bigint,
+    updated_at timestamp(6) with time zone not null,
+    status varchar(30) not null,
+    admin_notes TEXT,
+    citizen_name varchar(255),
+    citizen_phone varchar(255) not null,
+    details TEXT not null,
+    subject TEXT not null,
+    primary key (id)
+);
+
+create table facilities (
+    is_active boolean not null,
+    latitude float(53),
+    longitude float(53),
+    rooms_count integer,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    updated_at timestamp(6) with time zone not null,
+    license_type varchar(20) not null,
+    facility_code varchar(50) not null unique,
+    facility_type varchar(50) not null,
+    area varchar(150),
+    district varchar(150),
+    street varchar(150),
+    name_ar varchar(255) not null,
+    name_en varchar(255),
+    ownership_proof_url TEXT,
+    property_owner varchar(255),
+    site_sketch_url TEXT,
+    primary key (id)
+);
+
+create table facility_staff (
+    contract_end_date date,
+    contract_start_date date not null,
+    is_active boolean not null,
+    is_technical_manager boolean not null,
+    created_at timestamp(6) with time zone not null,
+    facility_id bigint not null,
+    id bigserial not null,
+    medical_professional_id bigint not null,
+    updated_at timestamp(6) with time zone not null,
+    contract_type varchar(255),
+    job_title varchar(255) not null,
+    primary key (id)
+);
+
+create table facility_users (
+    is_active boolean not null,
+    created_at timestamp(6) with time zone not null,
+    facility_id bigint,
+    id bigserial not null,
+    last_login_at timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone not null,
+    phone_number varchar(30) not null,
+    user_type varchar(30) not null,
+    national_id varchar(50),
+    email varchar(150),
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    middle_name varchar(255),
+    password_hash varchar(255) not null,
+    primary key (id)
+);
+
+create table inspection_scores (
+    max_score numeric(5,2) not null,
+    score numeric(5,2),
+    id bigserial not null,
+    inspection_id bigint not null,
+    criterion_code varchar(100) not null,
+    description TEXT,
+    primary key (id)
+);
+
+create table inspection_template_items (
+    item_order integer,
+    max_score numeric(5,2) not null,
+    id bigserial not null,
+    template_id bigint not null,
+    criterion_code varchar(255) not null,
+    description varchar(255) not null,
+    primary key (id)
+);
+
+create table inspection_templates (
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    updated_at timestamp(6) with time zone not null,
+    facility_type varchar(255) not null unique,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table inspections (
+    overall_score numeric(5,2),
+    actual_visit_date timestamp(6) with time zone,
+    application_id bigint not null,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    inspector_id bigint,
+    scheduled_date timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone not null,
+    status varchar(30) not null,
+    notes TEXT,
+    primary key (id)
+);
+
+create table licenses (
+    expiry_date date not null,
+    issue_date date not null,
+    application_id bigint not null,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    status varchar(30) not null,
+    license_number varchar(100) not null unique,
+    pdf_url TEXT not null,
+    primary key (id)
+);
+
+create table medical_professionals (
+    graduation_year integer,
+    license_expiry_date date not null,
+    license_issue_date date,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    updated_at timestamp(6) with time zone not null,
+    national_id varchar(20) not null unique,
+    phone_number varchar(20),
+    practice_license_number varchar(50) not null unique,
+    email varchar(100),
+    full_name_ar varchar(255) not null,
+    full_name_en varchar(255),
+    qualification varchar(255) not null,
+    specialization varchar(255) not null,
+    university varchar(255),
+    primary key (id)
+);
+
+create table notifications (
+    read boolean not null,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    read_at timestamp(6) with time zone,
+    recipient_admin_id bigint,
+    recipient_user_id bigint,
+    type varchar(50),
+    body_ar TEXT,
+    body_en TEXT,
+    title_ar varchar(255),
+    title_en varchar(255),
+    primary key (id)
+);
+
+create table payments (
+    amount numeric(12,2) not null,
+    application_id bigint not null,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    paid_at timestamp(6) with time zone,
+    status varchar(30) not null,
+    governorate_code varchar(50) not null,
+    payment_channel varchar(50),
+    payment_reference varchar(100) not null unique,
+    external_transaction_id varchar(150),
+    notes TEXT,
+    primary key (id)
+);
+
+create table permissions (
+    id bigserial not null,
+    code varchar(100) not null unique,
+    description_ar varchar(255),
+    description_en varchar(255),
+    primary key (id)
+);
+
+create table public_content (
+    is_published boolean not null,
+    author_id bigint,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    updated_at timestamp(6) with time zone not null,
+    category varchar(50) not null,
+    content_ar TEXT not null,
+    content_en TEXT,
+    file_url varchar(255),
+    image_url varchar(255),
+    title_ar varchar(255) not null,
+    title_en varchar(255),
+    primary key (id)
+);
+
+create table role_permissions (
+    permission_id bigint not null,
+    role_id bigint not null,
+    primary key (permission_id, role_id)
+);
+
+create table roles (
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    updated_at timestamp(6) with time zone not null,
+    code varchar(50) not null unique,
+    name_ar varchar(255) not null,
+    name_en varchar(255) not null,
+    primary key (id)
+);
+
+create table system_settings (
+    id bigserial not null,
+    category varchar(100) not null,
+    setting_key varchar(100) not null,
+    description TEXT,
+    setting_value varchar(255) not null,
+    primary key (id),
+    unique (category, setting_key)
+);
+
+create table violations (
+    is_active boolean not null,
+    suspension_applied boolean not null,
+    application_id bigint,
+    created_at timestamp(6) with time zone not null,
+    id bigserial not null,
+    inspection_id bigint,
+    resolved_at timestamp(6) with time zone,
+    severity varchar(20),
+    code varchar(50) not null,
+    description TEXT not null,
+    penalty TEXT,
+    primary key (id)
+);
+
+alter table if exists admin_roles
+   add constraint FK3liyab508sfblqps0eqjhmjqk
+   foreign key (role_id)
+   references roles;
+
+alter table if exists admin_roles
+   add constraint FKghcw89q6jebq3c6kocnobjusr
+   foreign key (admin_id)
+   references admins;
+
+alter table if exists application_documents
+   add constraint FKmn7jx61bon49nk5y29jp5hu5n
+   foreign key (application_id)
+   references applications;
+
+alter table if exists application_documents
+   add constraint FKn9q3jupxk4hqrr0nvtp7ylq3
+   foreign key (uploaded_by_user)
+   references facility_users;
+
+alter table if exists application_steps
+   add constraint FK5wu4ceq969ry80kyuwykhnpbs
+   foreign key (application_id)
+   references applications;
+
+alter table if exists application_steps
+   add constraint FK1txtqaewhynu5wgw12wfhk4tt
+   foreign key (performed_by_admin)
+   references admins;
+
+alter table if exists application_steps
+   add constraint FK6rmmv2s71ko2ou0uk31mlpvop
+   foreign key (performed_by_user)
+   references facility_users;
+
+alter table if exists applications
+   add constraint FK8fbaq4s9ro9mqqj776si4n06q
+   foreign key (facility_id)
+   references facilities;
+
+alter table if exists applications
+   add constraint FKcci9efjwv9fu4kdacwte0v3m3
+   foreign key (submitted_by_user_id)
+   references facility_users;
+
+alter table if exists audit_logs
+   add constraint FKe88s974pbcjhhfbrwkq64idub
+   foreign key (actor_admin_id)
+   references admins;
+
+alter table if exists audit_logs
+   add constraint FK45nfxtd2w2tp1jht8l7i6g80r
+   foreign key (actor_user_id)
+   references facility_users;
+
+alter table if exists complaints
+   add constraint FK4n6pmy7rhryjussw7b5gpc3xs
+   foreign key (target_facility_id)
+   references facilities;
+
+alter table if exists facility_staff
+   add constraint FKduw1o0hfrvn7l4822gv5wyaan
+   foreign key (facility_id)
+   references facilities;
+
+alter table if exists facility_staff
+   add constraint FK81smccam1hlh77kyxb7ewm3ar
+   foreign key (medical_professional_id)
+   references medical_professionals;
+
+alter table if exists facility_users
+   add constraint FK6c19swndybmbnf9eadr3feqk2
+   foreign key (facility_id)
+   references facilities;
+
+alter table if exists inspection_scores
+   add constraint FKh823wt384cw9lbx1vwf0svc9s
+   foreign key (inspection_id)
+   references inspections;
+
+alter table if exists inspection_template_items
+   add constraint FKnqoj65bpybqt9i479q7qjrlxo
+   foreign key (template_id)
+   references inspection_templates;
+
+alter table if exists inspections
+   add constraint FKc8ph97a1ravg0qi6tib66o3dn
+   foreign key (application_id)
+   references applications;
+
+alter table if exists inspections
+   add constraint FKfpku837i2ym7icquxq3xk2s22
+   foreign key (inspector_id)
+   references admins;
+
+alter table if exists licenses
+   add constraint FK7x73gye38lsc8dmjqxgvgs872
+   foreign key (application_id)
+   references applications;
+
+alter table if exists notifications
+   add constraint FKjkk6qytqed76tlear26fggowm
+   foreign key (recipient_admin_id)
+   references admins;
+
+alter table if exists notifications
+   add constraint FKp9q6y0cvf67m9dh888xs6dtqh
+   foreign key (recipient_user_id)
+   references facility_users;
+
+alter table if exists payments
+   add constraint FK7pmvk2yc02fomfwd9wtjxj6fs
+   foreign key (application_id)
+   references applications;
+
+alter table if exists public_content
+   add constraint FKhl6f2qxjxut5udg5mf7ia0ugt
+   foreign key (author_id)
+   references admins;
+
+alter table if exists role_permissions
+   add constraint FKegdk29eiy7mdtefy5c7eirr6e
+   foreign key (permission_id)
+   references permissions;
+
+alter table if exists role_permissions
+   add constraint FKn5fotdgk8d1xvo8nav9uv3muc
+   foreign key (role_id)
+   references roles;
+
+alter table if exists violations
+   add constraint FK9ludxeoragni9hsuju1g3ofos
+   foreign key (application_id)
+   references applications;
+
+alter table if exists violations
+   add constraint FKac4yfbjh9vf40t247cy9gqlet
+   foreign key (inspection_id)
+   references inspections;